@@ -0,0 +1,90 @@
+/*
+ * Copyright (c)  RWTH Aachen. All rights reserved.
+ *
+ * http://www.se-rwth.de/
+ */
+package org.nest.benchmarks;
+
+import com.google.common.base.Charsets;
+import org.nest.nestml._ast.ASTDeclaration;
+import org.nest.nestml._ast.ASTExpr;
+import org.nest.nestml._ast.ASTNESTMLCompilationUnit;
+import org.nest.nestml._symboltable.typechecking.Either;
+import org.nest.nestml._symboltable.symbols.TypeSymbol;
+import org.nest.nestml._visitor.ExpressionTypeVisitor;
+import org.nest.utils.AstUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the type computation of large expressions. The shipped models contain only short expressions. Therefore,
+ * a synthetic model with an expression of {@code terms} summands is generated.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExpressionTypeBenchmark {
+  private static final String LARGE_EXPRESSION_VARIABLE = "large_expression";
+
+  @Param({"10", "100", "1000"})
+  public int terms;
+
+  private ASTExpr largeExpression;
+
+  @Setup(Level.Trial)
+  public void createModel() throws IOException {
+    final Path modelFile = Files.createTempFile("large_expression", ".nestml");
+    Files.write(modelFile, createModelText(terms).getBytes(Charsets.UTF_8));
+
+    final ASTNESTMLCompilationUnit root = ModelState.parseAndBuildSymbolTable(modelFile);
+    Files.delete(modelFile);
+
+    largeExpression = AstUtils.getAll(root, ASTDeclaration.class)
+        .stream()
+        .filter(declaration -> declaration.getVars().get(0).getName().equals(LARGE_EXPRESSION_VARIABLE))
+        .findAny()
+        .flatMap(ASTDeclaration::getExpr)
+        .orElseThrow(() -> new IllegalStateException("The synthetic model doesn't contain the large expression."));
+  }
+
+  /**
+   * The visitor doesn't use types cached in the AST and computes them for the whole expression tree.
+   */
+  @Benchmark
+  public Either<TypeSymbol, String> computeType() {
+    largeExpression.accept(new ExpressionTypeVisitor());
+    return largeExpression.getType();
+  }
+
+  private static String createModelText(final int terms) {
+    final StringBuilder expression = new StringBuilder("a");
+    for (int i = 1; i < terms; ++i) {
+      // mixes arithmetic operators, parentheses and unit arithmetic
+      expression.append(i % 2 == 0 ? " + (a * b - a) / b" : " - exp(b) * a ** 1");
+    }
+
+    return "neuron " + LARGE_EXPRESSION_VARIABLE + "_neuron:\n" +
+           "  parameters:\n" +
+           "    a mV = 1 mV\n" +
+           "    b real = 2.0\n" +
+           "  end\n" +
+           "  internals:\n" +
+           "    " + LARGE_EXPRESSION_VARIABLE + " mV = " + expression + "\n" +
+           "  end\n" +
+           "  input:\n" +
+           "    spikes <- spike\n" +
+           "  end\n" +
+           "  output: spike\n" +
+           "  update:\n" +
+           "  end\n" +
+           "end\n";
+  }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c)  RWTH Aachen. All rights reserved.
+ *
+ * http://www.se-rwth.de/
+ */
+package org.nest.benchmarks;
+
+import de.monticore.symboltable.Scope;
+import de.se_rwth.commons.logging.Finding;
+import de.se_rwth.commons.logging.Log;
+import org.nest.nestml._ast.ASTNESTMLCompilationUnit;
+import org.nest.nestml._symboltable.NESTMLScopeCreator;
+import org.nest.nestml._symboltable.NestmlCoCosManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the frontend phases: parsing, the symbol table construction and the context condition checks. Every phase
+ * works on a fresh AST, since the AST caches computed expression types.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class FrontendBenchmark {
+
+  public static class ParsedModelState extends ModelState {
+    ASTNESTMLCompilationUnit root;
+
+    @Setup(Level.Invocation)
+    public void parseModel() {
+      root = parse(getModelFile());
+    }
+
+  }
+
+  public static class ResolvedModelState extends ModelState {
+    final NestmlCoCosManager checker = new NestmlCoCosManager();
+    ASTNESTMLCompilationUnit root;
+
+    @Setup(Level.Invocation)
+    public void parseModel() {
+      root = parseAndBuildSymbolTable(getModelFile());
+    }
+
+  }
+
+  @Benchmark
+  public ASTNESTMLCompilationUnit parse(final ModelState state) {
+    return ModelState.parse(state.getModelFile());
+  }
+
+  @Benchmark
+  public Scope buildSymbolTable(final ParsedModelState state) {
+    final Scope scope = new NESTMLScopeCreator().runSymbolTableCreator(state.root);
+    Log.getFindings().clear();
+    return scope;
+  }
+
+  @Benchmark
+  public List<Finding> checkCoCos(final ResolvedModelState state) {
+    final List<Finding> findings = state.checker.analyzeModel(state.root);
+    Log.getFindings().clear();
+    return findings;
+  }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c)  RWTH Aachen. All rights reserved.
+ *
+ * http://www.se-rwth.de/
+ */
+package org.nest.benchmarks;
+
+import de.se_rwth.commons.logging.Log;
+import org.nest.nestml._ast.ASTNESTMLCompilationUnit;
+import org.nest.nestml._parser.NESTMLParser;
+import org.nest.nestml._symboltable.NESTMLScopeCreator;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+/**
+ * Provides the shipped models as the benchmark parameter. Thereby, every phase is reported per model. The folder with
+ * models can be changed through the system property {@code nestml.models}.
+ */
+@State(Scope.Benchmark)
+public class ModelState {
+  private static final String MODELS_PROPERTY = "nestml.models";
+  private static final String DEFAULT_MODELS_FOLDER = "../models";
+
+  @Param({
+      "aeif_cond_alpha",
+      "aeif_cond_exp",
+      "hh_cond_exp_traub",
+      "hh_psc_alpha",
+      "ht_neuron",
+      "iaf_chxk_2008",
+      "iaf_cond_alpha",
+      "iaf_cond_beta",
+      "iaf_cond_exp",
+      "iaf_cond_exp_sfa_rr",
+      "iaf_neuron",
+      "iaf_psc_alpha",
+      "iaf_psc_alpha_multisynapse",
+      "iaf_psc_delta",
+      "iaf_psc_exp",
+      "iaf_psc_exp_multisynapse",
+      "iaf_tum_2000",
+      "izhikevich",
+      "izhikevich_psc_alpha",
+      "mat2_psc_exp",
+      "terub_neuron_gpe",
+      "terub_neuron_stn"})
+  public String model;
+
+  public Path getModelFile() {
+    return Paths.get(System.getProperty(MODELS_PROPERTY, DEFAULT_MODELS_FOLDER), model + ".nestml");
+  }
+
+  public static ASTNESTMLCompilationUnit parse(final Path modelFile) {
+    Log.enableFailQuick(false);
+    try {
+      // the parser stores the text of the parsed model. Therefore, every call uses a new instance.
+      final Optional<ASTNESTMLCompilationUnit> root = new NESTMLParser().parse(modelFile.toString());
+      if (!root.isPresent()) {
+        throw new IllegalStateException("Cannot parse the model: " + modelFile);
+      }
+      return root.get();
+    }
+    catch (IOException e) {
+      throw new RuntimeException("Cannot read the model: " + modelFile, e);
+    }
+    finally {
+      Log.getFindings().clear(); // otherwise findings of all invocations are accumulated
+    }
+
+  }
+
+  public static ASTNESTMLCompilationUnit parseAndBuildSymbolTable(final Path modelFile) {
+    final ASTNESTMLCompilationUnit root = parse(modelFile);
+    new NESTMLScopeCreator().runSymbolTableCreator(root);
+    Log.getFindings().clear();
+    return root;
+  }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c)  RWTH Aachen. All rights reserved.
+ *
+ * http://www.se-rwth.de/
+ */
+package org.nest.codegeneration;
+
+import org.nest.benchmarks.ModelState;
+import org.nest.nestml._ast.ASTNESTMLCompilationUnit;
+import org.nest.nestml._ast.ASTNeuron;
+import org.nest.utils.FilesHelper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.toList;
+import static org.nest.utils.AstUtils.deepCloneNeuronAndBuildSymbolTable;
+
+/**
+ * Measures the template processing for every shipped model. The SymPy analysis is stubbed: neurons are generated
+ * unchanged, as in the case when SymPy cannot solve the equations. Thereby, the benchmark doesn't depend on a python
+ * installation. The benchmark is located in the generator package, since it calls the package visible
+ * {@code generateNestCode}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CodeGeneratorBenchmark {
+
+  public static class AnalysedModelState extends ModelState {
+    final NestCodeGenerator generator = new NestCodeGenerator(false);
+    Path outputFolder;
+    List<ASTNeuron> neurons;
+
+    @Setup(Level.Trial)
+    public void analyseModel() throws IOException {
+      outputFolder = Files.createTempDirectory("nestml_benchmark");
+      final ASTNESTMLCompilationUnit root = parseAndBuildSymbolTable(getModelFile());
+      neurons = root.getNeurons()
+          .stream()
+          .map(neuron -> deepCloneNeuronAndBuildSymbolTable(neuron, outputFolder))
+          .collect(toList());
+    }
+
+    @TearDown(Level.Trial)
+    public void removeGeneratedCode() {
+      FilesHelper.deleteFilesInFolder(outputFolder);
+    }
+
+  }
+
+  @Benchmark
+  public void generateNestCode(final AnalysedModelState state) {
+    for (final ASTNeuron neuron:state.neurons) {
+      state.generator.generateNestCode(neuron, state.outputFolder);
+    }
+
+  }
+
+}
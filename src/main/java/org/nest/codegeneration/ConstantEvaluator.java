@@ -0,0 +1,98 @@
+/*
+ * Copyright (c)  RWTH Aachen. All rights reserved.
+ *
+ * http://www.se-rwth.de/
+ */
+package org.nest.codegeneration;
+
+import org.nest.nestml._ast.ASTFunctionCall;
+import org.nest.nestml._symboltable.predefined.PredefinedFunctions;
+import org.nest.utils.LiteralEvaluator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Evaluates expressions which depend only on literals and known constants at generation time. The evaluation follows
+ * the generated C++ code, e.g. units are converted as by the NEST printer and booleans are represented as 1 and 0.
+ */
+class ConstantEvaluator extends LiteralEvaluator {
+  // NEST default: 1000 tics per ms, see nest::Time
+  private static final double TICS_PER_MS = 1000.0;
+
+  // Key: variable name, value: its constant value
+  private final Map<String, Double> constants;
+  private final Optional<Double> resolution;
+
+  /**
+   * @param constants Values of the known variables
+   * @param resolution The simulation resolution in ms, if it is known at generation time
+   */
+  ConstantEvaluator(final Map<String, Double> constants, final Optional<Double> resolution) {
+    this.constants = constants;
+    this.resolution = resolution;
+  }
+
+  @Override
+  protected Optional<Double> evaluateVariable(final String variableName) {
+    final Optional<Double> predefined = super.evaluateVariable(variableName);
+    if (predefined.isPresent()) {
+      return predefined;
+    }
+    else {
+      return Optional.ofNullable(constants.get(variableName));
+    }
+
+  }
+
+  @Override
+  protected Optional<Double> evaluateFunctionCall(final ASTFunctionCall astFunctionCall) {
+    final String functionName = astFunctionCall.getCalleeName();
+    if ("resolution".equals(functionName)) {
+      return resolution;
+    }
+
+    final List<Optional<Double>> args = astFunctionCall.getArgs()
+        .stream()
+        .map(this::evaluate)
+        .collect(Collectors.toList());
+    if (args.stream().anyMatch(arg -> !arg.isPresent())) {
+      return Optional.empty();
+    }
+
+    final List<Double> values = args.stream().map(Optional::get).collect(Collectors.toList());
+    if ("steps".equals(functionName) && values.size() == 1 && resolution.isPresent()) {
+      // nest::Time rounds to tics and truncates to steps
+      final long tics = Math.round(values.get(0) * TICS_PER_MS);
+      final long ticsPerStep = Math.round(resolution.get() * TICS_PER_MS);
+      return Optional.of((double) (tics / ticsPerStep));
+    }
+    else if (PredefinedFunctions.EXP.equals(functionName) && values.size() == 1) {
+      return Optional.of(Math.exp(values.get(0)));
+    }
+    else if ("expm1".equals(functionName) && values.size() == 1) {
+      return Optional.of(Math.expm1(values.get(0)));
+    }
+    else if (PredefinedFunctions.LOG.equals(functionName) && values.size() == 1) {
+      return Optional.of(Math.log(values.get(0)));
+    }
+    else if (PredefinedFunctions.POW.equals(functionName) && values.size() == 2) {
+      return Optional.of(Math.pow(values.get(0), values.get(1)));
+    }
+    else if ((PredefinedFunctions.MAX.equals(functionName) || PredefinedFunctions.BOUNDED_MAX.equals(functionName)) &&
+             values.size() == 2) {
+      return Optional.of(Math.max(values.get(0), values.get(1)));
+    }
+    else if ((PredefinedFunctions.MIN.equals(functionName) || PredefinedFunctions.BOUNDED_MIN.equals(functionName)) &&
+             values.size() == 2) {
+      return Optional.of(Math.min(values.get(0), values.get(1)));
+    }
+    else {
+      return Optional.empty();
+    }
+
+  }
+
+}
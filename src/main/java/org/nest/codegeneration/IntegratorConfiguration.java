@@ -0,0 +1,205 @@
+/*
+ * Copyright (c)  RWTH Aachen. All rights reserved.
+ *
+ * http://www.se-rwth.de/
+ */
+package org.nest.codegeneration;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Selects the integrator for neurons which are integrated numerically. The integrator is defined for all neurons, for
+ * single neurons or both, e.g. {@code rk4imp,hh_psc_alpha=bsimp}. An entry has the form
+ * {@code [neuron=]stepper[:absolute_tolerance[:relative_tolerance]]}, e.g. {@code rkf45:1e-6:1e-6}. The stepper is
+ * either a GSL stepper with adaptive step size control or a fixed-step method, which is inlined into the generated
+ * update function, e.g. {@code fixed_rk4}. If a part of a neuron entry is empty, the value for all neurons is used,
+ * e.g. {@code hh_psc_alpha=:1e-8}.
+ */
+public class IntegratorConfiguration {
+  public static final String DEFAULT_STEPPER = "rkf45";
+  public static final double DEFAULT_ABSOLUTE_TOLERANCE = 1e-3;
+  public static final double DEFAULT_RELATIVE_TOLERANCE = 0.0;
+  // steppers of the gsl_odeiv interface which is used by the generated code
+  private static final List<String> STEPPERS = ImmutableList.of(
+      "rk2", "rk4", "rkf45", "rkck", "rk8pd", "rk2imp", "rk4imp", "bsimp", "gear1", "gear2");
+  // these steppers cannot be used without the Jacobian of the ODE system
+  private static final List<String> JACOBIAN_STEPPERS = ImmutableList.of("bsimp");
+  // these methods integrate with the simulation resolution as step size and don't call GSL
+  private static final String FIXED_STEP_PREFIX = "fixed_";
+  private static final List<String> FIXED_STEP_METHODS = ImmutableList.of("rk4", "rk45");
+
+  private final Integrator defaultIntegrator;
+  // Key: neuron name, value: its integrator
+  private final Map<String, Integrator> neuronIntegrators;
+
+  public IntegratorConfiguration() {
+    this(new Integrator(Optional.empty(), Optional.empty(), Optional.empty()), Maps.newTreeMap());
+  }
+
+  private IntegratorConfiguration(final Integrator defaultIntegrator, final Map<String, Integrator> neuronIntegrators) {
+    this.defaultIntegrator = defaultIntegrator;
+    this.neuronIntegrators = neuronIntegrators;
+  }
+
+  /**
+   * @param specification Comma separated list of integrators. An entry is either an integrator, which is used for all
+   *                      neurons, or {@code neuron=integrator}.
+   * @return The configuration or an empty value, if the specification contains an unknown stepper, an invalid
+   * tolerance or is malformed.
+   */
+  public static Optional<IntegratorConfiguration> fromString(final String specification) {
+    Integrator defaultIntegrator = new Integrator(Optional.empty(), Optional.empty(), Optional.empty());
+    final Map<String, Integrator> neuronIntegrators = Maps.newTreeMap();
+
+    for (final String entry:specification.split(",")) {
+      final String[] neuronAndIntegrator = entry.trim().split("=");
+      if (neuronAndIntegrator.length > 2) {
+        return Optional.empty();
+      }
+
+      final Optional<Integrator> integrator = Integrator.fromString(
+          neuronAndIntegrator[neuronAndIntegrator.length - 1].trim());
+      if (!integrator.isPresent()) {
+        return Optional.empty();
+      }
+
+      if (neuronAndIntegrator.length == 2) {
+        neuronIntegrators.put(neuronAndIntegrator[0].trim(), integrator.get());
+      }
+      else {
+        defaultIntegrator = integrator.get();
+      }
+
+    }
+
+    return Optional.of(new IntegratorConfiguration(defaultIntegrator, neuronIntegrators));
+  }
+
+  /**
+   * @return The names of all supported steppers, e.g. rkf45 for gsl_odeiv_step_rkf45 or fixed_rk4.
+   */
+  public static List<String> getSteppers() {
+    final List<String> steppers = Lists.newArrayList(STEPPERS);
+    FIXED_STEP_METHODS.forEach(method -> steppers.add(FIXED_STEP_PREFIX + method));
+    return steppers;
+  }
+
+  public String getStepper(final String neuronName) {
+    return getIntegrator(neuronName).stepper
+        .orElse(defaultIntegrator.stepper.orElse(DEFAULT_STEPPER));
+  }
+
+  public double getAbsoluteTolerance(final String neuronName) {
+    return getIntegrator(neuronName).absoluteTolerance
+        .orElse(defaultIntegrator.absoluteTolerance.orElse(DEFAULT_ABSOLUTE_TOLERANCE));
+  }
+
+  public double getRelativeTolerance(final String neuronName) {
+    return getIntegrator(neuronName).relativeTolerance
+        .orElse(defaultIntegrator.relativeTolerance.orElse(DEFAULT_RELATIVE_TOLERANCE));
+  }
+
+  /**
+   * @return The fixed-step method, e.g. rk4, or an empty value, if the neuron is integrated by a GSL stepper.
+   */
+  public Optional<String> getFixedStepMethod(final String neuronName) {
+    final String stepper = getStepper(neuronName);
+    if (stepper.startsWith(FIXED_STEP_PREFIX)) {
+      return Optional.of(stepper.substring(FIXED_STEP_PREFIX.length()));
+    }
+    else {
+      return Optional.empty();
+    }
+
+  }
+
+  private Integrator getIntegrator(final String neuronName) {
+    return neuronIntegrators.getOrDefault(neuronName, defaultIntegrator);
+  }
+
+  static boolean requiresJacobian(final String stepper) {
+    return JACOBIAN_STEPPERS.contains(stepper);
+  }
+
+  /**
+   * The string representation is stable. Therefore, it can be used to detect changed generator options.
+   */
+  @Override
+  public String toString() {
+    return defaultIntegrator + "," + Joiner.on(",").withKeyValueSeparator("=").join(neuronIntegrators);
+  }
+
+  /**
+   * Integrator settings of one specification entry. Absent values are taken from the entry for all neurons.
+   */
+  private static class Integrator {
+    final Optional<String> stepper;
+    final Optional<Double> absoluteTolerance;
+    final Optional<Double> relativeTolerance;
+
+    Integrator(
+        final Optional<String> stepper,
+        final Optional<Double> absoluteTolerance,
+        final Optional<Double> relativeTolerance) {
+      this.stepper = stepper;
+      this.absoluteTolerance = absoluteTolerance;
+      this.relativeTolerance = relativeTolerance;
+    }
+
+    static Optional<Integrator> fromString(final String specification) {
+      final String[] parts = specification.split(":", -1);
+      if (parts.length > 3) {
+        return Optional.empty();
+      }
+
+      final Optional<String> stepper = parts[0].trim().isEmpty() ? Optional.empty() : Optional.of(parts[0].trim());
+      if (stepper.isPresent() && !getSteppers().contains(stepper.get())) {
+        return Optional.empty();
+      }
+
+      // the generated code rejects an absolute tolerance of 0
+      final Optional<Double> absoluteTolerance = parts.length > 1 ?
+                                                 parseTolerance(parts[1]).filter(value -> value > 0) :
+                                                 Optional.empty();
+      final Optional<Double> relativeTolerance = parts.length > 2 ? parseTolerance(parts[2]) : Optional.empty();
+      // every given part must be valid and the entry must not be empty
+      final int givenParts = (stepper.isPresent() ? 1 : 0) +
+                             (absoluteTolerance.isPresent() ? 1 : 0) +
+                             (relativeTolerance.isPresent() ? 1 : 0);
+      final long nonEmptyParts = Arrays.stream(parts).filter(part -> !part.trim().isEmpty()).count();
+      if (givenParts == 0 || givenParts != nonEmptyParts) {
+        return Optional.empty();
+      }
+
+      return Optional.of(new Integrator(stepper, absoluteTolerance, relativeTolerance));
+    }
+
+    private static Optional<Double> parseTolerance(final String tolerance) {
+      try {
+        final double value = Double.parseDouble(tolerance.trim());
+        return value >= 0 ? Optional.of(value) : Optional.empty();
+      }
+      catch (NumberFormatException e) {
+        return Optional.empty();
+      }
+
+    }
+
+    @Override
+    public String toString() {
+      return stepper.orElse("") + ":" +
+             absoluteTolerance.map(String::valueOf).orElse("") + ":" +
+             relativeTolerance.map(String::valueOf).orElse("");
+    }
+
+  }
+
+}
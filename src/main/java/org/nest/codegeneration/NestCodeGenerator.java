@@ -5,23 +5,36 @@
  */
 package org.nest.codegeneration;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import de.monticore.ast.ASTNode;
 import de.monticore.generating.GeneratorEngine;
 import de.monticore.generating.GeneratorSetup;
 import de.monticore.generating.templateengine.GlobalExtensionManagement;
 import org.nest.codegeneration.converters.*;
 import org.nest.codegeneration.helpers.*;
 import org.nest.codegeneration.sympy.EquationsBlockProcessor;
+import org.nest.codegeneration.sympy.JacobianElement;
 import org.nest.codegeneration.sympy.OdeTransformer;
+import org.nest.nestml._ast.ASTAssignment;
 import org.nest.nestml._ast.ASTBody;
+import org.nest.nestml._ast.ASTFunctionCall;
 import org.nest.nestml._ast.ASTNESTMLCompilationUnit;
 import org.nest.nestml._ast.ASTNeuron;
 import org.nest.nestml._ast.ASTOdeDeclaration;
+import org.nest.nestml._ast.ASTVariable;
 import org.nest.nestml._symboltable.NESTMLLanguage;
 import org.nest.nestml._symboltable.NestmlSymbols;
+import org.nest.nestml._symboltable.predefined.PredefinedFunctions;
+import org.nest.nestml._symboltable.predefined.PredefinedVariables;
+import org.nest.nestml._symboltable.symbols.VariableSymbol;
 import org.nest.nestml.prettyprinter.ExpressionsPrettyPrinter;
 import org.nest.nestml.prettyprinter.IReferenceConverter;
 import org.nest.nestml.prettyprinter.LegacyExpressionPrinter;
 import org.nest.reporting.Reporter;
+import org.nest.utils.AstIndex;
 import org.nest.utils.AstUtils;
 
 import java.io.File;
@@ -29,6 +42,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static org.nest.utils.AstUtils.deepCloneNeuronAndBuildSymbolTable;
@@ -41,12 +55,68 @@ import static org.nest.utils.AstUtils.getAllNeurons;
  */
 public class NestCodeGenerator {
   private final static Reporter reporter = Reporter.get();
+  // the update step of a neuron which calls these functions is not determined by its state and input
+  private static final Set<String> SIDE_EFFECT_FUNCTIONS = ImmutableSet.of(
+      PredefinedFunctions.RANDOM,
+      PredefinedFunctions.RANDOM_INT,
+      PredefinedFunctions.PRINT,
+      PredefinedFunctions.PRINTLN,
+      PredefinedFunctions.LOGGER_INFO,
+      PredefinedFunctions.LOGGER_WARNING);
+  private static final String BENCHMARK_FOLDER = "benchmark";
+  // NEST and SLI headers which are included by generated neurons and replaced in benchmarks
+  private static final List<String> STUB_HEADERS = ImmutableList.of(
+      "config.h",
+      "archiving_node.h",
+      "connection.h",
+      "event.h",
+      "nest_types.h",
+      "ring_buffer.h",
+      "universal_data_logger.h",
+      "universal_data_logger_impl.h",
+      "dictdatum.h",
+      "dict.h",
+      "dictutils.h",
+      "doubledatum.h",
+      "integerdatum.h",
+      "lockptrdatum.h",
+      "numerics.h",
+      "exceptions.h",
+      "kernel_manager.h");
   private final EquationsBlockProcessor equationsBlockProcessor;
   private final Boolean enableTracing ;
+  private final IntegratorConfiguration integratorConfiguration;
+  private final boolean isPopulationKernel;
+  private final Precision precision;
+  private final ParameterSet parameterSet;
+  private final boolean isQuiescence;
+  private final boolean isBenchmark;
+  private final boolean isReducePowers;
 
   public NestCodeGenerator(boolean enableTracing) {
-    this.equationsBlockProcessor = new EquationsBlockProcessor();
-    this.enableTracing = enableTracing;
+    this(new Builder().withTracing(enableTracing));
+  }
+
+  private NestCodeGenerator(final Builder builder) {
+    this.equationsBlockProcessor = builder.solverCacheFolder
+        .map(EquationsBlockProcessor::new)
+        .orElseGet(EquationsBlockProcessor::new);
+    this.enableTracing = builder.enableTracing;
+    this.integratorConfiguration = builder.integratorConfiguration;
+    this.isPopulationKernel = builder.isPopulationKernel;
+    this.precision = builder.precision;
+    this.parameterSet = builder.parameterSet;
+    this.isQuiescence = builder.isQuiescence;
+    this.isBenchmark = builder.isBenchmark;
+    this.isReducePowers = builder.isReducePowers;
+  }
+
+  /**
+   * Analyses equations of all neurons from {@code modelRoots} with one SymPy call. Results are used by the subsequent
+   * {@link #analyseAndGenerate} calls. The call is optional; without it, every neuron is analysed separately.
+   */
+  public void solveEquationsInBatch(final List<ASTNESTMLCompilationUnit> modelRoots, final Path outputBase) {
+    equationsBlockProcessor.solveInBatch(getAllNeurons(modelRoots), outputBase);
   }
 
   /**
@@ -66,11 +136,24 @@ public class NestCodeGenerator {
       final ASTNeuron astNeuron,
       final Path outputBase) {
     reporter.reportProgress("Starts processing of the neuron: " + astNeuron.getName());
+    final Reporter.Timer timer = reporter.startTimer(astNeuron.getName(), "codegeneration");
     ASTNeuron workingVersion = deepCloneNeuronAndBuildSymbolTable(astNeuron, outputBase);
 
     workingVersion = solveOdesAndShapes(workingVersion, outputBase);
-    workingVersion = AstUtils.deepCloneNeuronAndBuildSymbolTable(workingVersion, outputBase);
-    generateNestCode(workingVersion, outputBase);
+    workingVersion = solveLinearOdeSystem(workingVersion, outputBase);
+    workingVersion = deepCloneNeuronAndBuildSymbolTable(workingVersion, outputBase);
+    // the Jacobian is computed from the unoptimized equations, since they are analysed by SymPy already
+    final Optional<List<JacobianElement>> jacobian = computeJacobian(workingVersion, outputBase);
+    workingVersion = optimizeEquations(workingVersion, outputBase);
+    // propagators are computed by SymPy already and can be evaluated for fixed parameters
+    final ParameterSpecializer parameterSpecializer = new ParameterSpecializer(
+        parameterSet.getParameters(astNeuron.getName()),
+        parameterSet.getResolution());
+    workingVersion = parameterSpecializer.specialize(workingVersion);
+    // with enabled tracing the transformed model is stored as a temporary file for debugging purposes
+    workingVersion = deepCloneNeuronAndBuildSymbolTable(workingVersion, outputBase, enableTracing);
+    generateNestCode(workingVersion, jacobian, parameterSpecializer.getConstants(), outputBase);
+    timer.stop();
 
     final String msg = "Successfully generated NEST code for: '" + astNeuron.getName() + "' in: '"
         + outputBase.toAbsolutePath().toString() + "'";
@@ -86,7 +169,7 @@ public class NestCodeGenerator {
     if (odesBlock.isPresent()) {
       if (odesBlock.get().getShapes().size() == 0 && odesBlock.get().getODEs().size() > 1) {
         final String msg = String.format(
-            "The neuron %s will be solved numerically with GSL solver without modification.",
+            "The ODE system of the neuron %s will be solved exactly, if it is linear, or numerically with GSL solver.",
             astNeuron.getName());
         reporter.reportProgress(msg);
         return astNeuron;
@@ -104,11 +187,81 @@ public class NestCodeGenerator {
 
   }
 
-  private void generateNestCode(final ASTNeuron astNeuron, final Path outputBase) {
+  /**
+   * ODE systems which would be integrated by GSL are solved exactly, if they are linear with constant coefficients.
+   * Shapes must be already transformed.
+   */
+  private ASTNeuron solveLinearOdeSystem(final ASTNeuron astNeuron, final Path outputBase) {
+    if (isSolvedWithGSL(astNeuron.getBody())) {
+      return equationsBlockProcessor.solveLinearOdeSystem(astNeuron, outputBase);
+    }
+    else {
+      return astNeuron;
+    }
+
+  }
+
+  /**
+   * Right-hand sides are optimized only for neurons which are integrated by GSL.
+   */
+  private ASTNeuron optimizeEquations(final ASTNeuron astNeuron, final Path outputBase) {
+    if (isSolvedWithGSL(astNeuron.getBody())) {
+      return equationsBlockProcessor.optimizeEquations(astNeuron, outputBase);
+    }
+    else {
+      return astNeuron;
+    }
+
+  }
+
+  /**
+   * The Jacobian is computed only for neurons which are integrated by GSL steppers. Shapes must be already
+   * transformed.
+   */
+  private Optional<List<JacobianElement>> computeJacobian(final ASTNeuron astNeuron, final Path outputBase) {
+    if (isSolvedWithGSL(astNeuron.getBody()) &&
+        !integratorConfiguration.getFixedStepMethod(astNeuron.getName()).isPresent()) {
+      return equationsBlockProcessor.computeJacobian(astNeuron, outputBase);
+    }
+    else {
+      return Optional.empty();
+    }
+
+  }
+
+  /**
+   * Generates the neuron code from an already analysed neuron. It is package visible for benchmarks which measure
+   * the template processing without the SymPy analysis.
+   */
+  void generateNestCode(final ASTNeuron astNeuron, final Path outputBase) {
+    generateNestCode(astNeuron, Optional.empty(), Sets.newHashSet(), outputBase);
+  }
+
+  /**
+   * @param jacobian If present, it is passed to the GSL stepper.
+   * @param constants Names of parameters and internals which are fixed at generation time.
+   */
+  private void generateNestCode(
+      final ASTNeuron astNeuron,
+      final Optional<List<JacobianElement>> jacobian,
+      final Set<String> constants,
+      final Path outputBase) {
+    final Set<String> singlePrecisionVariables = precision == Precision.MIXED ?
+                                                 SinglePrecisionVariables.select(astNeuron) :
+                                                 Sets.newHashSet();
     final GlobalExtensionManagement glex = getGlexConfiguration();
-    setNeuronGenerationParameter(glex, astNeuron);
+    setNeuronGenerationParameter(glex, astNeuron, jacobian, singlePrecisionVariables, constants);
+    defineQuiescence(glex, astNeuron);
     generateHeader(astNeuron, outputBase, glex);
     generateClassImplementation(astNeuron, outputBase, glex);
+    if (isPopulationKernel) {
+      generatePopulationKernel(astNeuron, singlePrecisionVariables, outputBase);
+    }
+
+    if (isBenchmark) {
+      generateBenchmark(astNeuron, outputBase, glex);
+    }
+
   }
 
   private void generateHeader(
@@ -119,8 +272,8 @@ public class NestCodeGenerator {
     setup.setGlex(glex);
     setup.setTracing(enableTracing);
     final GeneratorEngine generator = new GeneratorEngine(setup);
-    final Path outputFile = Paths.get(astNeuron.getName() + ".h");
-    generator.generate("org.nest.nestml.neuron.NeuronHeader", outputFile, astNeuron);
+    final Path outputFile = Paths.get(getNeuronHeaderName(astNeuron.getName()));
+    generate(generator, "org.nest.nestml.neuron.NeuronHeader", outputFolder, outputFile, astNeuron, astNeuron.getName());
   }
 
   private void generateClassImplementation(
@@ -132,12 +285,146 @@ public class NestCodeGenerator {
     setup.setTracing(enableTracing);
     final GeneratorEngine generator = new GeneratorEngine(setup);
 
-    final Path classImplementationFile = Paths.get(astNeuron.getName() + ".cpp");
-    generator.generate(
+    final Path classImplementationFile = Paths.get(getNeuronImplementationName(astNeuron.getName()));
+    generate(
+        generator,
         "org.nest.nestml.neuron.NeuronClass",
+        outputFolder,
         classImplementationFile,
-        astNeuron);
+        astNeuron,
+        astNeuron.getName());
+
+  }
+
+  /**
+   * The population kernel stores the state of all neurons as arrays and updates them in one vectorisable loop.
+   * Neurons which don't support it are reported and skipped.
+   */
+  private void generatePopulationKernel(
+      final ASTNeuron astNeuron,
+      final Set<String> singlePrecisionVariables,
+      final Path outputFolder) {
+    if (!isPopulationKernelSupported(astNeuron)) {
+      final String msg = String.format(
+          "The population kernel of %s is not generated. It supports only neurons which are solved exactly, " +
+          "have no functions, no vector variables and change only state variables in the update block.",
+          astNeuron.getName());
+      reporter.reportProgress(msg, Reporter.Level.WARNING);
+      return;
+    }
+
+    final GlobalExtensionManagement glex = getGlexConfiguration();
+    // parameters of the population are set at runtime
+    setNeuronGenerationParameter(glex, astNeuron, Optional.empty(), singlePrecisionVariables, Sets.newHashSet());
+    glex.setGlobalValue("names", new PopulationNames());
+    glex.setGlobalValue("expressionsPrinter", createCppPrinter(new PopulationReferenceConverter()));
+
+    final GeneratorSetup setup = new GeneratorSetup(new File(outputFolder.toString()));
+    setup.setGlex(glex);
+    setup.setTracing(enableTracing);
+    final GeneratorEngine generator = new GeneratorEngine(setup);
+    final Path populationFile = Paths.get(getPopulationKernelName(astNeuron.getName()));
+    generate(
+        generator,
+        "org.nest.nestml.neuron.PopulationKernel",
+        outputFolder,
+        populationFile,
+        astNeuron,
+        astNeuron.getName());
+  }
+
+  /**
+   * The benchmark driver uses the configuration of the neuron, e.g. to report the solver.
+   */
+  private void generateBenchmark(
+      final ASTNeuron astNeuron,
+      final Path outputFolder,
+      final GlobalExtensionManagement glex) {
+    final GeneratorSetup setup = new GeneratorSetup(new File(outputFolder.toString()));
+    setup.setGlex(glex);
+    setup.setTracing(enableTracing);
+    final GeneratorEngine generator = new GeneratorEngine(setup);
+    final Path benchmarkFile = Paths.get(getBenchmarkName(astNeuron.getName()));
+    generate(
+        generator,
+        "org.nest.nestml.benchmark.NeuronBenchmark",
+        outputFolder,
+        benchmarkFile,
+        astNeuron,
+        astNeuron.getName());
+  }
+
+  private void defineQuiescence(final GlobalExtensionManagement glex, final ASTNeuron astNeuron) {
+    glex.setGlobalValue("useQuiescence", false);
+    if (!isQuiescence) {
+      return;
+    }
+
+    if (isQuiescenceSupported(astNeuron)) {
+      glex.setGlobalValue("useQuiescence", true);
+    }
+    else {
+      final String msg = String.format(
+          "The neuron %s updates its state in every step. Resting steps can be skipped only for neurons without " +
+          "vector variables, vector buffers, random or logging functions and references to the time t.",
+          astNeuron.getName());
+      reporter.reportProgress(msg, Reporter.Level.WARNING);
+    }
+
+  }
+
+  /**
+   * A step is skipped, if the previous step did neither change any state variable exactly nor emit a spike and there
+   * is no input. Then, the state is a fixed point of the update step, so that skipping the step yields the same
+   * results as computing it. This holds only if the update step depends on nothing but the state, parameters and
+   * input, e.g. not on random numbers or the time. The state must be comparable element-wise.
+   */
+  static boolean isQuiescenceSupported(final ASTNeuron astNeuron) {
+    final ASTBody astBody = astNeuron.getBody();
+    if (!astBody.getDynamicsBlock().isPresent() ||
+        astBody.isArrayBuffer() ||
+        astBody.getStateSymbols().stream().anyMatch(VariableSymbol::isVector)) {
+      return false;
+    }
+
+    final AstIndex index = AstIndex.of(astNeuron);
+    final boolean hasSideEffects = index.getAll(astBody, ASTFunctionCall.class)
+        .stream()
+        .anyMatch(functionCall -> SIDE_EFFECT_FUNCTIONS.contains(functionCall.getCalleeName()));
+    if (hasSideEffects) {
+      return false;
+    }
+
+    // the update step is computed by the dynamics and the functions it calls
+    final List<ASTNode> updateStep = Lists.newArrayList(astBody.getDynamicsBlock().get());
+    updateStep.addAll(astBody.getFunctions());
+    return updateStep.stream()
+        .flatMap(node -> index.getAll(node, ASTVariable.class).stream())
+        .noneMatch(variable -> PredefinedVariables.TIME_CONSTANT.equals(variable.toString()));
+  }
+
+  /**
+   * All neurons of a population share parameters and internals. Therefore, the update block may change only state
+   * variables. Numerical integration, functions and vectors are not supported in the vectorised update loop.
+   */
+  static boolean isPopulationKernelSupported(final ASTNeuron astNeuron) {
+    final ASTBody astBody = astNeuron.getBody();
+    if (astBody.getOdeBlock().isPresent() || !astBody.getFunctions().isEmpty() || astBody.isArrayBuffer()) {
+      return false;
+    }
 
+    final boolean hasVectors = astBody.getStateSymbols().stream().anyMatch(VariableSymbol::isVector) ||
+                               astBody.getParameterSymbols().stream().anyMatch(VariableSymbol::isVector) ||
+                               astBody.getInternalSymbols().stream().anyMatch(VariableSymbol::isVector);
+    if (hasVectors || !astBody.getDynamicsBlock().isPresent()) {
+      return false;
+    }
+
+    final ASTAssignments assignments = new ASTAssignments();
+    return AstIndex.of(astNeuron).getAll(astBody.getDynamicsBlock().get(), ASTAssignment.class)
+        .stream()
+        .map(assignments::lhsVariable)
+        .allMatch(variable -> variable.isState() || VariableSymbol.BlockType.LOCAL.equals(variable.getBlockType()));
   }
 
   /**
@@ -163,42 +450,177 @@ public class NestCodeGenerator {
     final GeneratorEngine generator = new GeneratorEngine(setup);
 
     final Path cmakeLists = Paths.get("CMakeLists.txt");
-    generator.generate(
+    generate(
+        generator,
         "org.nest.nestml.module.CMakeLists",
+        outputDirectory,
         cmakeLists,
-        neurons.get(0)); // an arbitrary AST to match the signature
+        neurons.get(0), // an arbitrary AST to match the signature
+        moduleName);
 
     final Path cmakeModuleHeader = Paths.get(moduleName + ".h");
-    generator.generate(
+    generate(
+        generator,
         "org.nest.nestml.module.ModuleHeader",
+        outputDirectory,
         cmakeModuleHeader,
-        neurons.get(0)); // an arbitrary AST to match the signature
+        neurons.get(0), // an arbitrary AST to match the signature
+        moduleName);
 
     final Path cmakeModuleClass = Paths.get(moduleName + ".cpp");
-    generator.generate(
+    generate(
+        generator,
         "org.nest.nestml.module.ModuleClass",
+        outputDirectory,
         cmakeModuleClass,
-        neurons.get(0)); // an arbitrary AST to match the signature
+        neurons.get(0), // an arbitrary AST to match the signature
+        moduleName);
 
     final Path initSLI = Paths.get("sli", moduleName + "-init.sli");
-    generator.generate(
+    generate(
+        generator,
         "org.nest.nestml.module.SLI_Init",
+        outputDirectory,
         initSLI,
-        neurons.get(0)); // an arbitrary AST to match the signature
+        neurons.get(0), // an arbitrary AST to match the signature
+        moduleName);
 
     reporter.reportProgress("Successfully generated NEST module code in " + outputDirectory);
   }
 
+  /**
+   * Generates the build and the NEST stand-ins for the benchmark drivers of the neurons. The drivers are compiled
+   * and run without a NEST installation. Status dictionaries and recording are no-ops in the stand-ins.
+   * @param modelRoots List with neurons
+   * @param moduleName The name of the nest module, which is used as the name of the benchmark project
+   * @param outputDirectory Directory to write the output
+   */
+  public void generateBenchmarkHarness(
+      final List<ASTNESTMLCompilationUnit> modelRoots,
+      final String moduleName,
+      final Path outputDirectory) {
+    final List<ASTNeuron> neurons = getAllNeurons(modelRoots);
+    final GeneratorSetup setup = new GeneratorSetup(new File(outputDirectory.toString()));
+
+    final GlobalExtensionManagement glex = getGlexConfiguration();
+    glex.setGlobalValue("neurons", neurons);
+    glex.setGlobalValue("moduleName", moduleName);
+
+    setup.setGlex(glex);
+    setup.setTracing(false); // must be disabled
+    final GeneratorEngine generator = new GeneratorEngine(setup);
+
+    generate(
+        generator,
+        "org.nest.nestml.benchmark.CMakeLists",
+        outputDirectory,
+        Paths.get(BENCHMARK_FOLDER, "CMakeLists.txt"),
+        neurons.get(0), // an arbitrary AST to match the signature
+        moduleName);
+
+    generate(
+        generator,
+        "org.nest.nestml.benchmark.NestStandalone",
+        outputDirectory,
+        Paths.get(BENCHMARK_FOLDER, "stubs", "nest_standalone.h"),
+        neurons.get(0), // an arbitrary AST to match the signature
+        moduleName);
+
+    for (final String header:STUB_HEADERS) {
+      generate(
+          generator,
+          "org.nest.nestml.benchmark.StubHeader",
+          outputDirectory,
+          Paths.get(BENCHMARK_FOLDER, "stubs", header),
+          neurons.get(0), // an arbitrary AST to match the signature
+          moduleName);
+    }
+
+    reporter.reportProgress("Successfully generated the benchmark harness in " + outputDirectory);
+  }
+
+  /**
+   * Processes the {@code template} and reports its processing time and the size of the generated file.
+   */
+  private void generate(
+      final GeneratorEngine generator,
+      final String template,
+      final Path outputFolder,
+      final Path outputFile,
+      final ASTNode node,
+      final String artifactName) {
+    final Reporter.Timer timer = reporter.startTimer(artifactName, "template:" + template);
+    generator.generate(template, outputFile, node);
+    timer.stop();
+
+    final File generatedFile = Paths.get(outputFolder.toString(), outputFile.toString()).toFile();
+    reporter.addCounter(artifactName, "generated:" + outputFile, "bytes", generatedFile.length());
+  }
+
+  /**
+   * @return Names of the artifacts which are always generated for the neuron. They are relative to the output folder.
+   */
+  public static List<String> getNeuronArtifacts(final String neuronName) {
+    return Lists.newArrayList(
+        getNeuronHeaderName(neuronName),
+        getNeuronImplementationName(neuronName));
+  }
+
+  /**
+   * @return Names of the artifacts which are generated for the neuron depending on the options and the model, i.e.
+   * the population kernel and the benchmark driver. They are relative to the output folder.
+   */
+  public static List<String> getOptionalNeuronArtifacts(final String neuronName) {
+    return Lists.newArrayList(
+        getPopulationKernelName(neuronName),
+        getBenchmarkName(neuronName));
+  }
+
+  /**
+   * @param isBenchmark If true, the benchmark harness is a part of the module. See {@link #generateBenchmarkHarness}.
+   * @return Names of the artifacts generated for the module. They are relative to the output folder.
+   */
+  public static List<String> getModuleArtifacts(final String moduleName, final boolean isBenchmark) {
+    final List<String> artifacts = Lists.newArrayList(
+        "CMakeLists.txt",
+        moduleName + ".h",
+        moduleName + ".cpp",
+        Paths.get("sli", moduleName + "-init.sli").toString());
+    if (isBenchmark) {
+      artifacts.add(Paths.get(BENCHMARK_FOLDER, "CMakeLists.txt").toString());
+      artifacts.add(Paths.get(BENCHMARK_FOLDER, "stubs", "nest_standalone.h").toString());
+      STUB_HEADERS.forEach(header -> artifacts.add(Paths.get(BENCHMARK_FOLDER, "stubs", header).toString()));
+    }
+
+    return artifacts;
+  }
+
+  private static String getNeuronHeaderName(final String neuronName) {
+    return neuronName + ".h";
+  }
+
+  private static String getNeuronImplementationName(final String neuronName) {
+    return neuronName + ".cpp";
+  }
+
+  private static String getPopulationKernelName(final String neuronName) {
+    return neuronName + "_population.h";
+  }
+
+  private static String getBenchmarkName(final String neuronName) {
+    return Paths.get(BENCHMARK_FOLDER, neuronName + "_benchmark.cpp").toString();
+  }
+
   private GlobalExtensionManagement getGlexConfiguration() {
     final GlobalExtensionManagement glex = new GlobalExtensionManagement();
     final NESTReferenceConverter converter = new NESTReferenceConverter();
-    final ExpressionsPrettyPrinter expressionsPrinter  = new LegacyExpressionPrinter(converter);
+    final ExpressionsPrettyPrinter expressionsPrinter  = createCppPrinter(converter);
 
     final IReferenceConverter parameterBlockConverter = new NESTParameterBlockReferenceConverter();
-    final ExpressionsPrettyPrinter parameterBlockPrinter = new LegacyExpressionPrinter(parameterBlockConverter);
+    final ExpressionsPrettyPrinter parameterBlockPrinter = createCppPrinter(parameterBlockConverter);
 
     final IReferenceConverter stateBlockReferenceConverter = new NESTStateBlockReferenceConverter();
-    final ExpressionsPrettyPrinter stateBlockPrettyPrinter = new LegacyExpressionPrinter(stateBlockReferenceConverter);
+    final ExpressionsPrettyPrinter stateBlockPrettyPrinter = createCppPrinter(stateBlockReferenceConverter);
 
     glex.setGlobalValue("expressionsPrinter", expressionsPrinter);
     glex.setGlobalValue("functionCallConverter", converter);
@@ -211,13 +633,25 @@ public class NestCodeGenerator {
   }
 
 
+  /**
+   * If enabled, powers with constant exponents are printed without pow calls, since they are evaluated in the update
+   * loop and in the ODE right-hand sides.
+   */
+  private ExpressionsPrettyPrinter createCppPrinter(final IReferenceConverter converter) {
+    return new LegacyExpressionPrinter(converter, isReducePowers);
+  }
+
   private void setNeuronGenerationParameter(
       final GlobalExtensionManagement glex,
-      final ASTNeuron neuron) {
+      final ASTNeuron neuron,
+      final Optional<List<JacobianElement>> jacobian,
+      final Set<String> singlePrecisionVariables,
+      final Set<String> constants) {
     checkArgument(neuron.getSymbol().isPresent());
     glex.setGlobalValue("names", new Names());
     glex.setGlobalValue("statusNames", new Names());
-    defineSolverType(glex, neuron); // potentially, overrides names with gsl name provider. the order is important
+    // potentially, overrides names with gsl name provider. the order is important
+    defineSolverType(glex, neuron, jacobian);
 
     final String guard = (neuron.getName()).replace(".", "_");
     glex.setGlobalValue("guard", guard);
@@ -225,7 +659,10 @@ public class NestCodeGenerator {
     glex.setGlobalValue("neuronSymbol", neuron.getSymbol().get());
 
     final NESTFunctionPrinter functionPrinter = new NESTFunctionPrinter();
-    glex.setGlobalValue("declarations", new ASTDeclarations() );
+    glex.setGlobalValue("declarations", new ASTDeclarations(singlePrecisionVariables, constants));
+    // internals of a specialised neuron can depend on the resolution, which is checked in calibrate
+    final Optional<Double> specializedResolution = constants.isEmpty() ? Optional.empty() : parameterSet.getResolution();
+    glex.setGlobalValue("specializedResolution", specializedResolution.map(String::valueOf).orElse(""));
     glex.setGlobalValue("assignments", new ASTAssignments());
     glex.setGlobalValue("functionPrinter", functionPrinter);
     glex.setGlobalValue("functions", new SPLFunctionCalls());
@@ -239,27 +676,155 @@ public class NestCodeGenerator {
     glex.setGlobalValue("body", neuron.getBody());
 
     final GslReferenceConverter converter = new GslReferenceConverter();
-    final ExpressionsPrettyPrinter expressionsPrinter = new LegacyExpressionPrinter(converter);
+    final ExpressionsPrettyPrinter expressionsPrinter = createCppPrinter(converter);
     glex.setGlobalValue("expressionsPrinterForGSL", expressionsPrinter);
     glex.setGlobalValue("nestmlSymbols", new NestmlSymbols());
     glex.setGlobalValue("astUtils", new AstUtils());
   }
 
 
-  private void defineSolverType(final GlobalExtensionManagement glex, final ASTNeuron neuron) {
-    final ASTBody astBody = neuron.getBody();
+  private void defineSolverType(
+      final GlobalExtensionManagement glex,
+      final ASTNeuron neuron,
+      final Optional<List<JacobianElement>> jacobian) {
     glex.setGlobalValue("useGSL", false);
+    glex.setGlobalValue("useJacobian", jacobian.isPresent());
+    glex.setGlobalValue("jacobian", jacobian.orElse(Lists.newArrayList()));
+
+    glex.setGlobalValue("isFixedStep", false);
+
+    if (isSolvedWithGSL(neuron.getBody())) {
+      glex.setGlobalValue("names", new GslNames());
+      glex.setGlobalValue("useGSL", true);
+      glex.setGlobalValue("gslStepper", selectStepper(neuron.getName(), jacobian.isPresent()));
+      glex.setGlobalValue("absoluteTolerance", integratorConfiguration.getAbsoluteTolerance(neuron.getName()) + "");
+      glex.setGlobalValue("relativeTolerance", integratorConfiguration.getRelativeTolerance(neuron.getName()) + "");
+
+      // fixed-step methods are inlined into the update function and don't use GSL steppers
+      final Optional<String> fixedStepMethod = integratorConfiguration.getFixedStepMethod(neuron.getName());
+      glex.setGlobalValue("isFixedStep", fixedStepMethod.isPresent());
+      glex.setGlobalValue("fixedStepMethod", fixedStepMethod.orElse(""));
+
+      final IReferenceConverter converter = new NESTArrayStateReferenceConverter();
+      final ExpressionsPrettyPrinter expressionsPrinter = createCppPrinter(converter);
+      glex.setGlobalValue("expressionsPrinter", expressionsPrinter);
+    }
 
-    if (astBody.getOdeBlock().isPresent()) {
-      if (astBody.getOdeBlock().get().getShapes().size() == 0 || astBody.getOdeBlock().get().getODEs().size() > 1) {
-        glex.setGlobalValue("names", new GslNames());
-        glex.setGlobalValue("useGSL", true);
+  }
 
-        final IReferenceConverter converter = new NESTArrayStateReferenceConverter();
-        final ExpressionsPrettyPrinter expressionsPrinter = new LegacyExpressionPrinter(converter);
-        glex.setGlobalValue("expressionsPrinter", expressionsPrinter);
-      }
+  private static boolean isSolvedWithGSL(final ASTBody astBody) {
+    return astBody.getOdeBlock().isPresent() &&
+           (astBody.getOdeBlock().get().getShapes().size() == 0 || astBody.getOdeBlock().get().getODEs().size() > 1);
+  }
+
+  /**
+   * Steppers which need the Jacobian are replaced through the default stepper, if the Jacobian is not available.
+   */
+  private String selectStepper(final String neuronName, final boolean hasJacobian) {
+    final String stepper = integratorConfiguration.getStepper(neuronName);
+    if (IntegratorConfiguration.requiresJacobian(stepper) && !hasJacobian) {
+      final String msg = String.format(
+          "The GSL stepper %s needs the Jacobian of %s, which is not available. The stepper %s is used instead.",
+          stepper,
+          neuronName,
+          IntegratorConfiguration.DEFAULT_STEPPER);
+      reporter.reportProgress(msg, Reporter.Level.WARNING);
+      return IntegratorConfiguration.DEFAULT_STEPPER;
+    }
+
+    return stepper;
+  }
+
+  /**
+   * Collects the generator options. Options which are not set keep their defaults, e.g. double precision.
+   */
+  public static class Builder {
+    private boolean enableTracing = false;
+    private Optional<Path> solverCacheFolder = Optional.empty();
+    private IntegratorConfiguration integratorConfiguration = new IntegratorConfiguration();
+    private boolean isPopulationKernel = false;
+    private Precision precision = Precision.DOUBLE;
+    private ParameterSet parameterSet = new ParameterSet();
+    private boolean isQuiescence = false;
+    private boolean isBenchmark = false;
+    private boolean isReducePowers = false;
+
+    public Builder withTracing(final boolean enableTracing) {
+      this.enableTracing = enableTracing;
+      return this;
+    }
+
+    /**
+     * @param solverCacheFolder If present, SymPy results are cached in this folder between runs.
+     */
+    public Builder withSolverCacheFolder(final Optional<Path> solverCacheFolder) {
+      this.solverCacheFolder = solverCacheFolder;
+      return this;
+    }
+
+    /**
+     * @param integratorConfiguration Selects GSL steppers for neurons which are integrated numerically.
+     */
+    public Builder withIntegratorConfiguration(final IntegratorConfiguration integratorConfiguration) {
+      this.integratorConfiguration = integratorConfiguration;
+      return this;
+    }
+
+    /**
+     * @param isPopulationKernel If true, a population kernel is generated additionally for every neuron which
+     *                           supports it. See {@link NestCodeGenerator#isPopulationKernelSupported}.
+     */
+    public Builder withPopulationKernel(final boolean isPopulationKernel) {
+      this.isPopulationKernel = isPopulationKernel;
+      return this;
+    }
+
+    /**
+     * @param precision Selects the storage type of state variables and internals.
+     */
+    public Builder withPrecision(final Precision precision) {
+      this.precision = precision;
+      return this;
+    }
+
+    /**
+     * @param parameterSet Parameters which are fixed at generation time. See {@link ParameterSpecializer}.
+     */
+    public Builder withParameterSet(final ParameterSet parameterSet) {
+      this.parameterSet = parameterSet;
+      return this;
+    }
+
+    /**
+     * @param isQuiescence If true, neurons skip update steps while they rest in a fixed point. See
+     *                     {@link NestCodeGenerator#isQuiescenceSupported}.
+     */
+    public Builder withQuiescence(final boolean isQuiescence) {
+      this.isQuiescence = isQuiescence;
+      return this;
+    }
+
+    /**
+     * @param isBenchmark If true, a standalone benchmark driver is generated additionally for every neuron. See
+     *                    {@link NestCodeGenerator#generateBenchmarkHarness}.
+     */
+    public Builder withBenchmark(final boolean isBenchmark) {
+      this.isBenchmark = isBenchmark;
+      return this;
+    }
+
+    /**
+     * @param isReducePowers If true, powers with constant exponents are printed as multiplications, std::sqrt or
+     *                       std::cbrt instead of pow calls. The results can differ from pow, e.g. in the last bit,
+     *                       for negative bases of cube roots and for the square root of -inf.
+     */
+    public Builder withReducedPowers(final boolean isReducePowers) {
+      this.isReducePowers = isReducePowers;
+      return this;
+    }
 
+    public NestCodeGenerator build() {
+      return new NestCodeGenerator(this);
     }
 
   }
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c)  RWTH Aachen. All rights reserved.
+ *
+ * http://www.se-rwth.de/
+ */
+package org.nest.codegeneration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Maps;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Parameter values which are fixed at generation time, e.g.
+ * <pre>
+ * {
+ *   "resolution": 0.1,
+ *   "neurons": {
+ *     "iaf_psc_exp_neuron": { "tau_m": 10.0, "C_m": 250.0, "t_ref": 2.0 }
+ *   }
+ * }
+ * </pre>
+ * Values are given in the units of the parameters. The optional resolution in ms is the simulation resolution which
+ * is used to evaluate propagators at generation time.
+ *
+ * All fields must be public since they are set by the JSON framework.
+ */
+public class ParameterSet {
+  public Double resolution = null;
+  // Key: neuron name, value: fixed parameters of the neuron
+  public Map<String, Map<String, Double>> neurons = Maps.newTreeMap();
+
+  /**
+   * @return The parameter set or an empty value, if the file cannot be read or is malformed.
+   */
+  public static Optional<ParameterSet> load(final Path parameterFile) {
+    try {
+      final ParameterSet parameterSet = new ObjectMapper().readValue(parameterFile.toFile(), ParameterSet.class);
+      if (parameterSet.neurons == null ||
+          parameterSet.neurons.values().stream().anyMatch(parameters -> parameters == null ||
+                                                                       parameters.containsValue(null)) ||
+          (parameterSet.resolution != null && parameterSet.resolution <= 0)) {
+        return Optional.empty();
+      }
+
+      parameterSet.neurons = Maps.newTreeMap(parameterSet.neurons);
+      parameterSet.neurons.replaceAll((neuronName, parameters) -> Maps.newTreeMap(parameters));
+      return Optional.of(parameterSet);
+    }
+    catch (IOException e) {
+      return Optional.empty();
+    }
+
+  }
+
+  public Optional<Double> getResolution() {
+    return Optional.ofNullable(resolution);
+  }
+
+  /**
+   * @return Fixed parameters of the neuron. The map is empty, if the neuron is not specialised.
+   */
+  public Map<String, Double> getParameters(final String neuronName) {
+    return neurons.getOrDefault(neuronName, Maps.newTreeMap());
+  }
+
+  /**
+   * The string representation is stable. Therefore, it can be used to detect changed generator options.
+   */
+  @Override
+  public String toString() {
+    return resolution + ":" + neurons;
+  }
+
+}
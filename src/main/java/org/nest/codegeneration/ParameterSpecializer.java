@@ -0,0 +1,240 @@
+/*
+ * Copyright (c)  RWTH Aachen. All rights reserved.
+ *
+ * http://www.se-rwth.de/
+ */
+package org.nest.codegeneration;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.nest.codegeneration.sympy.AstCreator;
+import org.nest.nestml._ast.*;
+import org.nest.reporting.Reporter;
+import org.nest.utils.AstUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Specialises a neuron for fixed parameter values. Fixed parameters and internals which depend only on constants,
+ * e.g. propagators computed by SymPy, get literal values which are computed at generation time. They are generated
+ * as constexpr members, so that the C++ compiler can fold the update step. If-statements in the update block whose
+ * conditions are constant are replaced through the taken branch.
+ */
+class ParameterSpecializer {
+  private final static Reporter reporter = Reporter.get();
+  private final Map<String, Double> fixedParameters;
+  private final Optional<Double> resolution;
+  // names of parameters and internals with constant values
+  private final Set<String> constants = Sets.newHashSet();
+
+  ParameterSpecializer(final Map<String, Double> fixedParameters, final Optional<Double> resolution) {
+    this.fixedParameters = fixedParameters;
+    this.resolution = resolution;
+  }
+
+  /**
+   * @return Names of parameters and internals which are constant after the last {@link #specialize} call.
+   */
+  Set<String> getConstants() {
+    return constants;
+  }
+
+  /**
+   * Changes the neuron in place. The symbol table must be rebuilt afterwards.
+   */
+  ASTNeuron specialize(final ASTNeuron astNeuron) {
+    constants.clear();
+    if (fixedParameters.isEmpty()) {
+      return astNeuron;
+    }
+
+    final ASTBody astBody = astNeuron.getBody();
+    // variables which are changed by the neuron itself cannot be constant
+    final Set<String> assignedVariables = AstUtils.getAll(astBody, ASTAssignment.class)
+        .stream()
+        .map(assignment -> assignment.getLhsVarialbe().toString())
+        .collect(toSet());
+    // Key: variable name, value: its value in NEST units at generation time
+    final Map<String, Double> values = Maps.newHashMap();
+    final ConstantEvaluator evaluator = new ConstantEvaluator(values, resolution);
+
+    final Set<String> unusedParameters = Sets.newTreeSet(fixedParameters.keySet());
+    for (final ASTDeclaration declaration:astBody.getParameterDeclarations()) {
+      for (final ASTVariable variable:declaration.getVars()) {
+        final String name = variable.toString();
+        if (!fixedParameters.containsKey(name)) {
+          continue;
+        }
+        unusedParameters.remove(name);
+
+        final double value = fixedParameters.get(name);
+        final Optional<ASTExpr> literal = createParameterLiteral(declaration, value);
+        if (!isSpecializable(declaration) || assignedVariables.contains(name) || !literal.isPresent()) {
+          final String msg = String.format(
+              "The parameter %s of %s cannot be fixed to %s. Only scalar numeric parameters which are declared " +
+              "alone with a literal default value and are not changed by the neuron can be fixed.",
+              name,
+              astNeuron.getName(),
+              value);
+          reporter.reportProgress(msg, Reporter.Level.WARNING);
+          continue;
+        }
+
+        declaration.setExpr(literal.get());
+        // the literal is converted into NEST units, e.g. 1 MOhm into 0.001 GOhm
+        values.put(name, evaluator.evaluate(literal.get()).get());
+        constants.add(name);
+      }
+
+    }
+
+    unusedParameters.forEach(name -> reporter.reportProgress(
+        String.format("The neuron %s has no parameter %s. The value is ignored.", astNeuron.getName(), name),
+        Reporter.Level.WARNING));
+
+    // functions in the parameter block, e.g. V_reset = -70mV - E_L, can be used by internals
+    for (final ASTDeclaration declaration:astBody.getParameterDeclarations()) {
+      if (declaration.isFunction() && declaration.getExpr().isPresent() && declaration.getVars().size() == 1) {
+        evaluator.evaluate(declaration.getExpr().get())
+            .ifPresent(value -> values.put(declaration.getVars().get(0).toString(), value));
+      }
+
+    }
+
+    // internals are evaluated in the declaration order, since they can depend on each other
+    for (final ASTDeclaration declaration:astBody.getInternalDeclarations()) {
+      if (!isSpecializable(declaration) || !declaration.getExpr().isPresent()) {
+        continue;
+      }
+
+      final String name = declaration.getVars().get(0).toString();
+      final Optional<Double> value = evaluator.evaluate(declaration.getExpr().get());
+      if (value.isPresent() && !assignedVariables.contains(name) && !Double.isNaN(value.get()) &&
+          !Double.isInfinite(value.get())) {
+        final double literal = declaration.getDatatype().isInteger() ? Math.rint(value.get()) : value.get();
+        // internals are printed without unit conversion
+        declaration.setExpr(createLiteral(literal, declaration.getDatatype().isInteger(), Optional.empty()));
+        values.put(name, literal);
+        constants.add(name);
+      }
+
+    }
+
+    astBody.getDynamicsBlock().ifPresent(dynamics -> foldBranches(dynamics.getBlock(), evaluator));
+    return astNeuron;
+  }
+
+  private static boolean isSpecializable(final ASTDeclaration declaration) {
+    return declaration.getVars().size() == 1 &&
+           !declaration.isFunction() &&
+           !declaration.getSizeParameter().isPresent() &&
+           !declaration.getDatatype().isBoolean() &&
+           !declaration.getDatatype().isString();
+  }
+
+  /**
+   * Replaces if-statements with constant conditions through the taken branch. Branches with declarations are kept,
+   * since their variables would be moved into the enclosing scope.
+   */
+  private void foldBranches(final ASTBlock astBlock, final ConstantEvaluator evaluator) {
+    final List<ASTStmt> stmts = astBlock.getStmts();
+    for (int i = 0; i < stmts.size(); ++i) {
+      final Optional<ASTCompound_Stmt> compoundStmt = stmts.get(i).getCompound_Stmt();
+      if (!compoundStmt.isPresent()) {
+        continue;
+      }
+
+      if (compoundStmt.get().getFOR_Stmt().isPresent()) {
+        foldBranches(compoundStmt.get().getFOR_Stmt().get().getBlock(), evaluator);
+      }
+      else if (compoundStmt.get().getWHILE_Stmt().isPresent()) {
+        foldBranches(compoundStmt.get().getWHILE_Stmt().get().getBlock(), evaluator);
+      }
+      else if (compoundStmt.get().getIF_Stmt().isPresent()) {
+        final ASTIF_Stmt ifStmt = compoundStmt.get().getIF_Stmt().get();
+        final Optional<Double> condition = evaluator.evaluate(ifStmt.getIF_Clause().getExpr());
+        final Optional<ASTBlock> takenBranch = condition.flatMap(value -> getTakenBranch(ifStmt, value != 0));
+
+        if (condition.isPresent() && condition.get() == 0 &&
+            ifStmt.getELIF_Clauses().isEmpty() && !ifStmt.getELSE_Clause().isPresent()) {
+          stmts.remove(i);
+          --i;
+        }
+        else if (takenBranch.isPresent() && AstUtils.getAll(takenBranch.get(), ASTDeclaration.class).isEmpty()) {
+          stmts.remove(i);
+          stmts.addAll(i, takenBranch.get().getStmts());
+          --i; // the inserted statements can contain foldable if-statements
+        }
+        else {
+          foldBranches(ifStmt.getIF_Clause().getBlock(), evaluator);
+          ifStmt.getELIF_Clauses().forEach(elifClause -> foldBranches(elifClause.getBlock(), evaluator));
+          ifStmt.getELSE_Clause().ifPresent(elseClause -> foldBranches(elseClause.getBlock(), evaluator));
+        }
+
+      }
+
+    }
+
+  }
+
+  /**
+   * @return The block which is executed or an empty value, if it depends on conditions of elif-clauses.
+   */
+  private Optional<ASTBlock> getTakenBranch(final ASTIF_Stmt ifStmt, final boolean condition) {
+    if (condition) {
+      return Optional.of(ifStmt.getIF_Clause().getBlock());
+    }
+    else if (ifStmt.getELIF_Clauses().isEmpty() && ifStmt.getELSE_Clause().isPresent()) {
+      return Optional.of(ifStmt.getELSE_Clause().get().getBlock());
+    }
+    else {
+      return Optional.empty();
+    }
+
+  }
+
+  /**
+   * Creates the literal for a fixed parameter. Its unit is taken from the default value, e.g. 10 ms, since the value
+   * is given in the unit of the parameter.
+   */
+  private static Optional<ASTExpr> createParameterLiteral(final ASTDeclaration declaration, final double value) {
+    final ASTDatatype datatype = declaration.getDatatype();
+    if (datatype.isInteger()) {
+      return value == Math.rint(value) ? Optional.of(createLiteral(value, true, Optional.empty())) : Optional.empty();
+    }
+    else if (datatype.isReal()) {
+      return Optional.of(createLiteral(value, false, Optional.empty()));
+    }
+    else if (datatype.getUnitType().isPresent() && declaration.getExpr().isPresent()) {
+      ASTExpr defaultValue = declaration.getExpr().get();
+      while (defaultValue.isUnaryMinus() || defaultValue.isLeftParentheses()) {
+        defaultValue = defaultValue.isUnaryMinus() ? defaultValue.getTerm().get() : defaultValue.getExpr().get();
+      }
+
+      if (defaultValue.getNumericLiteral().isPresent() && defaultValue.getVariable().isPresent()) {
+        return Optional.of(createLiteral(value, false, Optional.of(defaultValue.getVariable().get().toString())));
+      }
+
+    }
+
+    return Optional.empty();
+  }
+
+  /**
+   * Creates the literal in plain notation, e.g. 0.000125 instead of 1.25E-4.
+   */
+  private static ASTExpr createLiteral(final double value, final boolean isInteger, final Optional<String> unit) {
+    final String literal = isInteger ?
+                           String.valueOf((long) Math.abs(value)) :
+                           new BigDecimal(Double.toString(Math.abs(value))).toPlainString();
+    final String expr = (value < 0 ? "-" : "") + literal + unit.map(unitName -> " " + unitName).orElse("");
+    return AstCreator.createExpression(expr);
+  }
+
+}
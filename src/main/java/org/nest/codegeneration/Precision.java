@@ -0,0 +1,31 @@
+/*
+ * Copyright (c)  RWTH Aachen. All rights reserved.
+ *
+ * http://www.se-rwth.de/
+ */
+package org.nest.codegeneration;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Floating point precision of the generated module. With the mixed precision, state variables and internals are
+ * stored as float, if their values are representable, and all computations are done in double.
+ */
+public enum Precision {
+  DOUBLE, MIXED;
+
+  /**
+   * @param precision The lower case name, e.g. mixed.
+   * @return The precision or an empty value, if the name is unknown.
+   */
+  public static Optional<Precision> fromString(final String precision) {
+    return Arrays.stream(values()).filter(value -> value.toString().equals(precision.trim())).findFirst();
+  }
+
+  @Override
+  public String toString() {
+    return name().toLowerCase();
+  }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c)  RWTH Aachen. All rights reserved.
+ *
+ * http://www.se-rwth.de/
+ */
+package org.nest.codegeneration;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import de.monticore.prettyprint.IndentPrinter;
+import de.monticore.types.prettyprint.TypesPrettyPrinterConcreteVisitor;
+import org.nest.nestml._ast.ASTExpr;
+import org.nest.nestml._ast.ASTNeuron;
+import org.nest.nestml._symboltable.predefined.PredefinedTypes;
+import org.nest.nestml._symboltable.symbols.TypeSymbol;
+import org.nest.nestml._symboltable.symbols.VariableSymbol;
+import org.nest.nestml._symboltable.unitrepresentation.UnitRepresentation;
+import org.nest.reporting.Reporter;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Selects state variables and internals of a neuron which are stored as float in the mixed precision mode. Parameters,
+ * local variables and the GSL state vector stay double. Internals which are generated by the solver, e.g. propagators
+ * {@code __P__0_0} or the step size {@code __h}, stay double as well, since they are computed in calibrate and the
+ * exact integration is sensitive to their rounding.
+ */
+class SinglePrecisionVariables {
+  private final static Reporter reporter = Reporter.get();
+  // float keeps about 7 decimal digits, values must remain normalized floats
+  private static final double MAX_FLOAT = Float.MAX_VALUE;
+  private static final double MIN_FLOAT = Float.MIN_NORMAL;
+  // values are scaled by the conversion to NEST units, e.g. from F to pF
+  private static final int MAX_UNIT_MAGNITUDE_DIFFERENCE = 30;
+
+  static Set<String> select(final ASTNeuron astNeuron) {
+    final List<VariableSymbol> candidates = Lists.newArrayList(astNeuron.getBody().getStateNonAliasSymbols());
+    candidates.addAll(astNeuron.getBody().getInternalNonAliasSymbols());
+
+    final Set<String> result = Sets.newHashSet();
+    for (final VariableSymbol variable:candidates) {
+      if (!isFloatingPoint(variable.getType()) ||
+          variable.isVector() ||
+          variable.definedByODE() ||
+          variable.getName().startsWith("__")) {
+        continue;
+      }
+
+      if (isRepresentable(variable)) {
+        result.add(variable.getName());
+      }
+      else {
+        final String msg = String.format(
+            "The variable %s of %s is stored as double, since its value or unit is not representable as float.",
+            variable.getName(),
+            astNeuron.getName());
+        reporter.reportProgress(msg, Reporter.Level.WARNING);
+      }
+
+    }
+
+    return result;
+  }
+
+  private static boolean isFloatingPoint(final TypeSymbol type) {
+    return type.getType() == TypeSymbol.Type.UNIT || PredefinedTypes.getRealType().equals(type);
+  }
+
+  private static boolean isRepresentable(final VariableSymbol variable) {
+    if (variable.getType().getType() == TypeSymbol.Type.UNIT) {
+      final UnitRepresentation unit = UnitRepresentation.fromSerialization(variable.getType().getName());
+      final int magnitudeDifference = UnitRepresentation.getTargetUnitFilter().getDifferenceToRegisteredTarget(unit);
+      if (Math.abs(magnitudeDifference) > MAX_UNIT_MAGNITUDE_DIFFERENCE) {
+        return false;
+      }
+
+    }
+
+    final Optional<Double> initialValue = variable.getDeclaringExpression().flatMap(
+        SinglePrecisionVariables::evaluateLiteral);
+    return initialValue
+        .map(Math::abs)
+        .map(value -> value == 0 || (value >= MIN_FLOAT && value <= MAX_FLOAT))
+        .orElse(true);
+  }
+
+  /**
+   * @return The value of a literal, e.g. -70mV, or an empty value for other expressions.
+   */
+  private static Optional<Double> evaluateLiteral(final ASTExpr expr) {
+    if (expr.getNumericLiteral().isPresent()) {
+      try {
+        final TypesPrettyPrinterConcreteVisitor printer = new TypesPrettyPrinterConcreteVisitor(new IndentPrinter());
+        return Optional.of(Double.parseDouble(printer.prettyprint(expr.getNumericLiteral().get())));
+      }
+      catch (NumberFormatException e) {
+        return Optional.empty();
+      }
+
+    }
+    else if (expr.isUnaryMinus()) {
+      return evaluateLiteral(expr.getTerm().get()).map(value -> -value);
+    }
+    else if (expr.isLeftParentheses()) {
+      return evaluateLiteral(expr.getExpr().get());
+    }
+    else {
+      return Optional.empty();
+    }
+
+  }
+
+}
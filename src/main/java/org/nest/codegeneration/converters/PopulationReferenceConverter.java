@@ -0,0 +1,78 @@
+/*
+ * Copyright (c)  RWTH Aachen. All rights reserved.
+ *
+ * http://www.se-rwth.de/
+ */
+package org.nest.codegeneration.converters;
+
+import de.monticore.symboltable.Scope;
+import org.nest.codegeneration.helpers.Names;
+import org.nest.nestml._ast.ASTFunctionCall;
+import org.nest.nestml._ast.ASTVariable;
+import org.nest.nestml._symboltable.predefined.PredefinedFunctions;
+import org.nest.nestml._symboltable.predefined.PredefinedVariables;
+import org.nest.nestml._symboltable.symbols.VariableSymbol;
+import org.nest.nestml.prettyprinter.LegacyExpressionPrinter;
+import org.nest.utils.AstUtils;
+
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.nest.codegeneration.helpers.VariableHelper.printOrigin;
+import static org.nest.nestml._symboltable.symbols.VariableSymbol.resolve;
+import static org.nest.utils.AstUtils.convertSiName;
+
+/**
+ * Converts references for the population kernel. State variables and buffers are arrays over all neurons of the
+ * population and are indexed by the loop variable {@code i}. Parameters and internals are shared by the population.
+ * Functions are inlined, since the population has no getters.
+ */
+public class PopulationReferenceConverter extends NESTReferenceConverter {
+  private final LegacyExpressionPrinter functionPrinter = new LegacyExpressionPrinter(this, true);
+
+  @Override
+  public String convertFunctionCall(final ASTFunctionCall astFunctionCall) {
+    if (astFunctionCall.getCalleeName().contains(PredefinedFunctions.EMIT_SPIKE)) {
+      return "__spiked[ i ] = 1";
+    }
+
+    return super.convertFunctionCall(astFunctionCall);
+  }
+
+  @Override
+  public String convertNameReference(final ASTVariable astVariable) {
+    checkArgument(astVariable.getEnclosingScope().isPresent(), "Run symboltable creator");
+    final String variableName = AstUtils.convertDevrivativeNameToSimpleName(astVariable);
+    final Scope scope = astVariable.getEnclosingScope().get();
+
+    final Optional<String> siUnitAsLiteral = convertSiName(astVariable.toString());
+    if (siUnitAsLiteral.isPresent()) {
+      return siUnitAsLiteral.get();
+    }
+
+    if (PredefinedVariables.E_CONSTANT.equals(variableName)) {
+      return "numerics::e";
+    }
+    else {
+      final VariableSymbol variableSymbol = resolve(variableName, scope);
+      if (VariableSymbol.BlockType.LOCAL.equals(variableSymbol.getBlockType())) {
+        return variableName;
+      }
+      else if (variableSymbol.isBuffer()) {
+        return "B_." + Names.bufferValue(variableSymbol) + "[ i ]";
+      }
+      else if (variableSymbol.isFunction() && variableSymbol.getDeclaringExpression().isPresent()) {
+        return "(" + functionPrinter.print(variableSymbol.getDeclaringExpression().get()) + ")";
+      }
+      else if (variableSymbol.isState()) {
+        return "S_." + Names.name(variableSymbol) + "[ i ]";
+      }
+      else {
+        return printOrigin(variableSymbol) + Names.name(variableSymbol);
+      }
+
+    }
+
+  }
+
+}
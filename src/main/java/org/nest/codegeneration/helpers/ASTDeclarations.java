@@ -6,6 +6,7 @@
 package org.nest.codegeneration.helpers;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import de.monticore.symboltable.Scope;
 import org.nest.codegeneration.converters.NESTML2NESTTypeConverter;
 import org.nest.nestml._ast.ASTDeclaration;
@@ -15,6 +16,7 @@ import org.nest.nestml._symboltable.symbols.VariableSymbol;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -31,9 +33,38 @@ public class ASTDeclarations {
 
   private final NESTML2NESTTypeConverter typeConverter;
 
+  // names of variables which are stored as float
+  private final Set<String> singlePrecisionVariables;
+
+  // names of parameters and internals which are fixed at generation time
+  private final Set<String> constants;
+
   public ASTDeclarations() {
+    this(Sets.newHashSet());
+  }
+
+  public ASTDeclarations(final Set<String> singlePrecisionVariables) {
+    this(singlePrecisionVariables, Sets.newHashSet());
+  }
+
+  /**
+   * @param singlePrecisionVariables Names of state variables and internals which are stored as float. They are
+   *                                 accessed through getters, setters and the status dictionary as double.
+   * @param constants Names of parameters and internals which are generated as constexpr members.
+   */
+  public ASTDeclarations(final Set<String> singlePrecisionVariables, final Set<String> constants) {
     nestml2NESTTypeConverter = new NESTML2NESTTypeConverter();
     typeConverter = new NESTML2NESTTypeConverter();
+    this.singlePrecisionVariables = singlePrecisionVariables;
+    this.constants = constants;
+  }
+
+  /**
+   * @return true iff the variable is a parameter or an internal whose value is fixed at generation time.
+   */
+  public boolean isConstant(final VariableSymbol variableSymbol) {
+    return (variableSymbol.isParameter() || variableSymbol.isInternal()) &&
+           constants.contains(variableSymbol.getName());
   }
 
   public boolean isVector(final ASTDeclaration astDeclaration) {
@@ -54,6 +85,20 @@ public class ASTDeclarations {
     }
   }
 
+  /**
+   * @return The type of the member which stores the variable. It differs from the
+   * {@link #printVariableType(VariableSymbol)} only for variables stored as float.
+   */
+  public String printStorageType(final VariableSymbol variableSymbol) {
+    if (singlePrecisionVariables.contains(variableSymbol.getName()) && !variableSymbol.getVectorParameter().isPresent()) {
+      return "float";
+    }
+    else {
+      return printVariableType(variableSymbol);
+    }
+
+  }
+
   public String initialValue(final VariableSymbol variableSymbol) {
 
     if (variableSymbol.getVectorParameter().isPresent()) {
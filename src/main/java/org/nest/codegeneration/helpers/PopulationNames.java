@@ -0,0 +1,37 @@
+package org.nest.codegeneration.helpers;
+
+import org.nest.nestml._symboltable.symbols.VariableSymbol;
+
+/**
+ * Names of variables in the population kernel. State variables are arrays over all neurons of the population and are
+ * indexed by the loop variable {@code i}.
+ */
+public class PopulationNames {
+
+  public static String name(final VariableSymbol variableSymbol) {
+    if (variableSymbol.isState()) {
+      return Names.name(variableSymbol) + "[ i ]";
+    }
+    else {
+      return Names.name(variableSymbol);
+    }
+
+  }
+
+  public static String getter(final VariableSymbol variableSymbol) {
+    return Names.getter(variableSymbol);
+  }
+
+  public static String setter(final VariableSymbol variableSymbol) {
+    return Names.setter(variableSymbol);
+  }
+
+  public static String bufferValue(final VariableSymbol buffer) {
+    return Names.bufferValue(buffer);
+  }
+
+  public static String convertToCPPName(final String variableName) {
+    return Names.convertToCPPName(variableName);
+  }
+
+}
@@ -19,16 +19,17 @@ import java.io.StringReader;
  */
 public class AstCreator {
 
-  private static final NESTMLParser PARSER = new NESTMLParser();
-
-  static {
-    PARSER.setParserTarget(MCConcreteParser.ParserExecution.EOF);
-  }
+  // parsers are not thread-safe, but neurons are analysed by concurrent workers
+  private static final ThreadLocal<NESTMLParser> PARSER = ThreadLocal.withInitial(() -> {
+    final NESTMLParser parser = new NESTMLParser();
+    parser.setParserTarget(MCConcreteParser.ParserExecution.EOF);
+    return parser;
+  });
 
   static ASTEquation createEquation(final String equation) {
     try {
 
-      return PARSER.parseEquation(new StringReader(equation)).get();
+      return PARSER.get().parseEquation(new StringReader(equation)).get();
     }
     catch (IOException e) {
       final String msg = "Cannot parse equations statement. Should not happen by construction";
@@ -37,10 +38,34 @@ public class AstCreator {
 
   }
 
+  static ASTOdeFunction createOdeFunction(final String odeFunction) {
+    try {
+
+      return PARSER.get().parseOdeFunction(new StringReader(odeFunction)).get();
+    }
+    catch (IOException e) {
+      final String msg = "Cannot parse ODE function. Should not happen by construction";
+      throw new RuntimeException(msg, e);
+    }
+
+  }
+
+  public static ASTExpr createExpression(final String expressionAsString) {
+    try {
+      // it is ok to call get, since otherwise it is an error in the SymPy output
+      return PARSER.get().parseExpr(new StringReader(expressionAsString)).get();
+    }
+    catch (IOException e) {
+      final String msg = "Cannot parse expression.";
+      throw new RuntimeException(msg, e);
+    }
+
+  }
+
   static ASTAssignment createAssignment(final String assignmentAsString) {
     try {
       // it is ok to call get, since otherwise it is an error in the file structure
-      return PARSER.parseAssignment(new StringReader(assignmentAsString)).get();
+      return PARSER.get().parseAssignment(new StringReader(assignmentAsString)).get();
     }
     catch (IOException e) {
       final String msg = "Cannot parse assignment statement.";
@@ -52,7 +77,7 @@ public class AstCreator {
   static ASTDeclaration createDeclaration(final String declarationAsString) {
     try {
       // it is ok to call get, since otherwise it is an error in the file structure
-      return PARSER.parseDeclaration(new StringReader(declarationAsString)).get();
+      return PARSER.get().parseDeclaration(new StringReader(declarationAsString)).get();
     }
     catch (IOException e) {
       final String msg = "Cannot parse assignment statement.";
@@ -64,7 +89,7 @@ public class AstCreator {
   static ASTStmt createStatement(final String statementAsString) {
     try {
       // it is ok to call get, since otherwise it is an error in the file structure
-      return PARSER.parseStmt(new StringReader(statementAsString)).get();
+      return PARSER.get().parseStmt(new StringReader(statementAsString)).get();
     }
     catch (IOException e) {
       final String msg = "Cannot parse assignment statement.";
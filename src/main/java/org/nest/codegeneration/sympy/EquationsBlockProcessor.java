@@ -5,13 +5,26 @@
  */
 package org.nest.codegeneration.sympy;
 
+import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import de.monticore.ast.ASTNode;
+import de.monticore.symboltable.Scope;
 import org.nest.nestml._ast.ASTBody;
+import org.nest.nestml._ast.ASTExpr;
 import org.nest.nestml._ast.ASTFunctionCall;
 import org.nest.nestml._ast.ASTNeuron;
+import org.nest.nestml._ast.ASTOdeDeclaration;
+import org.nest.nestml._ast.ASTVariable;
+import org.nest.nestml._symboltable.symbols.VariableSymbol;
 import org.nest.reporting.Reporter;
+import org.nest.utils.AstUtils;
 
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static com.google.common.base.Preconditions.checkState;
 import static org.nest.nestml._symboltable.predefined.PredefinedFunctions.DELTA;
@@ -25,11 +38,68 @@ import static org.nest.utils.AstUtils.getFunctionCall;
  * @author plotnikov
  */
 public class EquationsBlockProcessor {
+  private static final String SYMPY_PHASE = "sympy";
+  private static final String SYMPY_BATCH_PHASE = "sympy_batch";
+  private static final String SYMPY_SYSTEM_PHASE = "sympy_system";
   private final Reporter reporter = Reporter.get();
-  private final SymPySolver evaluator = new SymPySolver();
+  private final SymPySolver evaluator;
   private final ExactSolutionTransformer exactSolutionTransformer = new ExactSolutionTransformer();
   private final ShapesToOdesTransformer shapesToOdesTransformer = new ShapesToOdesTransformer();
   private final DeltaSolutionTransformer deltaSolutionTransformer = new DeltaSolutionTransformer();
+  private final LinearSystemTransformer linearSystemTransformer = new LinearSystemTransformer();
+  private final EquationsOptimizer equationsOptimizer = new EquationsOptimizer();
+
+  public EquationsBlockProcessor() {
+    evaluator = new SymPySolver();
+  }
+
+  /**
+   * @param solverCacheFolder Folder where evaluated SymPy results are cached between runs
+   */
+  public EquationsBlockProcessor(final Path solverCacheFolder) {
+    evaluator = new SymPySolver(new SolverResultCache(solverCacheFolder));
+  }
+
+  /**
+   * Evaluates SymPy for all {@code neurons} in one batch. The results are used by subsequent
+   * {@link #solveOdeWithShapes} calls for the same neurons. Thereby, SymPy is started once per module instead of once
+   * per neuron.
+   */
+  public void solveInBatch(final List<ASTNeuron> neurons, final Path outputBase) {
+    final Map<String, SolverInput> solverInputs = Maps.newTreeMap();
+    for (final ASTNeuron astNeuron:neurons) {
+      createSolverInput(astNeuron, outputBase)
+          .ifPresent(solverInput -> solverInputs.put(astNeuron.getName(), solverInput));
+    }
+
+    if (!solverInputs.isEmpty()) {
+      final Reporter.Timer solverTimer = reporter.startTimer(Joiner.on(",").join(solverInputs.keySet()), SYMPY_BATCH_PHASE);
+      evaluator.solveBatch(solverInputs, outputBase);
+      solverTimer.stop();
+    }
+
+  }
+
+  /**
+   * Creates the same solver input as {@link #solveOdeWithShapes} for the {@code astNeuron}.
+   * @return The solver input or an empty value, if the neuron is not analysed by SymPy.
+   */
+  private Optional<SolverInput> createSolverInput(final ASTNeuron astNeuron, final Path outputBase) {
+    final Optional<ASTOdeDeclaration> odeBlock = astNeuron.getBody().getOdeBlock();
+    if (!odeBlock.isPresent() || odeBlock.get().getShapes().isEmpty()) {
+      return Optional.empty();
+    }
+
+    final ASTNeuron deepCopy = deepCloneNeuronAndBuildSymbolTable(astNeuron, outputBase);
+    final ASTOdeDeclaration copiedOdeBlock = deepCopy.getBody().getOdeBlock().get();
+    if (copiedOdeBlock.getODEs().size() == 1) {
+      return Optional.of(new SolverInput(copiedOdeBlock));
+    }
+    else {
+      return Optional.of(new SolverInput(copiedOdeBlock.getShapes()));
+    }
+
+  }
 
   /**
    * Dependent of the ODE kind either computes the exact solution or brings to the form which can
@@ -50,7 +120,9 @@ public class EquationsBlockProcessor {
       if (deepCopy.getBody().getOdeBlock().get().getShapes().size() > 0 &&
           deepCopy.getBody().getOdeBlock().get().getODEs().size() == 1) {
 
+        final Reporter.Timer solverTimer = reporter.startTimer(astNeuron.getName(), SYMPY_PHASE);
         final SolverOutput solverOutput = evaluator.solveOdeWithShapes(deepCopy.getBody().getOdeBlock().get(), outputBase);
+        solverTimer.stop();
         reporter.reportProgress("The model ODE with shapes will be analyzed.");
         reporter.reportProgress("The solver script is evaluated. Results are stored under " + outputBase.toString());
 
@@ -63,13 +135,16 @@ public class EquationsBlockProcessor {
         switch (solverOutput.solver) {
           case "exact":
             reporter.reportProgress("Equations are solved exactly.");
-            return exactSolutionTransformer.addExactSolution(astNeuron, solverOutput);
+            return transform(astNeuron, "transformer_exact_solution",
+                             () -> exactSolutionTransformer.addExactSolution(astNeuron, solverOutput));
 
           case "numeric":
             reporter.reportProgress("Shapes will be solved with GLS.");
-            return shapesToOdesTransformer.transformShapesToOdeForm(astNeuron, solverOutput);
+            return transform(astNeuron, "transformer_shapes_to_odes",
+                             () -> shapesToOdesTransformer.transformShapesToOdeForm(astNeuron, solverOutput));
           case "delta":
-            return deltaSolutionTransformer.addExactSolution(solverOutput, astNeuron);
+            return transform(astNeuron, "transformer_delta_solution",
+                             () -> deltaSolutionTransformer.addExactSolution(solverOutput, astNeuron));
           default:
             reporter.reportProgress(astNeuron.getName() +
                                     ": Equations or shapes could not be solved. The model remains unchanged.");
@@ -78,8 +153,11 @@ public class EquationsBlockProcessor {
       }
       else if (deepCopy.getBody().getOdeBlock().get().getShapes().size() > 0) {
         reporter.reportProgress("Shapes will be solved with GLS.");
+        final Reporter.Timer solverTimer = reporter.startTimer(astNeuron.getName(), SYMPY_PHASE);
         final SolverOutput solverOutput = evaluator.solveShapes(deepCopy.getBody().getOdeBlock().get().getShapes(), outputBase);
-        return shapesToOdesTransformer.transformShapesToOdeForm(astNeuron, solverOutput);
+        solverTimer.stop();
+        return transform(astNeuron, "transformer_shapes_to_odes",
+                         () -> shapesToOdesTransformer.transformShapesToOdeForm(astNeuron, solverOutput));
 
       }
 
@@ -88,4 +166,144 @@ public class EquationsBlockProcessor {
     return astNeuron;
   }
 
+  /**
+   * Solves the ODE system exactly, if it is linear with constant coefficients. Thereby, the system is propagated with
+   * a few multiply-adds per step instead of the numeric integration. Shapes must be already transformed into ODEs.
+   * @return The neuron where the integrate_odes call is replaced through the propagation or the unchanged neuron.
+   */
+  public ASTNeuron solveLinearOdeSystem(final ASTNeuron astNeuron, final Path outputBase) {
+    final ASTNeuron deepCopy = deepCloneNeuronAndBuildSymbolTable(astNeuron, outputBase);
+    final Optional<ASTOdeDeclaration> odeBlock = deepCopy.getBody().getOdeBlock();
+    if (!odeBlock.isPresent() ||
+        odeBlock.get().getODEs().isEmpty() ||
+        !odeBlock.get().getShapes().isEmpty() ||
+        deepCopy.getBody().variablesDefinedByODE().stream().anyMatch(VariableSymbol::isVector)) {
+      return astNeuron;
+    }
+
+    final Reporter.Timer solverTimer = reporter.startTimer(astNeuron.getName(), SYMPY_SYSTEM_PHASE);
+    final SolverOutput solverOutput = evaluator.analyseOdeSystem(odeBlock.get(), outputBase);
+    solverTimer.stop();
+
+    if (!solverOutput.status.equals("success") || !solverOutput.solver.equals("exact")) {
+      return astNeuron;
+    }
+
+    checkState(deepCopy.getSpannedScope().isPresent(), "Run symbol table creator.");
+    if (!arePropagatorsConstant(solverOutput, deepCopy.getSpannedScope().get())) {
+      reporter.reportProgress(astNeuron.getName() + ": Propagators depend on inputs. The ODEs are solved with GSL.");
+      return astNeuron;
+    }
+
+    reporter.reportProgress(astNeuron.getName() + ": The linear ODE system is solved exactly.");
+    return transform(astNeuron, "transformer_linear_system",
+                     () -> linearSystemTransformer.addExactSolution(deepCopy, solverOutput));
+  }
+
+  /**
+   * Propagators are computed once in the calibrate step. Therefore, they must not depend on state variables or on
+   * buffers.
+   */
+  private boolean arePropagatorsConstant(final SolverOutput solverOutput, final Scope scope) {
+    for (final Map.Entry<String, String> propagator:solverOutput.propagator_elements) {
+      final ASTExpr expression = AstCreator.createExpression(propagator.getValue());
+      for (final ASTVariable variable:AstUtils.getAll(expression, ASTVariable.class)) {
+        final Optional<VariableSymbol> variableSymbol = VariableSymbol.resolveIfExists(variable.toString(), scope);
+        if (variableSymbol.isPresent() && (variableSymbol.get().isState() || variableSymbol.get().isBuffer())) {
+          return false;
+        }
+
+      }
+
+    }
+
+    return true;
+  }
+
+  /**
+   * Moves invariant and repeated subexpressions out of the ODE right-hand sides, which are evaluated several times per
+   * step by the GSL integrator.
+   * @return The optimized neuron or the unchanged neuron, if it doesn't contain ODEs which are integrated numerically.
+   */
+  public ASTNeuron optimizeEquations(final ASTNeuron astNeuron, final Path outputBase) {
+    final ASTNeuron deepCopy = deepCloneNeuronAndBuildSymbolTable(astNeuron, outputBase);
+    final Optional<ASTOdeDeclaration> odeBlock = deepCopy.getBody().getOdeBlock();
+    if (!odeBlock.isPresent() ||
+        odeBlock.get().getODEs().isEmpty() ||
+        !odeBlock.get().getShapes().isEmpty() ||
+        deepCopy.getBody().variablesDefinedByODE().stream().anyMatch(VariableSymbol::isVector)) {
+      return astNeuron;
+    }
+
+    return transform(astNeuron, "transformer_equations_optimization", () -> equationsOptimizer.optimize(deepCopy));
+  }
+
+  /**
+   * Computes the Jacobian of the ODE system which is integrated numerically. Shapes must be already transformed into
+   * ODEs, functions are substituted into the ODEs.
+   * @param astNeuron Neuron with a built symbol table. Expressions of the Jacobian are resolved in its scope.
+   * @return Non-zero elements of the Jacobian or an empty value, if SymPy cannot compute a Jacobian which can be
+   * printed as C++ code.
+   */
+  public Optional<List<JacobianElement>> computeJacobian(final ASTNeuron astNeuron, final Path outputBase) {
+    final Optional<ASTOdeDeclaration> odeBlock = astNeuron.getBody().getOdeBlock();
+    if (!odeBlock.isPresent() || odeBlock.get().getODEs().isEmpty()) {
+      return Optional.empty();
+    }
+
+    // the result of the system analysis is reused, since the ODE block is unchanged
+    final Reporter.Timer solverTimer = reporter.startTimer(astNeuron.getName(), SYMPY_SYSTEM_PHASE);
+    final SolverOutput solverOutput = evaluator.analyseOdeSystem(odeBlock.get(), outputBase);
+    solverTimer.stop();
+
+    if (!solverOutput.status.equals("success")) {
+      reporter.reportProgress(
+          astNeuron.getName() + ": The Jacobian cannot be computed. It is not provided to the GSL stepper.",
+          Reporter.Level.WARNING);
+      return Optional.empty();
+    }
+
+    // ODEs are defined in the neuron scope. thus, all variables of the Jacobian are resolvable there.
+    checkState(odeBlock.get().getODEs().get(0).getEnclosingScope().isPresent(), "Run symbol table creator.");
+    final Scope scope = odeBlock.get().getODEs().get(0).getEnclosingScope().get();
+    final List<JacobianElement> jacobian = Lists.newArrayList();
+    try {
+      for (final Map<String, String> element:solverOutput.jacobian_elements) {
+        final ASTExpr expression = AstCreator.createExpression(
+            SolverInput.decodeDerivatives(element.get("expression")));
+        AstUtils.getAll(expression, ASTNode.class).forEach(node -> node.setEnclosingScope(scope));
+        // fails early for names which SymPy introduced and which are unknown in the model
+        AstUtils.getAll(expression, ASTVariable.class)
+            .forEach(variable -> VariableSymbol.resolve(variable.toString(), scope));
+
+        jacobian.add(new JacobianElement(
+            VariableSymbol.resolve(SolverInput.decodeDerivatives(element.get("row")), scope),
+            VariableSymbol.resolve(SolverInput.decodeDerivatives(element.get("column")), scope),
+            expression));
+      }
+
+    }
+    catch (RuntimeException e) {
+      reporter.reportProgress(
+          astNeuron.getName() + ": The Jacobian cannot be mapped to the model. It is not provided to the GSL stepper.",
+          Reporter.Level.WARNING);
+      return Optional.empty();
+    }
+
+    return Optional.of(jacobian);
+  }
+
+  /**
+   * Applies the {@code transformation} and reports its processing time as the {@code phase}.
+   */
+  private ASTNeuron transform(
+      final ASTNeuron astNeuron,
+      final String phase,
+      final Supplier<ASTNeuron> transformation) {
+    final Reporter.Timer timer = reporter.startTimer(astNeuron.getName(), phase);
+    final ASTNeuron transformedNeuron = transformation.get();
+    timer.stop();
+    return transformedNeuron;
+  }
+
 }
@@ -0,0 +1,358 @@
+/*
+ * Copyright (c)  RWTH Aachen. All rights reserved.
+ *
+ * http://www.se-rwth.de/
+ */
+package org.nest.codegeneration.sympy;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import de.monticore.ast.ASTNode;
+import de.monticore.symboltable.Scope;
+import org.nest.nestml._ast.*;
+import org.nest.nestml._symboltable.predefined.PredefinedTypes;
+import org.nest.nestml._symboltable.predefined.PredefinedVariables;
+import org.nest.nestml._symboltable.symbols.TypeSymbol;
+import org.nest.nestml._symboltable.symbols.VariableSymbol;
+import org.nest.nestml.prettyprinter.ExpressionsPrettyPrinter;
+import org.nest.utils.AstUtils;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.stream.Collectors.toSet;
+import static org.nest.nestml._symboltable.predefined.PredefinedFunctions.*;
+
+/**
+ * Optimizes right-hand sides of ODEs which are evaluated by the GSL integrator several times per step:
+ * <ul>
+ *   <li>Subexpressions which depend only on parameters and internals are hoisted into internals, e.g.
+ *   {@code exp(-h/tau_syn)} becomes {@code __inv__0 real = exp(-h/tau_syn)}. Internals are computed once in the
+ *   calibrate step.</li>
+ *   <li>Subexpressions which are repeated across right-hand sides are computed once in an ODE function, e.g.
+ *   {@code function __cse__0 real = exp((V_m - V_th)/Delta_T)}.</li>
+ * </ul>
+ */
+class EquationsOptimizer extends TransformerBase {
+  private static final String INVARIANT_PREFIX = "__inv__";
+  private static final String COMMON_SUBEXPRESSION_PREFIX = "__cse__";
+  // functions without side effects, e.g. random() must not be moved
+  private static final Set<String> PURE_FUNCTIONS = ImmutableSet.of(
+      EXP, LOG, POW, MAX, MIN, BOUNDED_MAX, BOUNDED_MIN, "expm1", "resolution");
+  // a function call is weighted like several arithmetic operations
+  private static final int FUNCTION_CALL_COST = 10;
+  // simple repeated subexpressions, e.g. V_m - E_L, are left to the C++ compiler
+  private static final int MINIMAL_COMMON_SUBEXPRESSION_COST = 2;
+
+  private final ExpressionsPrettyPrinter printer = new ExpressionsPrettyPrinter();
+
+  ASTNeuron optimize(final ASTNeuron astNeuron) {
+    checkState(astNeuron.getBody().getEnclosingScope().isPresent(), "Run symbol table creator.");
+    checkState(astNeuron.getBody().getOdeBlock().isPresent());
+
+    final Scope scope = astNeuron.getBody().getEnclosingScope().get();
+    final ASTOdeDeclaration odeBlock = astNeuron.getBody().getOdeBlock().get();
+    final Set<String> assignedVariables = AstUtils.getAll(astNeuron.getBody(), ASTAssignment.class)
+        .stream()
+        .map(assignment -> assignment.getLhsVarialbe().toString())
+        .collect(toSet());
+
+    final Map<String, String> invariants = Maps.newLinkedHashMap();
+    hoistInvariants(odeBlock, scope, assignedVariables, invariants);
+    eliminateCommonSubexpressions(odeBlock, scope, invariants.keySet());
+
+    invariants.forEach((name, expression) -> addVariableToInternals(
+        astNeuron,
+        new AbstractMap.SimpleEntry<>(name, expression)));
+    return astNeuron;
+  }
+
+  /**
+   * Replaces maximal invariant subexpressions through internal variables. Equal subexpressions share one internal.
+   * @param invariants Collects the names and declaring expressions of the new internals.
+   */
+  private void hoistInvariants(
+      final ASTOdeDeclaration odeBlock,
+      final Scope scope,
+      final Set<String> assignedVariables,
+      final Map<String, String> invariants) {
+    for (final ASTNode root:getRightHandSides(odeBlock)) {
+      final List<ASTExpr> candidates = Lists.newArrayList();
+      collectInvariants(getExpression(root), scope, assignedVariables, candidates);
+
+      for (final ASTExpr candidate:candidates) {
+        final String expression = printer.print(candidate);
+        final Optional<String> existingName = invariants.entrySet()
+            .stream()
+            .filter(invariant -> invariant.getValue().equals(expression))
+            .map(Map.Entry::getKey)
+            .findFirst();
+        final String name = existingName.orElseGet(() -> createName(INVARIANT_PREFIX, scope, invariants.keySet()));
+        invariants.put(name, expression);
+        replace(root, candidate, AstCreator.createExpression(name));
+      }
+
+    }
+
+  }
+
+  private void collectInvariants(
+      final ASTExpr expr,
+      final Scope scope,
+      final Set<String> assignedVariables,
+      final List<ASTExpr> candidates) {
+    if (computeCost(expr) > 0 && isComposedOf(expr, variable -> isInvariant(variable, scope, assignedVariables))) {
+      candidates.add(expr);
+    }
+    else {
+      getSubexpressions(expr).forEach(child -> collectInvariants(child, scope, assignedVariables, candidates));
+    }
+
+  }
+
+  /**
+   * Replaces repeated subexpressions through ODE functions. The largest repeated subexpression is replaced first,
+   * since it contains smaller ones.
+   */
+  private void eliminateCommonSubexpressions(
+      final ASTOdeDeclaration odeBlock,
+      final Scope scope,
+      final Set<String> invariants) {
+    final List<String> createdNames = Lists.newArrayList();
+    while (true) {
+      // Key: printed subexpression, value: its occurrences with the corresponding right-hand side
+      final Map<String, List<Map.Entry<ASTNode, ASTExpr>>> occurrences = Maps.newLinkedHashMap();
+      for (final ASTNode root:getRightHandSides(odeBlock)) {
+        for (final ASTExpr candidate:AstUtils.getAll(getExpression(root), ASTExpr.class)) {
+          // the enclosed expression is a candidate itself
+          if (!candidate.isLeftParentheses() &&
+              computeCost(candidate) >= MINIMAL_COMMON_SUBEXPRESSION_COST &&
+              isComposedOf(candidate, variable -> isStable(variable, scope, invariants))) {
+            occurrences
+                .computeIfAbsent(printer.print(candidate), key -> Lists.newArrayList())
+                .add(new AbstractMap.SimpleEntry<>(root, candidate));
+          }
+
+        }
+
+      }
+
+      final Optional<String> repeatedExpression = occurrences.keySet()
+          .stream()
+          .filter(expression -> occurrences.get(expression).size() > 1)
+          .max((lhs, rhs) -> Integer.compare(lhs.length(), rhs.length()));
+      if (!repeatedExpression.isPresent()) {
+        return;
+      }
+
+      final String name = createName(COMMON_SUBEXPRESSION_PREFIX, scope, createdNames);
+      createdNames.add(name);
+      for (final Map.Entry<ASTNode, ASTExpr> occurrence:occurrences.get(repeatedExpression.get())) {
+        replace(occurrence.getKey(), occurrence.getValue(), AstCreator.createExpression(name));
+      }
+      // functions which are created later are used by the functions created before. Therefore, they are added first.
+      odeBlock.getOdeFunctions().add(
+          0,
+          AstCreator.createOdeFunction("function " + name + " real = " + repeatedExpression.get()));
+    }
+
+  }
+
+  private List<ASTNode> getRightHandSides(final ASTOdeDeclaration odeBlock) {
+    final List<ASTNode> rightHandSides = Lists.newArrayList();
+    rightHandSides.addAll(odeBlock.getOdeFunctions());
+    rightHandSides.addAll(odeBlock.getODEs());
+    return rightHandSides;
+  }
+
+  private ASTExpr getExpression(final ASTNode rightHandSide) {
+    if (rightHandSide instanceof ASTEquation) {
+      return ((ASTEquation) rightHandSide).getRhs();
+    }
+    else {
+      return ((ASTOdeFunction) rightHandSide).getExpr();
+    }
+
+  }
+
+  /**
+   * Parameters and internals can be changed only between simulation runs, if they are not assigned in the model.
+   */
+  private boolean isInvariant(final String variableName, final Scope scope, final Set<String> assignedVariables) {
+    if (assignedVariables.contains(variableName)) {
+      return false;
+    }
+
+    final Optional<VariableSymbol> variable = VariableSymbol.resolveIfExists(variableName, scope);
+    return variable.isPresent() &&
+           !variable.get().isFunction() &&
+           !variable.get().isVector() &&
+           isRealValued(variable.get().getType()) &&
+           (VariableSymbol.BlockType.PARAMETERS.equals(variable.get().getBlockType()) ||
+            VariableSymbol.BlockType.INTERNALS.equals(variable.get().getBlockType()));
+  }
+
+  /**
+   * Variables which don't change during the evaluation of the right-hand sides. Functions are excluded, since the
+   * created ODE functions are declared before all other functions.
+   */
+  private boolean isStable(final String variableName, final Scope scope, final Set<String> invariants) {
+    if (invariants.contains(variableName)) {
+      return true;
+    }
+
+    final Optional<VariableSymbol> variable = VariableSymbol.resolveIfExists(variableName, scope);
+    return variable.isPresent() &&
+           !variable.get().isPredefined() &&
+           !variable.get().isFunction() &&
+           !variable.get().isVector() &&
+           isRealValued(variable.get().getType()) &&
+           !VariableSymbol.BlockType.LOCAL.equals(variable.get().getBlockType());
+  }
+
+  /**
+   * Integer and boolean subexpressions are not moved, since they would be evaluated as real values.
+   */
+  private boolean isRealValued(final TypeSymbol type) {
+    return type.equals(PredefinedTypes.getRealType()) || type.getType().equals(TypeSymbol.Type.UNIT);
+  }
+
+  /**
+   * @return True if the expression consists of arithmetic operations, pure function calls, literals and variables
+   * which satisfy the {@code isAllowed} predicate.
+   */
+  private boolean isComposedOf(final ASTExpr expr, final Predicate<String> isAllowed) {
+    if (expr.getNumericLiteral().isPresent()) { // e.g. 10 mV
+      return true;
+    }
+    else if (expr.getVariable().isPresent()) {
+      final String variableName = expr.getVariable().get().toString();
+      return PredefinedVariables.E_CONSTANT.equals(variableName) ||
+             AstUtils.convertSiName(variableName).isPresent() ||
+             (expr.getVariable().get().getDifferentialOrder().isEmpty() && isAllowed.test(variableName));
+    }
+    else if (expr.getFunctionCall().isPresent()) {
+      return PURE_FUNCTIONS.contains(expr.getFunctionCall().get().getCalleeName()) &&
+             expr.getFunctionCall().get().getArgs().stream().allMatch(arg -> isComposedOf(arg, isAllowed));
+    }
+    else if (expr.isLeftParentheses() || expr.isPow() || expr.isUnaryPlus() || expr.isUnaryMinus() ||
+             expr.isTimesOp() || expr.isDivOp() || expr.isPlusOp() || expr.isMinusOp()) {
+      return getSubexpressions(expr).stream().allMatch(child -> isComposedOf(child, isAllowed));
+    }
+    else {
+      return false;
+    }
+
+  }
+
+  /**
+   * Only operations are counted. Thereby, single variables, literals and parentheses are never moved.
+   */
+  private int computeCost(final ASTExpr expr) {
+    int cost = getSubexpressions(expr).stream().mapToInt(this::computeCost).sum();
+    if (expr.getFunctionCall().isPresent()) {
+      cost += FUNCTION_CALL_COST;
+    }
+    else if (expr.isPow() || expr.isTimesOp() || expr.isDivOp() || expr.isPlusOp() || expr.isMinusOp()) {
+      cost += 1;
+    }
+
+    return cost;
+  }
+
+  private List<ASTExpr> getSubexpressions(final ASTExpr expr) {
+    final List<ASTExpr> subexpressions = Lists.newArrayList();
+    expr.getExpr().ifPresent(subexpressions::add);
+    expr.getBase().ifPresent(subexpressions::add);
+    expr.getExponent().ifPresent(subexpressions::add);
+    expr.getTerm().ifPresent(subexpressions::add);
+    expr.getLeft().ifPresent(subexpressions::add);
+    expr.getRight().ifPresent(subexpressions::add);
+    expr.getCondition().ifPresent(subexpressions::add);
+    expr.getIfTrue().ifPresent(subexpressions::add);
+    expr.getIfNot().ifPresent(subexpressions::add);
+    expr.getFunctionCall().ifPresent(functionCall -> subexpressions.addAll(functionCall.getArgs()));
+    return subexpressions;
+  }
+
+  private String createName(final String prefix, final Scope scope, final Collection<String> createdNames) {
+    for (int i = 0; ; ++i) {
+      final String name = prefix + i;
+      if (!createdNames.contains(name) && !VariableSymbol.resolveIfExists(name, scope).isPresent()) {
+        return name;
+      }
+
+    }
+
+  }
+
+  /**
+   * Replaces the {@code node} which is contained in the right-hand side {@code root} through the {@code replacement}.
+   */
+  private void replace(final ASTNode root, final ASTExpr node, final ASTExpr replacement) {
+    final Optional<ASTNode> parent = AstUtils.getParent(node, root);
+    checkState(parent.isPresent(), "Should not happen by construction.");
+
+    if (parent.get() instanceof ASTEquation) {
+      ((ASTEquation) parent.get()).setRhs(replacement);
+    }
+    else if (parent.get() instanceof ASTOdeFunction) {
+      ((ASTOdeFunction) parent.get()).setExpr(replacement);
+    }
+    else if (parent.get() instanceof ASTFunctionCall) {
+      final List<ASTExpr> args = ((ASTFunctionCall) parent.get()).getArgs();
+      final List<Integer> positions = Lists.newArrayList();
+      for (int i = 0; i < args.size(); ++i) {
+        if (args.get(i) == node) {
+          positions.add(i);
+        }
+
+      }
+      positions.forEach(position -> args.set(position, replacement));
+    }
+    else {
+      checkState(parent.get() instanceof ASTExpr, "Should not happen by construction.");
+      replaceSubexpression((ASTExpr) parent.get(), node, replacement);
+    }
+
+  }
+
+  private void replaceSubexpression(final ASTExpr parent, final ASTExpr node, final ASTExpr replacement) {
+    if (parent.getExpr().isPresent() && parent.getExpr().get() == node) {
+      parent.setExpr(replacement);
+    }
+    if (parent.getBase().isPresent() && parent.getBase().get() == node) {
+      parent.setBase(replacement);
+    }
+    if (parent.getExponent().isPresent() && parent.getExponent().get() == node) {
+      parent.setExponent(replacement);
+    }
+    if (parent.getTerm().isPresent() && parent.getTerm().get() == node) {
+      parent.setTerm(replacement);
+    }
+    if (parent.getLeft().isPresent() && parent.getLeft().get() == node) {
+      parent.setLeft(replacement);
+    }
+    if (parent.getRight().isPresent() && parent.getRight().get() == node) {
+      parent.setRight(replacement);
+    }
+    if (parent.getCondition().isPresent() && parent.getCondition().get() == node) {
+      parent.setCondition(replacement);
+    }
+    if (parent.getIfTrue().isPresent() && parent.getIfTrue().get() == node) {
+      parent.setIfTrue(replacement);
+    }
+    if (parent.getIfNot().isPresent() && parent.getIfNot().get() == node) {
+      parent.setIfNot(replacement);
+    }
+
+  }
+
+}
@@ -3,12 +3,10 @@ package org.nest.codegeneration.sympy;
 import de.monticore.ast.ASTNode;
 import org.nest.nestml._ast.ASTExpr;
 import org.nest.nestml._ast.ASTVariable;
-import org.nest.nestml._parser.NESTMLParser;
 import org.nest.nestml._visitor.NESTMLInheritanceVisitor;
+import org.nest.utils.AstIndex;
 import org.nest.utils.AstUtils;
 
-import java.io.IOException;
-import java.io.StringReader;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,8 +20,6 @@ import static com.google.common.collect.Lists.newArrayList;
  * @author plotnikov
  */
 class ExpressionFolder {
-  private static final NESTMLParser parser = new NESTMLParser();
-
   private final List<ASTExpr> nodesToReplace = newArrayList();
   private final List<String> internalVariables = newArrayList();
 
@@ -36,39 +32,38 @@ class ExpressionFolder {
   }
 
   void fold(final ASTExpr expr, final List<String> stateVariableNames) {
-    try {
-      final ExpressionVisitor expressionVisitor = new ExpressionVisitor(stateVariableNames);
-      expr.accept(expressionVisitor);
-
-      for (int i = 0; i < expressionVisitor.getNodesToReplace().size(); ++i) {
-        final ASTExpr child = expressionVisitor.getNodesToReplace().get(0);
-        final Optional<ASTNode> parent = AstUtils.getParent(child, expr);
-        checkState(parent.isPresent(), "Should not happen by construction.");
-        checkState(parent.get() instanceof ASTExpr, "Should not happen by construction.");
-
-        final ASTExpr parentExpr = (ASTExpr) parent.get();
-        final String tmpVariable = "__P" + 1;
-        internalVariables.add(tmpVariable);
-        final Optional<ASTExpr> replacementVariable = parser.parseExpr(new StringReader(tmpVariable));
-        if (parentExpr.getLeft().isPresent() && parentExpr.getLeft().get().equals(child)) {
-          parentExpr.setLeft(replacementVariable.get());
-        }
-        if (parentExpr.getRight().isPresent() && parentExpr.getRight().get().equals(child)) {
-          parentExpr.setRight(replacementVariable.get());
-        }
+    // the expression is not changed during the visit
+    final ExpressionVisitor expressionVisitor = new ExpressionVisitor(stateVariableNames, AstIndex.create(expr));
+    expr.accept(expressionVisitor);
+
+    for (int i = 0; i < expressionVisitor.getNodesToReplace().size(); ++i) {
+      final ASTExpr child = expressionVisitor.getNodesToReplace().get(0);
+      final Optional<ASTNode> parent = AstUtils.getParent(child, expr);
+      checkState(parent.isPresent(), "Should not happen by construction.");
+      checkState(parent.get() instanceof ASTExpr, "Should not happen by construction.");
+
+      final ASTExpr parentExpr = (ASTExpr) parent.get();
+      final String tmpVariable = "__P" + 1;
+      internalVariables.add(tmpVariable);
+      // folders run on concurrent workers, therefore, they parse through the parsers of AstCreator
+      final ASTExpr replacementVariable = AstCreator.createExpression(tmpVariable);
+      if (parentExpr.getLeft().isPresent() && parentExpr.getLeft().get().equals(child)) {
+        parentExpr.setLeft(replacementVariable);
+      }
+      if (parentExpr.getRight().isPresent() && parentExpr.getRight().get().equals(child)) {
+        parentExpr.setRight(replacementVariable);
       }
-
-    } catch (IOException e) {
-      throw new RuntimeException("Should not happen by construction.", e);
     }
 
   }
 
   private class ExpressionVisitor implements NESTMLInheritanceVisitor {
     final List<String> stateVariableNames;
+    final AstIndex index;
 
-    private ExpressionVisitor(final List<String> stateVariableNames) {
+    private ExpressionVisitor(final List<String> stateVariableNames, final AstIndex index) {
       this.stateVariableNames = stateVariableNames;
+      this.index = index;
     }
     private List<ASTExpr> getNodesToReplace() {
       return nodesToReplace;
@@ -77,12 +72,13 @@ class ExpressionFolder {
     @Override
     public void visit(final ASTExpr expr) {
 
-      final Optional<ASTVariable> stateVariable = AstUtils.getAll(expr, ASTVariable.class)
+      final List<ASTVariable> variables = index.getAll(expr, ASTVariable.class);
+      final Optional<ASTVariable> stateVariable = variables
           .stream()
           .filter(astVariable -> stateVariableNames.contains(astVariable.toString()))
           .findAny();
 
-      boolean canBeFolded = !stateVariable.isPresent() && AstUtils.getAll(expr, ASTVariable.class).size() > 1;
+      boolean canBeFolded = !stateVariable.isPresent() && variables.size() > 1;
 
       if (canBeFolded) {
         addCandidate(expr);
@@ -99,7 +95,7 @@ class ExpressionFolder {
     }
 
     private boolean isParentOf(final ASTNode parent, final ASTNode child) {
-      return AstUtils.getSuccessors(parent).contains(child);
+      return parent == child || index.isSuccessor(parent, child);
     }
   }
 
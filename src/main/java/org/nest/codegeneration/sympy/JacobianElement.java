@@ -0,0 +1,38 @@
+/*
+ * Copyright (c)  RWTH Aachen. All rights reserved.
+ *
+ * http://www.se-rwth.de/
+ */
+package org.nest.codegeneration.sympy;
+
+import org.nest.nestml._ast.ASTExpr;
+import org.nest.nestml._symboltable.symbols.VariableSymbol;
+
+/**
+ * A non-zero element of the Jacobian of an ODE system: the derivative of the ODE which defines the {@code row}
+ * variable with respect to the {@code column} variable. It is used in freemarker templates.
+ */
+public class JacobianElement {
+  private final VariableSymbol row;
+  private final VariableSymbol column;
+  private final ASTExpr expression;
+
+  JacobianElement(final VariableSymbol row, final VariableSymbol column, final ASTExpr expression) {
+    this.row = row;
+    this.column = column;
+    this.expression = expression;
+  }
+
+  public VariableSymbol getRow() {
+    return row;
+  }
+
+  public VariableSymbol getColumn() {
+    return column;
+  }
+
+  public ASTExpr getExpression() {
+    return expression;
+  }
+
+}
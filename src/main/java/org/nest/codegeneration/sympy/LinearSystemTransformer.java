@@ -0,0 +1,36 @@
+/*
+ * Copyright (c)  RWTH Aachen. All rights reserved.
+ *
+ * http://www.se-rwth.de/
+ */
+package org.nest.codegeneration.sympy;
+
+import org.nest.nestml._ast.ASTNeuron;
+
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.nest.codegeneration.sympy.AstCreator.createDeclaration;
+
+/**
+ * Takes SymPy result with the exact solution of a linear ODE system with constant coefficients and the source AST.
+ * Produces an altered AST where the integrate_odes call is replaced through the propagation of all state variables
+ * defined by the ODEs.
+ */
+class LinearSystemTransformer extends TransformerBase {
+
+  ASTNeuron addExactSolution(final ASTNeuron astNeuron, final SolverOutput solverOutput) {
+    ASTNeuron workingVersion = astNeuron;
+    workingVersion.getBody().addToInternalBlock(createDeclaration("__h ms = resolution()"));
+    workingVersion = addVariablesToInternals(workingVersion, solverOutput.propagator_elements);
+    workingVersion.getBody().removeOdeBlock();
+
+    // names of derivatives are encoded in the SymPy output, e.g. g_ex' as g_ex__d
+    final List<String> propagatorSteps = solverOutput.ode_var_update_instructions
+        .stream()
+        .map(SolverInput::decodeDerivatives)
+        .collect(toList());
+    return replaceIntegrateCallThroughPropagation(workingVersion, propagatorSteps);
+  }
+
+}
@@ -21,6 +21,7 @@
 
 package org.nest.codegeneration.sympy;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.Lists;
@@ -31,16 +32,22 @@ import org.nest.nestml._ast.ASTShape;
 import org.nest.nestml.prettyprinter.ExpressionsPrettyPrinter;
 import org.nest.nestml.prettyprinter.NESTMLPrettyPrinter;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
   Captures the ODE block for the processing in the SymPy. Generates corresponding json representation.
  */
 class SolverInput {
+  private static final String DERIVATIVE_SUFFIX = "__d";
   public final List<String> functions;
   public final List<String> shapes;
   public final String ode;
+  // the whole ODE system. it is set only for the analysis of ODE systems.
+  @JsonInclude(JsonInclude.Include.NON_EMPTY)
+  public final List<String> odes;
   private final ExpressionsPrettyPrinter printer = new ExpressionsPrettyPrinter();
 
   SolverInput(final ASTOdeDeclaration odeBlock) {
@@ -58,6 +65,8 @@ class SolverInput {
         .stream()
         .map(this::printShape)
         .collect(Collectors.toList());
+
+    odes = Lists.newArrayList();
   }
 
   public SolverInput(final List<ASTShape> shapes) {
@@ -67,7 +76,52 @@ class SolverInput {
         .stream()
         .map(this::printShape)
         .collect(Collectors.toList());
+    this.odes = Lists.newArrayList();
+  }
 
+  private SolverInput(final List<String> functions, final List<String> odes) {
+    this.functions = functions;
+    this.shapes = Lists.newArrayList();
+    this.ode = null;
+    this.odes = odes;
+  }
+
+  /**
+   * Captures all ODEs of the block for the analysis of the whole system: SymPy solves linear systems exactly and
+   * computes the Jacobian of all other systems. Every ODE is serialized as
+   * {@code state_variable = rhs}, e.g. {@code g_ex'' = rhs} as {@code g_ex__d = rhs}.
+   */
+  static SolverInput forOdeSystem(final ASTOdeDeclaration odeBlock) {
+    final ExpressionsPrettyPrinter printer = new ExpressionsPrettyPrinter();
+    final ASTOdeDeclaration tmp = OdeTransformer.replaceSumCalls(odeBlock.deepClone());
+
+    final List<String> functions = tmp.getOdeFunctions()
+        .stream()
+        .map(function -> function.getVariableName() + " = " + encodeDerivatives(printer.print(function.getExpr())))
+        .collect(Collectors.toList());
+
+    final List<String> odes = tmp.getODEs()
+        .stream()
+        .map(ode -> {
+          final String lhs = ode.getLhs().toString();
+          // the ODE of the n-th derivative defines the (n-1)-th derivative as the state variable
+          final String stateVariable = lhs.substring(0, lhs.length() - 1);
+          return encodeDerivatives(stateVariable) + " = " + encodeDerivatives(printer.print(ode.getRhs()));
+        })
+        .collect(Collectors.toList());
+
+    return new SolverInput(functions, odes);
+  }
+
+  /**
+   * SymPy cannot parse apostrophes in names. Therefore, e.g. {@code g_ex'} is encoded as {@code g_ex__d}.
+   */
+  static String encodeDerivatives(final String expression) {
+    return expression.replace("'", DERIVATIVE_SUFFIX);
+  }
+
+  static String decodeDerivatives(final String expression) {
+    return expression.replaceAll(DERIVATIVE_SUFFIX + "(?=" + DERIVATIVE_SUFFIX + "|\\W|$)", "'");
   }
 
   /**
@@ -92,6 +146,37 @@ class SolverInput {
   }
 
 
+  /**
+   * Is used in the line based protocol of the {@code SymPySolverServer}.
+   * @return JSON representation of the input without line breaks.
+   */
+  String toCompactJSON() {
+    final ObjectMapper mapper = new ObjectMapper();
+    try {
+      return mapper.writeValueAsString(this);
+    }
+    catch (JsonProcessingException e) {
+      throw new RuntimeException("The construction of the JSON output. Internal error.", e);
+    }
+
+  }
+
+  /**
+   * Is used to evaluate many inputs with one SymPy call. The format is: {"batch": {neuron name: input, ...}}
+   * @param solverInputs Key: neuron name, value: its solver input
+   * @return JSON representation of the batch without line breaks.
+   */
+  static String toBatchJSON(final Map<String, SolverInput> solverInputs) {
+    final ObjectMapper mapper = new ObjectMapper();
+    try {
+      return mapper.writeValueAsString(Collections.singletonMap("batch", solverInputs));
+    }
+    catch (JsonProcessingException e) {
+      throw new RuntimeException("The construction of the JSON output. Internal error.", e);
+    }
+
+  }
+
   String toJSON() {
     final ObjectMapper mapper = new ObjectMapper();
     try {
@@ -21,6 +21,7 @@
 
 package org.nest.codegeneration.sympy;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Joiner;
 import com.google.common.collect.Lists;
@@ -32,14 +33,16 @@ import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Encapsulates solver response. Contains the following fields: status (failed, success), initial_values,
- * ode_var_update_instructions, solver, ode_var_factor, const_input, propagator_elements,shape_state_variables
+ * ode_var_update_instructions, solver, ode_var_factor, const_input, propagator_elements,shape_state_variables,
+ * jacobian_elements
  */
 public class SolverOutput {
   // all fields must be public since they are set by the JSON framework
-  final static String RESULT_FILE_NAME = "result.tmp";
+  final static String RESULT_FILE_PREFIX = "result";
   public String status = "";
   public List<Map.Entry<String, String>> initial_values = Lists.newArrayList();
   public List<String> ode_var_update_instructions = Lists.newArrayList();
@@ -50,6 +53,8 @@ public class SolverOutput {
   public List<String> shape_state_variables = Lists.newArrayList();
   public List<Map.Entry<String, String>> updates_to_shape_state_variables = Lists.newArrayList();
   public List<Map.Entry<String, String>> shape_state_odes = Lists.newArrayList();
+  // every element has the keys: row, column, expression
+  public List<Map<String, String>> jacobian_elements = Lists.newArrayList();
 
   private static final SolverOutput ERROR_RESULT;
   static {
@@ -78,6 +83,30 @@ public class SolverOutput {
     }
   }
 
+  /**
+   * @param inJSON JSON object which maps neuron names to solver results
+   * @return Key: neuron name, value: its solver result
+   */
+  static Map<String, SolverOutput> fromBatchJSON(final String inJSON) {
+    try {
+      final ObjectMapper mapper = new ObjectMapper();
+      return mapper.readValue(inJSON, new TypeReference<TreeMap<String, SolverOutput>>() {});
+    }
+    catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  String toJSON() {
+    final ObjectMapper mapper = new ObjectMapper();
+    try {
+      return mapper.writerWithDefaultPrettyPrinter().writeValueAsString(this);
+    }
+    catch (IOException e) {
+      throw new RuntimeException("Cannot serialize the solver's evaluation result", e);
+    }
+  }
+
   static SolverOutput getErrorResult() {
     return ERROR_RESULT;
   }
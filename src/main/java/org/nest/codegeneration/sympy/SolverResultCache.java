@@ -0,0 +1,207 @@
+/*
+ * SolverResultCache.java
+ *
+ * This file is part of NEST.
+ *
+ * Copyright (C) 2004 The NEST Initiative
+ *
+ * NEST is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * NEST is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NEST.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nest.codegeneration.sympy;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Resources;
+import de.se_rwth.commons.logging.Log;
+import org.nest.utils.FilesHelper;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Stores evaluated solver results on the disk. The key of an entry is the hash of the JSON representation of the
+ * {@code SolverInput} and of the solver scripts. Therefore, a changed script invalidates all entries. If the cache
+ * exceeds its maximal size, least recently used entries are removed.
+ */
+class SolverResultCache {
+  private final static String LOG_NAME = SolverResultCache.class.getName();
+  static final long DEFAULT_MAX_SIZE_IN_BYTES = 64 * 1024 * 1024;
+  private static final String ENTRY_ENDING = ".json";
+  private static final String[] SOLVER_SCRIPTS = {
+      "org/nest/sympy/OdeAnalyzer.py",
+      "org/nest/sympy/prop_matrix.py",
+      "org/nest/sympy/shapes.py"};
+
+  // Initialized lazily, since the scripts are read only once
+  private static String scriptsHash = null;
+
+  private final Path cacheFolder;
+  private final long maxSizeInBytes;
+  // Size of all entries. The folder is scanned only initially and when the maximal size is exceeded, otherwise the
+  // size is tracked on every store. Entries of other processes are counted with the next scan.
+  private long cacheSizeInBytes;
+
+  SolverResultCache(final Path cacheFolder) {
+    this(cacheFolder, DEFAULT_MAX_SIZE_IN_BYTES);
+  }
+
+  SolverResultCache(final Path cacheFolder, final long maxSizeInBytes) {
+    this.cacheFolder = cacheFolder;
+    this.maxSizeInBytes = maxSizeInBytes;
+    FilesHelper.createFolders(cacheFolder);
+    cacheSizeInBytes = computeSize(collectEntries());
+  }
+
+  /**
+   * @return The stored result for the {@code solverInput} or an empty value if there is no such entry.
+   */
+  Optional<SolverOutput> lookup(final SolverInput solverInput) {
+    final Path entry = getEntry(solverInput);
+    if (!Files.exists(entry)) {
+      return Optional.empty();
+    }
+
+    try {
+      final SolverOutput solverOutput = SolverOutput.fromJSON(entry);
+      // the modification time is used as the access time for the LRU eviction
+      Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+      return Optional.of(solverOutput);
+    }
+    catch (IOException | RuntimeException e) {
+      Log.trace("Cannot read the cached solver result: " + entry, LOG_NAME);
+      return Optional.empty();
+    }
+
+  }
+
+  /**
+   * Stores successfully evaluated results. Other results are not stored, in order to reevaluate them in the next run.
+   */
+  void store(final SolverInput solverInput, final SolverOutput solverOutput) {
+    if (!solverOutput.status.equals("success")) {
+      return;
+    }
+
+    final Path entry = getEntry(solverInput);
+    try {
+      // the entry is written atomically, since parallel jobs can store the same entry
+      final long previousEntrySize = Files.exists(entry) ? Files.size(entry) : 0;
+      final Path tmpEntry = Files.createTempFile(cacheFolder, "entry", ".tmp");
+      Files.write(tmpEntry, solverOutput.toJSON().getBytes(Charsets.UTF_8));
+      Files.move(tmpEntry, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      addToSize(Files.size(entry) - previousEntrySize);
+    }
+    catch (IOException e) {
+      Log.trace("Cannot store the solver result in the cache: " + entry, LOG_NAME);
+    }
+
+  }
+
+  private synchronized void addToSize(final long sizeDifference) {
+    cacheSizeInBytes += sizeDifference;
+    if (cacheSizeInBytes > maxSizeInBytes) {
+      evict();
+    }
+
+  }
+
+  /**
+   * Removes least recently used entries until the size of the cache is below the maximal size.
+   */
+  private void evict() {
+    final List<Path> entries = collectEntries();
+    cacheSizeInBytes = computeSize(entries);
+
+    entries.sort(Comparator.comparing(SolverResultCache::getLastModifiedTime));
+    for (final Path entry:entries) {
+      if (cacheSizeInBytes <= maxSizeInBytes) {
+        break;
+      }
+      cacheSizeInBytes -= getSize(entry);
+      FilesHelper.deleteFile(entry);
+    }
+
+  }
+
+  private List<Path> collectEntries() {
+    return FilesHelper.collectFiles(cacheFolder, file -> file.toString().endsWith(ENTRY_ENDING));
+  }
+
+  private static long computeSize(final List<Path> entries) {
+    return entries.stream().mapToLong(SolverResultCache::getSize).sum();
+  }
+
+  // entries can be removed concurrently by other processes
+  private static long getSize(final Path entry) {
+    try {
+      return Files.size(entry);
+    }
+    catch (IOException e) {
+      return 0;
+    }
+
+  }
+
+  private static FileTime getLastModifiedTime(final Path entry) {
+    try {
+      return Files.getLastModifiedTime(entry);
+    }
+    catch (IOException e) {
+      return FileTime.fromMillis(0);
+    }
+
+  }
+
+  private Path getEntry(final SolverInput solverInput) {
+    final String key = Hashing.sha256()
+        .newHasher()
+        .putString(getScriptsHash(), Charsets.UTF_8)
+        .putString(solverInput.toJSON(), Charsets.UTF_8)
+        .hash()
+        .toString();
+    return Paths.get(cacheFolder.toString(), key + ENTRY_ENDING);
+  }
+
+  private static synchronized String getScriptsHash() {
+    if (scriptsHash == null) {
+      final Hasher hasher = Hashing.sha256().newHasher();
+      for (final String script:SOLVER_SCRIPTS) {
+        final URL scriptUrl = SolverResultCache.class.getClassLoader().getResource(script);
+        checkNotNull(scriptUrl, "Cannot read the solver script: " + script);
+        try {
+          hasher.putString(Resources.toString(scriptUrl, Charsets.UTF_8), Charsets.UTF_8);
+        }
+        catch (IOException e) {
+          throw new RuntimeException("Cannot read the solver script: " + script, e);
+        }
+
+      }
+      scriptsHash = hasher.hash().toString();
+    }
+
+    return scriptsHash;
+  }
+
+}
@@ -6,7 +6,10 @@
 package org.nest.codegeneration.sympy;
 
 import com.google.common.base.Charsets;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.io.Resources;
 import org.nest.nestml._ast.ASTOdeDeclaration;
 import org.nest.nestml._ast.ASTShape;
@@ -21,6 +24,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -28,8 +33,7 @@ import static java.nio.file.StandardOpenOption.CREATE;
 
 /**
  * The class is responsible for the execution of the PYTHON_INTERPRETER code which
- * was generated from the neuron model.
- * was generated from the neuron model.
+ * was generated from the neuron model. Requests are preferably evaluated on the {@code SymPySolverServer}.
  *
  * @author plotnikov
  */
@@ -43,9 +47,31 @@ class SymPySolver {
   private static final String PROP_MATRIX_SCRIPT = "prop_matrix.py";
   private static final String PROP_MATRIX_SOURCE = "org/nest/sympy/prop_matrix.py";
 
-  private static final String ODE_ANALYZER_SCRIPT = "OdeAnalyzer.py";
+  static final String ODE_ANALYZER_SCRIPT = "OdeAnalyzer.py";
   private static final String ODE_ANALYZER_SOURCE = "org/nest/sympy/OdeAnalyzer.py";
 
+  private static final String BATCH_OPTION = "--batch";
+
+  // bounds the memory of a long-running process, e.g. the compile daemon. Older results are found in the solver cache.
+  private static final int MAX_EVALUATED_RESULTS = 128;
+
+  private final Optional<SolverResultCache> cache;
+  // Key: JSON representation of the input. Successful results of batches and of previous requests are reused by
+  // subsequent requests with the same input, e.g. the system analysis is requested first for the exact solution and
+  // then for the Jacobian.
+  private final Cache<String, SolverOutput> evaluatedResults = CacheBuilder
+      .newBuilder()
+      .maximumSize(MAX_EVALUATED_RESULTS)
+      .build();
+
+  SymPySolver() {
+    this.cache = Optional.empty();
+  }
+
+  SymPySolver(final SolverResultCache cache) {
+    this.cache = Optional.of(cache);
+  }
+
   SolverOutput solveOdeWithShapes(final ASTOdeDeclaration astOdeDeclaration, final Path output) {
     return executeSolver(new SolverInput(astOdeDeclaration), output);
   }
@@ -54,17 +80,160 @@ class SymPySolver {
     return executeSolver(new SolverInput(shapes), output);
   }
 
+  SolverOutput analyseOdeSystem(final ASTOdeDeclaration astOdeDeclaration, final Path output) {
+    return executeSolver(SolverInput.forOdeSystem(astOdeDeclaration), output);
+  }
+
+  /**
+   * Evaluates all {@code solverInputs} with one SymPy call. The results are used by subsequent requests with the same
+   * inputs. Thereby, the SymPy startup is paid once per module and not once per neuron. Inputs which are already
+   * cached are not evaluated again.
+   * @param solverInputs Key: neuron name, value: its solver input
+   */
+  void solveBatch(final Map<String, SolverInput> solverInputs, final Path output) {
+    final Map<String, SolverInput> uncachedInputs = Maps.newTreeMap();
+    solverInputs.forEach((neuronName, solverInput) -> {
+      if (!cache.isPresent() || !cache.get().lookup(solverInput).isPresent()) {
+        uncachedInputs.put(neuronName, solverInput);
+      }
+    });
+
+    if (uncachedInputs.isEmpty()) {
+      return;
+    }
+
+    reporter.reportProgress(String.format("Evaluate SymPy for %d neurons in one batch...", uncachedInputs.size()));
+    final Map<String, SolverOutput> solverOutputs = evaluateBatch(uncachedInputs, output);
+    solverOutputs.forEach((neuronName, solverOutput) -> {
+      final SolverInput solverInput = uncachedInputs.get(neuronName);
+      // failed inputs are evaluated again by the subsequent request of the neuron
+      if (solverInput != null && solverOutput.status.equals("success")) {
+        evaluatedResults.put(solverInput.toJSON(), solverOutput);
+        cache.ifPresent(solverCache -> solverCache.store(solverInput, solverOutput));
+      }
+
+    });
+
+  }
+
+  /**
+   * Returns the result of a previous evaluation or the cached result, if the same input was already evaluated.
+   * Otherwise, evaluates the solver and stores the result in the cache.
+   */
   private SolverOutput executeSolver(final SolverInput solverInput, final Path output) {
+    final SolverOutput evaluatedOutput = evaluatedResults.getIfPresent(solverInput.toJSON());
+    if (evaluatedOutput != null) {
+      reporter.reportProgress("The SymPy result is taken from a previous evaluation.");
+      return evaluatedOutput;
+    }
+
+    if (cache.isPresent()) {
+      final Optional<SolverOutput> cachedOutput = cache.get().lookup(solverInput);
+      if (cachedOutput.isPresent()) {
+        reporter.reportProgress("The SymPy result is taken from the solver cache.");
+        return cachedOutput.get();
+      }
+
+    }
+
+    final SolverOutput solverOutput = evaluateSolver(solverInput, output);
+    // failed evaluations are repeated by subsequent requests
+    if (solverOutput.status.equals("success")) {
+      evaluatedResults.put(solverInput.toJSON(), solverOutput);
+    }
+    cache.ifPresent(solverCache -> solverCache.store(solverInput, solverOutput));
+    return solverOutput;
+  }
+
+  /**
+   * Evaluates the solver on the pooled SymPy server. If the server is not available, the solver script is evaluated
+   * in a separate python process.
+   */
+  private SolverOutput evaluateSolver(final SolverInput solverInput, final Path output) {
+    final Optional<SymPySolverServer> server = SymPySolverServer.get();
+    if (server.isPresent()) {
+      long start = System.nanoTime();
+      final Optional<SolverOutput> solverOutput = server.get().solve(solverInput);
+      long end = System.nanoTime();
+
+      if (solverOutput.isPresent()) {
+        final String msg = "Successfully evaluated the SymPy script on the SymPy server. Elapsed time: "
+            + (double)(end - start) / 1000000000.0 +  " [s]";
+        reporter.reportProgress(msg);
+        return solverOutput.get();
+      }
+
+      reporter.reportProgress("The SymPy server is not available. The solver is started in a separate process.");
+    }
+
+    return executeSolverProcess(solverInput, output);
+  }
+
+  /**
+   * Evaluates the batch on the pooled SymPy server or in a separate python process.
+   * @return Key: neuron name, value: its solver result. Empty, if the batch cannot be evaluated. In this case, the
+   * neurons are evaluated one by one.
+   */
+  private Map<String, SolverOutput> evaluateBatch(final Map<String, SolverInput> solverInputs, final Path output) {
+    final Optional<SymPySolverServer> server = SymPySolverServer.get();
+    if (server.isPresent()) {
+      final Optional<Map<String, SolverOutput>> solverOutputs = server.get().solveBatch(solverInputs);
+      if (solverOutputs.isPresent()) {
+        return solverOutputs.get();
+      }
+
+    }
+
+    try {
+      copySolverFramework(output);
+      // the batch is passed through a file, since it can exceed the maximal length of the command line
+      final Path batchFile = Files.createTempFile(output, "batch", ".tmp");
+      final Path resultFile = Files.createTempFile(output, SolverOutput.RESULT_FILE_PREFIX, ".tmp");
+      Files.write(batchFile, SolverInput.toBatchJSON(solverInputs).getBytes(Charsets.UTF_8));
+
+      final Process res = new ProcessBuilder(
+          PYTHON_INTERPRETER,
+          ODE_ANALYZER_SCRIPT,
+          BATCH_OPTION,
+          batchFile.getFileName().toString(),
+          resultFile.getFileName().toString())
+          .directory(output.toFile())
+          .redirectErrorStream(true) // otherwise a full error stream blocks the process
+          .start();
+      getStreamAsListOfStrings(res.getInputStream()).forEach(reporter::reportProgress);
+
+      if (res.waitFor() != 0) {
+        reporter.reportProgress("Cannot evaluate the SymPy batch. Neurons are evaluated one by one.");
+        return Maps.newHashMap();
+      }
+
+      return SolverOutput.fromBatchJSON(new String(Files.readAllBytes(resultFile), Charsets.UTF_8));
+    }
+    catch (IOException | RuntimeException e) {
+      reporter.reportProgress("Cannot evaluate the SymPy batch. Neurons are evaluated one by one.");
+      return Maps.newHashMap();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return Maps.newHashMap();
+    }
+
+  }
+
+  private SolverOutput executeSolverProcess(final SolverInput solverInput, final Path output) {
     try {
       reporter.reportProgress("Start long running SymPy script evaluation...");
 
       copySolverFramework(output);
+      // every evaluation gets its own result file, since neurons can be processed in parallel
+      final Path resultFile = Files.createTempFile(output, SolverOutput.RESULT_FILE_PREFIX, ".tmp");
       long start = System.nanoTime();
       final List<String> commands = Lists.newArrayList();
 
       commands.add(PYTHON_INTERPRETER);
       commands.add(ODE_ANALYZER_SCRIPT);
       commands.add(solverInput.toJSON());
+      commands.add(resultFile.getFileName().toString());
 
       final ProcessBuilder processBuilder = new ProcessBuilder(
           PYTHON_INTERPRETER,
@@ -93,7 +262,7 @@ class SymPySolver {
         return SolverOutput.getErrorResult();
       }
 
-      return SolverOutput.fromJSON(Paths.get(output.toString(), SolverOutput.RESULT_FILE_NAME));
+      return SolverOutput.fromJSON(resultFile);
     }
     catch (IOException | InterruptedException e) {
       reporter.reportProgress("Cannot evaluate the SymPy solver scripts.", Reporter.Level.ERROR);
@@ -102,22 +271,23 @@ class SymPySolver {
 
   }
 
-  private void copySolverFramework(final Path output) {
+  // the scripts are shared by all neurons which are processed in the same output folder
+  static synchronized void copySolverFramework(final Path output) {
     try {
       if (!Files.exists(output)) {
         Files.createDirectories(output);
       }
-      final URL shapesPyUrl = getClass().getClassLoader().getResource(SHAPES_SOURCE);
+      final URL shapesPyUrl = SymPySolver.class.getClassLoader().getResource(SHAPES_SOURCE);
       checkNotNull(shapesPyUrl, "Cannot read the solver script: " + SHAPES_SCRIPT);
       final String shapesPy = Resources.toString(shapesPyUrl, Charsets.UTF_8);
       Files.write(Paths.get(output.toString(), SHAPES_SCRIPT), shapesPy.getBytes(), CREATE);
 
-      final URL propMatrixUrl = getClass().getClassLoader().getResource(PROP_MATRIX_SOURCE);
+      final URL propMatrixUrl = SymPySolver.class.getClassLoader().getResource(PROP_MATRIX_SOURCE);
       checkNotNull(propMatrixUrl, "Cannot read the solver script: " + PROP_MATRIX_SCRIPT);
       final String propMatrixPy = Resources.toString(propMatrixUrl, Charsets.UTF_8);
       Files.write(Paths.get(output.toString(), PROP_MATRIX_SCRIPT), propMatrixPy.getBytes(), CREATE);
 
-      final URL odeAnalyzerUrl = getClass().getClassLoader().getResource(ODE_ANALYZER_SOURCE);
+      final URL odeAnalyzerUrl = SymPySolver.class.getClassLoader().getResource(ODE_ANALYZER_SOURCE);
       checkNotNull(odeAnalyzerUrl, "Cannot read the solver script: " + ODE_ANALYZER_SCRIPT);
       final String odeAnalyzerPy = Resources.toString(odeAnalyzerUrl, Charsets.UTF_8);
       Files.write(Paths.get(output.toString(), ODE_ANALYZER_SCRIPT), odeAnalyzerPy.getBytes(), CREATE);
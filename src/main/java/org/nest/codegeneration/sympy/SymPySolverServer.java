@@ -0,0 +1,248 @@
+/*
+ * SymPySolverServer.java
+ *
+ * This file is part of NEST.
+ *
+ * Copyright (C) 2004 The NEST Initiative
+ *
+ * NEST is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * NEST is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NEST.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nest.codegeneration.sympy;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import de.se_rwth.commons.logging.Log;
+import org.nest.reporting.Reporter;
+import org.nest.utils.FilesHelper;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps a pool of long living python processes which evaluate the solver script in the server mode. Thereby, SymPy
+ * is imported once per worker and not once per neuron. Workers are started lazily, at most one per available
+ * processor, and live until the JVM terminates. Every worker evaluates its requests in a single process, also if
+ * several jobs use the pool concurrently.
+ *
+ * The protocol is line based: every request is a single line JSON serialization of the {@code SolverInput}, every
+ * response is a single line JSON serialization of the {@code SolverOutput}.
+ */
+class SymPySolverServer {
+  private final static String LOG_NAME = SymPySolverServer.class.getName();
+  private final static Reporter reporter = Reporter.get();
+
+  private final static String PYTHON_INTERPRETER = "python";
+  private final static String SERVER_OPTION = "--server";
+  private final static int MAX_WORKERS = Runtime.getRuntime().availableProcessors();
+
+  // Initialized lazily through the first request
+  private static SymPySolverServer server = null;
+
+  private final Path scriptFolder;
+  private final BlockingQueue<Worker> idleWorkers = new LinkedBlockingQueue<>();
+  private final List<Worker> workers = Lists.newArrayList();
+
+  private SymPySolverServer(final Path scriptFolder) {
+    this.scriptFolder = scriptFolder;
+  }
+
+  /**
+   * @return The server instance of the current JVM or an empty value, if the solver scripts cannot be provided.
+   */
+  static synchronized Optional<SymPySolverServer> get() {
+    if (server == null) {
+      try {
+        final Path scriptFolder = Files.createTempDirectory("nestml_sympy");
+        SymPySolver.copySolverFramework(scriptFolder);
+        server = new SymPySolverServer(scriptFolder);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::shutdown));
+      }
+      catch (IOException | RuntimeException e) {
+        Log.trace("Cannot prepare the SymPy server: " + e.getMessage(), LOG_NAME);
+        return Optional.empty();
+      }
+
+    }
+
+    return Optional.of(server);
+  }
+
+  /**
+   * Evaluates the {@code solverInput} on an idle worker.
+   * @return The solver result or an empty value, if the worker cannot evaluate the request.
+   */
+  Optional<SolverOutput> solve(final SolverInput solverInput) {
+    return evaluate(solverInput.toCompactJSON(), SolverOutput::fromJSON);
+  }
+
+  /**
+   * Distributes the {@code solverInputs} over the workers. Every worker solves its part of the independent inputs
+   * with one request.
+   * @param solverInputs Key: neuron name, value: its solver input
+   * @return Key: neuron name, value: its solver result. An empty value, if a worker cannot evaluate its request.
+   */
+  Optional<Map<String, SolverOutput>> solveBatch(final Map<String, SolverInput> solverInputs) {
+    final List<Map<String, SolverInput>> partitions = Lists.newArrayList();
+    for (int i = 0; i < Math.min(MAX_WORKERS, solverInputs.size()); ++i) {
+      partitions.add(Maps.newTreeMap());
+    }
+
+    int index = 0;
+    for (final Map.Entry<String, SolverInput> solverInput:solverInputs.entrySet()) {
+      partitions.get(index++ % partitions.size()).put(solverInput.getKey(), solverInput.getValue());
+    }
+
+    final List<Optional<Map<String, SolverOutput>>> partialOutputs = partitions
+        .parallelStream()
+        .map(partition -> evaluate(SolverInput.toBatchJSON(partition), SolverOutput::fromBatchJSON))
+        .collect(Collectors.toList());
+
+    final Map<String, SolverOutput> solverOutputs = Maps.newTreeMap();
+    for (final Optional<Map<String, SolverOutput>> partialOutput:partialOutputs) {
+      if (!partialOutput.isPresent()) {
+        return Optional.empty();
+      }
+      solverOutputs.putAll(partialOutput.get());
+    }
+
+    return Optional.of(solverOutputs);
+  }
+
+  private <T> Optional<T> evaluate(final String request, final Function<String, T> responseParser) {
+    final Worker worker;
+    try {
+      worker = borrowWorker();
+    }
+    catch (IOException e) {
+      Log.trace("Cannot start a SymPy worker: " + e.getMessage(), LOG_NAME);
+      return Optional.empty();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return Optional.empty();
+    }
+
+    try {
+      final String response = worker.evaluate(request);
+      idleWorkers.add(worker);
+      return Optional.of(responseParser.apply(response));
+    }
+    catch (IOException | RuntimeException e) {
+      reporter.reportProgress("The SymPy worker failed: " + e.getMessage(), Reporter.Level.ERROR);
+      discardWorker(worker);
+      return Optional.empty();
+    }
+
+  }
+
+  private Worker borrowWorker() throws IOException, InterruptedException {
+    final Worker idleWorker = idleWorkers.poll();
+    if (idleWorker != null) {
+      return idleWorker;
+    }
+
+    synchronized (workers) {
+      if (workers.size() < MAX_WORKERS) {
+        final Worker newWorker = new Worker(scriptFolder);
+        workers.add(newWorker);
+        reporter.reportProgress(String.format("Started SymPy worker %d of at most %d.", workers.size(), MAX_WORKERS));
+        return newWorker;
+      }
+
+    }
+
+    return idleWorkers.take();
+  }
+
+  private void discardWorker(final Worker worker) {
+    synchronized (workers) {
+      workers.remove(worker);
+    }
+    worker.stop();
+  }
+
+  private void shutdown() {
+    synchronized (workers) {
+      workers.forEach(Worker::stop);
+      workers.clear();
+    }
+    idleWorkers.clear();
+
+    FilesHelper.deleteFilesInFolder(scriptFolder);
+    try {
+      Files.deleteIfExists(scriptFolder);
+    }
+    catch (IOException e) {
+      // the folder is located in the temporary folder of the system and will be removed by it
+    }
+
+  }
+
+  /**
+   * Encapsulates one python process which runs the solver script in the server mode.
+   */
+  private static class Worker {
+    private final Process process;
+    private final BufferedWriter requests;
+    private final BufferedReader responses;
+
+    Worker(final Path scriptFolder) throws IOException {
+      final ProcessBuilder processBuilder = new ProcessBuilder(
+          PYTHON_INTERPRETER,
+          "-u", // otherwise responses are buffered
+          Paths.get(scriptFolder.toString(), SymPySolver.ODE_ANALYZER_SCRIPT).toString(),
+          SERVER_OPTION)
+          .directory(scriptFolder.toFile())
+          .redirectError(ProcessBuilder.Redirect.INHERIT);
+
+      process = processBuilder.start();
+      requests = new BufferedWriter(new OutputStreamWriter(process.getOutputStream()));
+      responses = new BufferedReader(new InputStreamReader(process.getInputStream()));
+    }
+
+    String evaluate(final String request) throws IOException {
+      requests.write(request);
+      requests.newLine();
+      requests.flush();
+
+      final String response = responses.readLine();
+      if (response == null) {
+        throw new IOException("The SymPy worker terminated unexpectedly.");
+      }
+
+      return response;
+    }
+
+    void stop() {
+      try {
+        requests.close(); // terminates the server loop
+      }
+      catch (IOException e) {
+        Log.trace("Cannot close the SymPy worker gracefully.", LOG_NAME);
+      }
+      process.destroy();
+    }
+
+  }
+
+}
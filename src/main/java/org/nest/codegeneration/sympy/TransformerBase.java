@@ -5,13 +5,10 @@ import de.monticore.symboltable.Scope;
 import de.se_rwth.commons.logging.Log;
 import org.nest.nestml._ast.ASTFunctionCall;
 import org.nest.nestml._ast.*;
-import org.nest.nestml._parser.NESTMLParser;
 import org.nest.nestml._symboltable.predefined.PredefinedFunctions;
 import org.nest.nestml._symboltable.symbols.VariableSymbol;
 import org.nest.utils.AstUtils;
 
-import java.io.IOException;
-import java.io.StringReader;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -22,6 +19,7 @@ import static com.google.common.base.Preconditions.checkState;
 import static java.util.stream.Collectors.toList;
 import static org.nest.codegeneration.sympy.AstCreator.createAssignment;
 import static org.nest.codegeneration.sympy.AstCreator.createDeclaration;
+import static org.nest.codegeneration.sympy.AstCreator.createExpression;
 import static org.nest.nestml._symboltable.symbols.VariableSymbol.resolve;
 
 /**
@@ -46,8 +44,6 @@ public class TransformerBase {
     }
   };
 
-  private final NESTMLParser parser = new NESTMLParser();
-
   ASTNeuron addVariablesToState(final ASTNeuron astNeuron, final List<String> shapeStateVariables) {
     checkState(astNeuron.getBody().getEnclosingScope().isPresent());
     final Scope scope = astNeuron.getBody().getEnclosingScope().get();
@@ -99,22 +95,17 @@ public class TransformerBase {
   ASTNeuron addVariableToInternals(
       final ASTNeuron astNeuron,
       final Map.Entry<String, String> declaration) {
-    try {
-      ASTExpr tmp = parser.parseExpr(new StringReader(declaration.getValue())).get(); // must not fail by constuction
-      final Optional<VariableSymbol> vectorVariable = AstUtils.getVectorizedVariable(tmp, astNeuron.getSpannedScope().get());
-
-      final String declarationString = declaration.getKey() + " real" +
-                                       vectorVariable.map(variableSymbol -> "[" + variableSymbol.getVectorParameter().get() + "]").orElse("")
-                                       + " = " + declaration.getValue();
-      final ASTDeclaration astDeclaration = parser.parseDeclaration(new StringReader(declarationString)).get();
-      vectorVariable.ifPresent(var -> astDeclaration.setSizeParameter(var.getVectorParameter().get()));
-      astNeuron.getBody().addToInternalBlock(astDeclaration);
-      return astNeuron;
-    }
-    catch (IOException e) {
-      throw new RuntimeException("Must not fail by construction.");
-    }
-
+    // transformers are shared by concurrent workers, therefore, they parse through the parsers of AstCreator
+    ASTExpr tmp = createExpression(declaration.getValue()); // must not fail by constuction
+    final Optional<VariableSymbol> vectorVariable = AstUtils.getVectorizedVariable(tmp, astNeuron.getSpannedScope().get());
+
+    final String declarationString = declaration.getKey() + " real" +
+                                     vectorVariable.map(variableSymbol -> "[" + variableSymbol.getVectorParameter().get() + "]").orElse("")
+                                     + " = " + declaration.getValue();
+    final ASTDeclaration astDeclaration = createDeclaration(declarationString);
+    vectorVariable.ifPresent(var -> astDeclaration.setSizeParameter(var.getVectorParameter().get()));
+    astNeuron.getBody().addToInternalBlock(astDeclaration);
+    return astNeuron;
   }
 
   ASTNeuron replaceIntegrateCallThroughPropagation(final ASTNeuron astNeuron, List<String> propagatorSteps) {
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c)  RWTH Aachen. All rights reserved.
+ *
+ * http://www.se-rwth.de/
+ */
+package org.nest.frontend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.hash.Hashing;
+import de.se_rwth.commons.logging.Log;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Stores which inputs produced the generated artifacts in the target folder. It is used in the incremental mode to
+ * skip models whose inputs are unchanged. Thereby, their artifacts remain untouched and are not recompiled by the
+ * downstream build.
+ *
+ * All fields must be public since they are set by the JSON framework.
+ */
+public class BuildManifest {
+  private final static String LOG_NAME = BuildManifest.class.getName();
+  static final String MANIFEST_FILE_NAME = "nestml_manifest.json";
+
+  public String toolVersion = "";
+  public String moduleName = "";
+  // generator options of the module artifacts, e.g. the benchmark harness is generated only with --benchmark
+  public String moduleOptions = "";
+  // Key: neuron name
+  public Map<String, Entry> neurons = Maps.newTreeMap();
+  // Key: artifact name relative to the target folder, value: its hash
+  public Map<String, String> moduleArtifacts = Maps.newTreeMap();
+
+  public static class Entry {
+    public String inputHash = "";
+    // Key: artifact name relative to the target folder, value: its hash
+    public Map<String, String> artifacts = Maps.newTreeMap();
+  }
+
+  /**
+   * @return The version of the running tool. It is taken from the jar manifest.
+   */
+  static String getToolVersion() {
+    return Optional.ofNullable(BuildManifest.class.getPackage().getImplementationVersion()).orElse("unknown");
+  }
+
+  /**
+   * Reads the manifest from the target folder. If there is no manifest or it is unreadable, an empty manifest is
+   * returned. Thereby, all models are generated.
+   */
+  static BuildManifest load(final Path targetPath) {
+    final Path manifestFile = Paths.get(targetPath.toString(), MANIFEST_FILE_NAME);
+    if (Files.exists(manifestFile)) {
+      try {
+        return new ObjectMapper().readValue(manifestFile.toFile(), BuildManifest.class);
+      }
+      catch (IOException e) {
+        Log.trace("Cannot read the build manifest. All models will be regenerated.", LOG_NAME);
+      }
+
+    }
+
+    return new BuildManifest();
+  }
+
+  void store(final Path targetPath) {
+    final Path manifestFile = Paths.get(targetPath.toString(), MANIFEST_FILE_NAME);
+    try {
+      new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(manifestFile.toFile(), this);
+    }
+    catch (IOException e) {
+      Log.error("Cannot write the build manifest: " + manifestFile, e);
+    }
+
+  }
+
+  /**
+   * @return true iff. the neuron was generated from the same input with the same tool and its artifacts exist and
+   * were not changed since then.
+   */
+  boolean isUpToDate(final String neuronName, final String inputHash, final Path targetPath) {
+    final Entry entry = neurons.get(neuronName);
+    return isSameTool() &&
+           entry != null &&
+           entry.inputHash.equals(inputHash) &&
+           areUnchanged(entry.artifacts, targetPath);
+  }
+
+  /**
+   * @return true iff. the module artifacts were generated for the same neurons with the same options, exist and were
+   * not changed since then.
+   */
+  boolean isModuleUpToDate(
+      final String moduleName,
+      final String generatorOptions,
+      final Collection<String> neuronNames,
+      final Path targetPath) {
+    return isSameTool() &&
+           this.moduleName.equals(moduleName) &&
+           moduleOptions.equals(generatorOptions) &&
+           neurons.keySet().equals(Sets.newHashSet(neuronNames)) &&
+           areUnchanged(moduleArtifacts, targetPath);
+  }
+
+  /**
+   * @param artifacts Artifacts which are always generated for the neuron. If one of them is missing, the neuron stays
+   *                  outdated.
+   * @param optionalArtifacts Artifacts which are generated only for some neurons or options, e.g. population kernels.
+   *                          Only existing ones are recorded.
+   */
+  void recordNeuron(
+      final String neuronName,
+      final String inputHash,
+      final List<String> artifacts,
+      final List<String> optionalArtifacts,
+      final Path targetPath) {
+    final Entry entry = new Entry();
+    entry.inputHash = inputHash;
+    recordArtifacts(entry.artifacts, artifacts, optionalArtifacts, targetPath);
+    neurons.put(neuronName, entry);
+  }
+
+  void recordModule(
+      final String moduleName,
+      final String generatorOptions,
+      final List<String> artifacts,
+      final Path targetPath) {
+    this.toolVersion = getToolVersion();
+    this.moduleName = moduleName;
+    this.moduleOptions = generatorOptions;
+    moduleArtifacts.clear();
+    recordArtifacts(moduleArtifacts, artifacts, Lists.newArrayList(), targetPath);
+  }
+
+  private static void recordArtifacts(
+      final Map<String, String> recordedArtifacts,
+      final List<String> artifacts,
+      final List<String> optionalArtifacts,
+      final Path targetPath) {
+    // a missing artifact is recorded with an empty hash, which never matches. Thereby, it is generated in the next run.
+    artifacts.forEach(artifact -> recordedArtifacts.put(artifact, hashArtifact(targetPath, artifact).orElse("")));
+    optionalArtifacts.forEach(artifact -> hashArtifact(targetPath, artifact)
+        .ifPresent(hash -> recordedArtifacts.put(artifact, hash)));
+  }
+
+  /**
+   * Removes all neurons which are not contained in {@code neuronNames}, e.g. deleted models.
+   */
+  void retainNeurons(final Collection<String> neuronNames) {
+    neurons.keySet().retainAll(neuronNames);
+  }
+
+  private boolean isSameTool() {
+    return toolVersion.equals(getToolVersion());
+  }
+
+  private boolean areUnchanged(final Map<String, String> artifacts, final Path targetPath) {
+    return artifacts.entrySet()
+        .stream()
+        .allMatch(artifact -> hashArtifact(targetPath, artifact.getKey())
+            .map(hash -> hash.equals(artifact.getValue()))
+            .orElse(false));
+  }
+
+  /**
+   * @return The hash of the artifact or an empty value, if the artifact doesn't exist or is not readable.
+   */
+  private static Optional<String> hashArtifact(final Path targetPath, final String artifact) {
+    final Path artifactFile = Paths.get(targetPath.toString(), artifact);
+    final String hash = hashFile(artifactFile);
+    return hash.isEmpty() ? Optional.empty() : Optional.of(hash);
+  }
+
+  /**
+   * Generator options are a part of the input, since they change the generated code.
+   */
+  static String hashInput(final Path modelFile, final String generatorOptions) {
+    return Hashing.sha256().hashString(hashFile(modelFile) + generatorOptions, Charsets.UTF_8).toString();
+  }
+
+  static String hashFile(final Path file) {
+    if (!Files.exists(file)) {
+      return "";
+    }
+
+    try {
+      return Hashing.sha256().hashBytes(Files.readAllBytes(file)).toString();
+    }
+    catch (IOException e) {
+      return "";
+    }
+
+  }
+
+}
@@ -5,8 +5,13 @@
  */
 package org.nest.frontend;
 
+import org.nest.codegeneration.IntegratorConfiguration;
+import org.nest.codegeneration.ParameterSet;
+import org.nest.codegeneration.Precision;
+
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Optional;
 
 /**
  * Data class to store the tool's configuration
@@ -20,6 +25,16 @@ public class CliConfiguration {
   private boolean isTracing;
   private boolean isCodegeneration;
   private final String moduleName;
+  private final int jobs;
+  private final Optional<Path> solverCachePath;
+  private final boolean isIncremental;
+  private final IntegratorConfiguration integratorConfiguration;
+  private final boolean isPopulationKernel;
+  private final Precision precision;
+  private final ParameterSet parameterSet;
+  private final boolean isQuiescence;
+  private final boolean isBenchmark;
+  private final boolean isReducePowers;
 
   public CliConfiguration(final Builder builder) {
     this.inputPath = builder.modelPath;
@@ -28,6 +43,16 @@ public class CliConfiguration {
     this.isTracing = builder.isTracing;
     this.isCodegeneration = builder.isCodegeneration;
     this.moduleName = builder.moduleName;
+    this.jobs = builder.jobs;
+    this.solverCachePath = builder.solverCachePath;
+    this.isIncremental = builder.isIncremental;
+    this.integratorConfiguration = builder.integratorConfiguration;
+    this.isPopulationKernel = builder.isPopulationKernel;
+    this.precision = builder.precision;
+    this.parameterSet = builder.parameterSet;
+    this.isQuiescence = builder.isQuiescence;
+    this.isBenchmark = builder.isBenchmark;
+    this.isReducePowers = builder.isReducePowers;
   }
 
 
@@ -55,6 +80,85 @@ public class CliConfiguration {
     return this.jasonLogFile;
   }
 
+  /**
+   * @return Number of worker threads which process compilation units. 1 means the sequential processing.
+   */
+  public int getJobs() {
+    return jobs;
+  }
+
+  /**
+   * @return Folder where SymPy results are cached between runs. If it is absent, the results are not cached.
+   */
+  public Optional<Path> getSolverCachePath() {
+    return solverCachePath;
+  }
+
+  /**
+   * @return true iff. only models which were changed since the last run are regenerated.
+   */
+  public boolean isIncremental() {
+    return isIncremental;
+  }
+
+  /**
+   * @return GSL steppers for neurons which are integrated numerically.
+   */
+  public IntegratorConfiguration getIntegratorConfiguration() {
+    return integratorConfiguration;
+  }
+
+  /**
+   * @return true iff. population kernels are generated additionally to the neuron classes.
+   */
+  public boolean isPopulationKernel() {
+    return isPopulationKernel;
+  }
+
+  /**
+   * @return The floating point precision of the generated module.
+   */
+  public Precision getPrecision() {
+    return precision;
+  }
+
+  /**
+   * @return Parameters which are fixed at generation time. The set is empty, if no neuron is specialised.
+   */
+  public ParameterSet getParameterSet() {
+    return parameterSet;
+  }
+
+  /**
+   * @return true iff. neurons skip their update steps while they rest in a fixed point.
+   */
+  public boolean isQuiescence() {
+    return isQuiescence;
+  }
+
+  /**
+   * @return true iff. standalone benchmarks are generated additionally to the module.
+   */
+  public boolean isBenchmark() {
+    return isBenchmark;
+  }
+
+  /**
+   * @return true iff. powers with constant exponents are printed without pow calls.
+   */
+  public boolean isReducePowers() {
+    return isReducePowers;
+  }
+
+  /**
+   * @return All options which change the generated code. The string is stable between runs.
+   */
+  String getGeneratorOptions() {
+    return "tracing=" + isTracing + ";" + integratorConfiguration + ";population_kernel=" + isPopulationKernel +
+           ";precision=" + precision + ";parameters=" + parameterSet + ";quiescence=" + isQuiescence +
+           ";benchmark=" + isBenchmark + ";reduce_powers=" + isReducePowers;
+  }
+
   public static class Builder {
     private Path modelPath;
     private Path targetPath;
@@ -62,6 +166,16 @@ public class CliConfiguration {
     private boolean isTracing = false;
     private boolean isCodegeneration;
     public String moduleName;
+    private int jobs = 1;
+    private Optional<Path> solverCachePath = Optional.empty();
+    private boolean isIncremental = false;
+    private IntegratorConfiguration integratorConfiguration = new IntegratorConfiguration();
+    private boolean isPopulationKernel = false;
+    private Precision precision = Precision.DOUBLE;
+    private ParameterSet parameterSet = new ParameterSet();
+    private boolean isQuiescence = false;
+    private boolean isBenchmark = false;
+    private boolean isReducePowers = false;
 
     Builder withModelPath(final Path modelPath) {
       this.modelPath = modelPath;
@@ -94,6 +208,56 @@ public class CliConfiguration {
       return this;
     }
 
+    Builder withJobs(final int jobs) {
+      this.jobs = jobs;
+      return this;
+    }
+
+    Builder withSolverCachePath(final String solverCachePath) {
+      this.solverCachePath = Optional.of(Paths.get(solverCachePath));
+      return this;
+    }
+
+    Builder withIncremental(final boolean isIncremental) {
+      this.isIncremental = isIncremental;
+      return this;
+    }
+
+    Builder withIntegratorConfiguration(final IntegratorConfiguration integratorConfiguration) {
+      this.integratorConfiguration = integratorConfiguration;
+      return this;
+    }
+
+    Builder withPopulationKernel(final boolean isPopulationKernel) {
+      this.isPopulationKernel = isPopulationKernel;
+      return this;
+    }
+
+    Builder withPrecision(final Precision precision) {
+      this.precision = precision;
+      return this;
+    }
+
+    Builder withParameterSet(final ParameterSet parameterSet) {
+      this.parameterSet = parameterSet;
+      return this;
+    }
+
+    Builder withQuiescence(final boolean isQuiescence) {
+      this.isQuiescence = isQuiescence;
+      return this;
+    }
+
+    Builder withBenchmark(final boolean isBenchmark) {
+      this.isBenchmark = isBenchmark;
+      return this;
+    }
+
+    Builder withReducedPowers(final boolean isReducePowers) {
+      this.isReducePowers = isReducePowers;
+      return this;
+    }
+
     public CliConfiguration build() {
       return new CliConfiguration(this);
     }
@@ -17,6 +17,8 @@ import org.nest.nestml._parser.NESTMLParser;
 import org.nest.nestml._symboltable.NESTMLScopeCreator;
 import org.nest.nestml._symboltable.NestmlCoCosManager;
 import org.nest.reporting.Reporter;
+import org.nest.reporting.TaskLocalLog;
+import org.nest.utils.AstUtils;
 import org.nest.utils.FilesHelper;
 import org.nest.utils.LogHelper;
 
@@ -28,8 +30,15 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static java.util.stream.Collectors.toList;
+import static org.nest.utils.AstUtils.getAllNeurons;
 import static org.nest.utils.FilesHelper.collectNESTMLModelFilenames;
 
 /**
@@ -41,36 +50,50 @@ import static org.nest.utils.FilesHelper.collectNESTMLModelFilenames;
 class CliConfigurationExecutor {
 
   private static final String LOG_NAME = CliConfigurationExecutor.class.getName();
-  private final NestmlCoCosManager checker = new NestmlCoCosManager();
+  private static final String METRICS_FILE_ENDING = ".metrics.json";
+  private static final String PARSE_PHASE = "parse";
+  private static final String SYMBOL_TABLE_PHASE = "symbol_table";
+  private static final String CLANG_FORMAT_PHASE = "clang_format";
+  private static final String AST_NODES_COUNTER = "ast_nodes";
+  private static final String AST_NODES_UNIT = "nodes";
+  // context conditions are checked concurrently, therefore, every thread uses an own checker
+  private final ThreadLocal<NestmlCoCosManager> checkers = ThreadLocal.withInitial(NestmlCoCosManager::new);
   private final Reporter reporter = Reporter.get();
 
   public CliConfigurationExecutor() {
     Log.enableFailQuick(false); // otherwise the processing is stopped after encountering first error
   }
 
-  void execute(final NestCodeGenerator generator, final CliConfiguration config) {
-    final NESTMLParser parser =  new NESTMLParser();
+  /**
+   * Executes the {@code config}. Every execution collects its reports in an own context. Therefore, the executor can
+   * be used concurrently, e.g. in a long-running service.
+   * @return The context with reports of this execution.
+   */
+  Reporter.Context execute(final NestCodeGenerator generator, final CliConfiguration config) {
+    // findings are collected per task, see runOnWorkers. The log can be replaced in the meantime, e.g. by Log.init()
+    TaskLocalLog.install();
+    final Reporter.Context context = new Reporter.Context();
+    reporter.runInContext(context, () -> executeInContext(generator, config));
+    return context;
+  }
+
+  private void executeInContext(final NestCodeGenerator generator, final CliConfiguration config) {
     final List<Path> modelFilenames = collectNESTMLModelFilenames(config.getInputPath());
-    final List<ASTNESTMLCompilationUnit> modelRoots = parseModels(modelFilenames, parser);
 
-    if (!modelRoots.isEmpty()) {
-      final NESTMLScopeCreator scopeCreator = new NESTMLScopeCreator();
-      reporter.reportProgress("Finished parsing nestml mdoels...");
-      reporter.reportProgress("Remove temporary files...");
-      if (!Files.exists(config.getTargetPath())) {
-        try {
-          Files.createDirectories(config.getTargetPath());
-        }
-        catch (IOException e) {
-          Log.error("Cannot create the output foder: " + config.getTargetPath().toString(), e);
-        }
-      }
-      cleanUpWorkingFolder(config.getTargetPath());
+    if (config.getJobs() > 1) {
+      executeInParallel(generator, config, modelFilenames);
+    }
+    else {
+      final NESTMLParser parser =  new NESTMLParser();
+      final List<ASTNESTMLCompilationUnit> modelRoots = parseModels(modelFilenames, parser);
 
-      processNestmlModels(modelRoots, config, scopeCreator, generator);
+      if (!modelRoots.isEmpty()) {
+        final NESTMLScopeCreator scopeCreator = new NESTMLScopeCreator();
+        reporter.reportProgress("Finished parsing nestml mdoels...");
+        prepareTargetFolder(config.getTargetPath());
 
-      reporter.reportProgress("Format generated code...");
-      formatGeneratedCode(config.getTargetPath());
+        processNestmlModels(modelFilenames, modelRoots, config, scopeCreator, generator);
+      }
 
     }
 
@@ -84,8 +107,132 @@ class CliConfigurationExecutor {
         Log.error("Cannot write JSON log", e);
       }
 
+      // the metrics are stored next to the log, e.g. model.log and model.metrics.json
+      final String metricsFileName = config.getJsonLogFile().replaceAll("\\.log$", "") + METRICS_FILE_ENDING;
+      final Path metricsFile = Paths.get(config.getTargetPath().toString(), metricsFileName);
+      try (BufferedWriter writer = Files.newBufferedWriter(metricsFile)) {
+        writer.write(reporter.printMetricsAsJsonString());
+      }
+      catch (IOException e) {
+        Log.error("Cannot write JSON metrics", e);
+      }
+
+    }
+
+  }
+
+  /**
+   * Processes every compilation unit on a pool with {@code config.getJobs()} workers. Parsing, the symbol table
+   * construction and the code generation are executed per compilation unit. Findings of every task are collected in
+   * an own buffer, see {@link TaskLocalLog}. Context conditions are checked in between per neuron as a join point,
+   * since the code generation requires that all models are correct. The module code is generated once at the end
+   * after all neurons are generated.
+   */
+  private void executeInParallel(
+      final NestCodeGenerator generator,
+      final CliConfiguration config,
+      final List<Path> modelFilenames) {
+    final ExecutorService workers = new ForkJoinPool(config.getJobs());
+    reporter.reportProgress(String.format("Process models with %d parallel jobs...", config.getJobs()));
+
+    try {
+      // parser and scope creator keep state of the processed artifact. Therefore, every task uses own instances.
+      final List<Optional<ASTNESTMLCompilationUnit>> parsedRoots = runOnWorkers(
+          workers,
+          modelFilenames,
+          modelFile -> parseModel(modelFile, new NESTMLParser()));
+
+      if (parsedRoots.stream().anyMatch(root -> !root.isPresent())) {
+        return;
+      }
+
+      final List<ASTNESTMLCompilationUnit> modelRoots = parsedRoots.stream().map(Optional::get).collect(toList());
+      if (modelRoots.isEmpty()) {
+        return;
+      }
+
+      reporter.reportProgress("Finished parsing nestml mdoels...");
+      prepareTargetFolder(config.getTargetPath());
+
+      final List<Boolean> symbolTableResults = runOnWorkers(
+          workers,
+          modelRoots,
+          modelRoot -> buildSymbolTable(modelRoot, new NESTMLScopeCreator()));
+
+      if (symbolTableResults.contains(false) ||
+          !checkModels(modelRoots, neurons -> runOnWorkers(workers, neurons, this::checkNeuron))) {
+        final String msg = " Models contain semantic error(s), therefore, no codegeneration is possible";
+        reporter.reportProgress(msg);
+      }
+      else if (config.isCodegeneration()) {
+        // join point after the neuron generation: the module code references all generated neurons
+        generateCode(modelFilenames, modelRoots, config, generator, outdatedRoots ->
+            runOnWorkers(workers, outdatedRoots, root -> {
+              reporter.reportProgress("Generate NEST code from the artifact: " + root.getArtifactName());
+              generator.analyseAndGenerate(root, config.getTargetPath());
+              return root;
+            }));
+      }
+      else {
+        final String msg = "Codegeneration was disabled though the '--dry-run option'.";
+        reporter.reportProgress(msg);
+      }
+
+    }
+    finally {
+      workers.shutdown();
+    }
+
+  }
+
+  /**
+   * Applies {@code task} to every input on the {@code workers} and waits for all results. The order of results
+   * corresponds to the order of inputs. Every task reports into the context of the current run and collects its
+   * findings in an own buffer. The buffers are merged into the findings of the calling thread in the order of inputs.
+   */
+  private <I, O> List<O> runOnWorkers(
+      final ExecutorService workers,
+      final List<I> inputs,
+      final Function<I, O> task) {
+    final Reporter.Context runContext = reporter.getContext();
+    final List<Future<TaskLocalLog.TaskResult<O>>> futures = inputs
+        .stream()
+        .map(input -> workers.submit(() -> reporter.runInContext(
+            runContext,
+            () -> TaskLocalLog.collectFindings(() -> task.apply(input)))))
+        .collect(toList());
+
+    final List<O> results = Lists.newArrayList();
+    for (final Future<TaskLocalLog.TaskResult<O>> future:futures) {
+      try {
+        final TaskLocalLog.TaskResult<O> taskResult = future.get();
+        Log.getFindings().addAll(taskResult.getFindings());
+        results.add(taskResult.getResult());
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("The processing of models was interrupted.", e);
+      }
+      catch (ExecutionException e) {
+        throw new RuntimeException("Cannot process a model.", e.getCause());
+      }
+
     }
 
+    return results;
+  }
+
+  private void prepareTargetFolder(final Path targetPath) {
+    reporter.reportProgress("Remove temporary files...");
+    if (!Files.exists(targetPath)) {
+      try {
+        Files.createDirectories(targetPath);
+      }
+      catch (IOException e) {
+        Log.error("Cannot create the output foder: " + targetPath.toString(), e);
+      }
+    }
+    cleanUpWorkingFolder(targetPath);
   }
 
   private List<ASTNESTMLCompilationUnit> parseModels(
@@ -94,32 +241,13 @@ class CliConfigurationExecutor {
     final List<ASTNESTMLCompilationUnit> modelRoots = Lists.newArrayList();
     boolean isError = false;
     for (final Path modelFile:nestmlModelFiles) {
-      try {
-        final Optional<ASTNESTMLCompilationUnit> root = parser.parse(modelFile.toString());
-
-        if (root.isPresent()) {
-          modelRoots.add(root.get());
-          reporter.reportProgress("The NESTML file was parsed successfully: " + modelFile.getFileName().toString());
-        }
-        else {
-          final Optional<Finding> parserError = Log.getFindings()
-              .stream()
-              .filter(finding -> finding.getType().equals(Finding.Type.ERROR))
-              .findAny();
-
-          reportParserError(modelFile, parserError);
-          Log.getFindings().clear();
-          isError = true;
-        }
+      final Optional<ASTNESTMLCompilationUnit> root = parseModel(modelFile, parser);
 
+      if (root.isPresent()) {
+        modelRoots.add(root.get());
       }
-      catch (IOException e) {
-        final Optional<Finding> parserError = Log.getFindings()
-            .stream()
-            .filter(finding -> finding.getType().equals(Finding.Type.ERROR))
-            .findAny();
-
-        reportParserError(modelFile, parserError);
+      else {
+        Log.getFindings().clear();
         isError = true;
       }
 
@@ -133,6 +261,43 @@ class CliConfigurationExecutor {
 
   }
 
+  /**
+   * Parses one model file and reports the parser error, if the model is not parsable.
+   * @return The root of the model or an empty value in case of an parser error.
+   */
+  private Optional<ASTNESTMLCompilationUnit> parseModel(final Path modelFile, final NESTMLParser parser) {
+    // only findings which are raised while this file is parsed belong to it
+    final int previousFindings = Log.getFindings().size();
+    try {
+      final Reporter.Timer timer = reporter.startTimer(modelFile.getFileName().toString(), PARSE_PHASE);
+      final Optional<ASTNESTMLCompilationUnit> root = parser.parse(modelFile.toString());
+      timer.stop();
+
+      if (root.isPresent()) {
+        reporter.reportProgress("The NESTML file was parsed successfully: " + modelFile.getFileName().toString());
+        reporter.addCounter(
+            modelFile.getFileName().toString(),
+            AST_NODES_COUNTER,
+            AST_NODES_UNIT,
+            AstUtils.getSuccessors(root.get()).size());
+        return root;
+      }
+
+    }
+    catch (IOException e) {
+      // the error is reported through the parser finding below
+    }
+
+    final Optional<Finding> parserError = Log.getFindings()
+        .subList(previousFindings, Log.getFindings().size())
+        .stream()
+        .filter(finding -> finding.getType().equals(Finding.Type.ERROR))
+        .findFirst();
+
+    reportParserError(modelFile, parserError);
+    return Optional.empty();
+  }
+
   private void reportParserError(Path modelFile, Optional<Finding> parserError) {
     reporter.addNeuronReport(
         modelFile.getFileName().toString(), // TODO: is it a good idea?
@@ -149,42 +314,28 @@ class CliConfigurationExecutor {
   }
 
   private void processNestmlModels(
+      final List<Path> modelFilenames,
       final List<ASTNESTMLCompilationUnit> modelRoots,
       final CliConfiguration config,
       final NESTMLScopeCreator scopeCreator,
       final NestCodeGenerator generator) {
 
     for (ASTNESTMLCompilationUnit modelRoot:modelRoots) {
-
-      scopeCreator.runSymbolTableCreator(modelRoot);
-      final Collection<Finding> symbolTableFindings = LogHelper.getErrorsByPrefix("NESTML_", Log.getFindings());
-      symbolTableFindings.addAll(LogHelper.getErrorsByPrefix("SPL_", Log.getFindings()));
-
-      symbolTableFindings.forEach(warning -> reporter.addNeuronReport(
-          modelRoot.getFilename(),
-          modelRoot.getNeuronNameAtLine(warning.getSourcePosition()),
-          warning));
-
-      if (symbolTableFindings.isEmpty()) {
-        reporter.reportProgress(modelRoot.getArtifactName() + ": Successfully built the symboltable.");
-      } else {
-        reporter.reportProgress(modelRoot.getArtifactName() + ": Cannot built the symboltable.", Reporter.Level.ERROR);
-      }
-      final Collection<Finding> symbolTableWarnings = LogHelper.getWarningsByPrefix("NESTML_", Log.getFindings());
-
-      symbolTableWarnings.forEach(warning -> reporter.addNeuronReport(
-          modelRoot.getFilename(),
-          modelRoot.getNeuronNameAtLine(warning.getSourcePosition().get().getLine()),
-          warning));
+      buildSymbolTable(modelRoot, scopeCreator);
     }
 
     final Collection<Finding> symbolTableFindings = LogHelper.getErrorsByPrefix("NESTML_", Log.getFindings());
     symbolTableFindings.addAll(LogHelper.getErrorsByPrefix("SPL_", Log.getFindings()));
 
-    if (symbolTableFindings.isEmpty() && checkModels(modelRoots)) {
+    if (symbolTableFindings.isEmpty() &&
+        checkModels(modelRoots, neurons -> neurons.stream().map(this::checkNeuron).collect(toList()))) {
       if (config.isCodegeneration()) {
-        generateNeuronCode(modelRoots, config, generator);
-        generateModuleCode(modelRoots, config, generator);
+        generateCode(
+            modelFilenames,
+            modelRoots,
+            config,
+            generator,
+            outdatedRoots -> generateNeuronCode(outdatedRoots, config, generator));
       }
       else {
         final String msg = "Codegeneration was disabled though the '--dry-run option'.";
@@ -198,11 +349,129 @@ class CliConfigurationExecutor {
 
   }
 
+  /**
+   * Builds the symbol table for the {@code modelRoot} and reports corresponding findings.
+   * @return true iff. the symbol table was built without errors
+   */
+  private boolean buildSymbolTable(
+      final ASTNESTMLCompilationUnit modelRoot,
+      final NESTMLScopeCreator scopeCreator) {
+    final Reporter.Timer timer = reporter.startTimer(modelRoot.getArtifactName(), SYMBOL_TABLE_PHASE);
+    scopeCreator.runSymbolTableCreator(modelRoot);
+    timer.stop();
+    final Collection<Finding> symbolTableFindings = LogHelper.getErrorsByPrefix("NESTML_", Log.getFindings());
+    symbolTableFindings.addAll(LogHelper.getErrorsByPrefix("SPL_", Log.getFindings()));
+
+    symbolTableFindings.forEach(warning -> reporter.addNeuronReport(
+        modelRoot.getFilename(),
+        modelRoot.getNeuronNameAtLine(warning.getSourcePosition()),
+        warning));
+
+    if (symbolTableFindings.isEmpty()) {
+      reporter.reportProgress(modelRoot.getArtifactName() + ": Successfully built the symboltable.");
+    } else {
+      reporter.reportProgress(modelRoot.getArtifactName() + ": Cannot built the symboltable.", Reporter.Level.ERROR);
+    }
+    final Collection<Finding> symbolTableWarnings = LogHelper.getWarningsByPrefix("NESTML_", Log.getFindings());
+
+    symbolTableWarnings.forEach(warning -> reporter.addNeuronReport(
+        modelRoot.getFilename(),
+        modelRoot.getNeuronNameAtLine(warning.getSourcePosition().get().getLine()),
+        warning));
+
+    return symbolTableFindings.isEmpty();
+  }
+
+  /**
+   * Generates the neuron code through {@code neuronCodeGeneration}, the module code and formats the result. In the
+   * incremental mode only compilation units which were changed since the last run are passed to the
+   * {@code neuronCodeGeneration}. The module code is regenerated only if the set of neurons changed. The
+   * {@code modelFilenames} and {@code modelRoots} must have the same order.
+   */
+  private void generateCode(
+      final List<Path> modelFilenames,
+      final List<ASTNESTMLCompilationUnit> modelRoots,
+      final CliConfiguration config,
+      final NestCodeGenerator generator,
+      final Consumer<List<ASTNESTMLCompilationUnit>> neuronCodeGeneration) {
+    if (!config.isIncremental()) {
+      generator.solveEquationsInBatch(modelRoots, config.getTargetPath());
+      neuronCodeGeneration.accept(modelRoots);
+      generateModuleCode(modelRoots, config, generator);
+      reporter.reportProgress("Format generated code...");
+      formatGeneratedCode(config.getTargetPath(), config.getModuleName());
+      return;
+    }
+
+    final Path targetPath = config.getTargetPath();
+    final BuildManifest manifest = BuildManifest.load(targetPath);
+    final List<ASTNESTMLCompilationUnit> outdatedRoots = Lists.newArrayList();
+    final Map<String, String> inputHashes = Maps.newHashMap(); // key: neuron name, value: hash of its model file
+
+    for (int i = 0; i < modelRoots.size(); ++i) {
+      final ASTNESTMLCompilationUnit root = modelRoots.get(i);
+      final String inputHash = BuildManifest.hashInput(
+          modelFilenames.get(i),
+          config.getGeneratorOptions());
+      final boolean isUpToDate = root.getNeurons()
+          .stream()
+          .allMatch(neuron -> manifest.isUpToDate(neuron.getName(), inputHash, targetPath));
+
+      if (isUpToDate) {
+        reporter.reportProgress(root.getArtifactName() + ": Generated code is up to date.");
+      }
+      else {
+        outdatedRoots.add(root);
+        root.getNeurons().forEach(neuron -> inputHashes.put(neuron.getName(), inputHash));
+      }
+
+    }
+
+    final List<String> neuronNames = getAllNeurons(modelRoots).stream().map(ASTNeuron::getName).collect(toList());
+    final boolean isModuleOutdated = !manifest.isModuleUpToDate(
+        config.getModuleName(),
+        config.getGeneratorOptions(),
+        neuronNames,
+        targetPath);
+
+    if (outdatedRoots.isEmpty() && !isModuleOutdated) {
+      reporter.reportProgress("All models are up to date. Nothing to generate.");
+      return;
+    }
+
+    generator.solveEquationsInBatch(outdatedRoots, targetPath);
+    neuronCodeGeneration.accept(outdatedRoots);
+    if (isModuleOutdated) {
+      generateModuleCode(modelRoots, config, generator);
+    }
+    reporter.reportProgress("Format generated code...");
+    formatGeneratedCode(targetPath, config.getModuleName());
+
+    // artifacts are hashed after the formatting, since it changes them
+    inputHashes.forEach((neuronName, inputHash) -> manifest.recordNeuron(
+        neuronName,
+        inputHash,
+        NestCodeGenerator.getNeuronArtifacts(neuronName),
+        NestCodeGenerator.getOptionalNeuronArtifacts(neuronName),
+        targetPath));
+    manifest.retainNeurons(neuronNames);
+    if (isModuleOutdated) {
+      manifest.recordModule(
+          config.getModuleName(),
+          config.getGeneratorOptions(),
+          NestCodeGenerator.getModuleArtifacts(config.getModuleName(), config.isBenchmark()),
+          targetPath);
+    }
+    manifest.store(targetPath);
+  }
 
   private void generateModuleCode(List<ASTNESTMLCompilationUnit> modelRoots, CliConfiguration config, NestCodeGenerator generator) {
     if (modelRoots.size() > 0) {
       generator.generateNESTModuleCode(modelRoots, config.getModuleName(), config.getTargetPath());
       reporter.reportProgress(String.format("Generated NEST module: %s", config.getModuleName()));
+      if (config.isBenchmark()) {
+        generator.generateBenchmarkHarness(modelRoots, config.getModuleName(), config.getTargetPath());
+      }
     }
     else {
       reporter.reportProgress("Cannot generate module code, since there is no parsable neuron in " + config.getInputPath());
@@ -219,41 +488,54 @@ class CliConfigurationExecutor {
   }
 
   /**
-   *
+   * Checks every neuron exactly once. Every check collects its findings in an own buffer, see {@link TaskLocalLog}.
+   * Therefore, neurons can be checked concurrently by the {@code checkNeurons} function.
    * @param modelRoots List with root nodes of NESTML files from the model path
+   * @param checkNeurons Applies {@link #checkNeuron} to all neurons and returns the results in the order of neurons
    * @return true iff. there is no errors in neurons
    */
-  private boolean checkModels(List<ASTNESTMLCompilationUnit> modelRoots) {
-    boolean anyError = false;
-    final Map<String, List<Finding>> findingsToModel = Maps.newHashMap();
-
+  private boolean checkModels(
+      final List<ASTNESTMLCompilationUnit> modelRoots,
+      final Function<List<ASTNeuron>, List<List<Finding>>> checkNeurons) {
     reporter.reportProgress("Check context conditions...");
 
+    final List<ASTNeuron> neurons = Lists.newArrayList();
+    final List<ASTNESTMLCompilationUnit> neuronRoots = Lists.newArrayList();
     for (final ASTNESTMLCompilationUnit root:modelRoots) {
-      for (ASTNeuron neuron:root.getNeurons()) {
-        Log.getFindings().clear(); // clear it to determine which errors are produced through the current model
-
-        final List<Finding> modelFindings = checker.analyzeModel(root);
-        findingsToModel.put(root.getArtifactName(), modelFindings);
+      for (final ASTNeuron neuron:root.getNeurons()) {
+        neurons.add(neuron);
+        neuronRoots.add(root);
+      }
 
-        if (findingsToModel.get(root.getArtifactName()).stream().anyMatch(Finding::isError)) {
-          anyError = true;
-        }
-        reporter.addNeuronReports(root.getFilename(), neuron.getName(), modelFindings);
+    }
 
+    final List<List<Finding>> neuronFindings = checkNeurons.apply(neurons);
+    boolean anyError = false;
+    for (int i = 0; i < neurons.size(); ++i) {
+      final List<Finding> modelFindings = neuronFindings.get(i);
+      if (modelFindings.stream().anyMatch(Finding::isError)) {
+        anyError = true;
       }
-
+      reporter.addNeuronReports(neuronRoots.get(i).getFilename(), neurons.get(i).getName(), modelFindings);
     }
 
     return !anyError;
   }
 
+  /**
+   * Checks context conditions of the {@code neuron} with the checker of the current thread.
+   * @return The findings which are produced through the neuron
+   */
+  private List<Finding> checkNeuron(final ASTNeuron neuron) {
+    return TaskLocalLog.collectFindings(() -> checkers.get().analyzeModel(neuron)).getResult();
+  }
+
   private List<String> getListFromStream(final InputStream inputStream) throws IOException {
     final BufferedReader in = new BufferedReader(new InputStreamReader(inputStream));
     return in.lines().collect(toList());
   }
 
-  private void formatGeneratedCode(final Path targetPath) {
+  private void formatGeneratedCode(final Path targetPath, final String moduleName) {
     // "/bin/sh", "-c" is necessary because of the wild cards in the clang-format command.
     // otherwise, the command is not evaluated correctly
     final List<String> formatCommand = Lists.newArrayList("/bin/sh", "-c", "clang-format -style=\"{Standard: Cpp03}\"  -i *.cpp *.h");
@@ -262,8 +544,10 @@ class CliConfigurationExecutor {
 
       final ProcessBuilder processBuilder = new ProcessBuilder(formatCommand).directory(targetPath.toFile());
 
+      final Reporter.Timer timer = reporter.startTimer(moduleName, CLANG_FORMAT_PHASE);
       final Process res = processBuilder.start();
       res.waitFor();
+      timer.stop();
       getListFromStream(res.getInputStream()).forEach(m -> Log.trace("Log: " + m, LOG_NAME));
       getListFromStream(res.getErrorStream()).forEach(m -> Log.trace("Error: " + m, LOG_NAME));
       reporter.reportProgress("Formatted generates sources in: " + targetPath.toString());
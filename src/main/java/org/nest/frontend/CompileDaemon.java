@@ -0,0 +1,164 @@
+/*
+ * Copyright (c)  RWTH Aachen. All rights reserved.
+ *
+ * http://www.se-rwth.de/
+ */
+package org.nest.frontend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Charsets;
+import com.google.common.io.ByteStreams;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.nest.reporting.Reporter;
+import org.nest.utils.FilesHelper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps a warm JVM which processes compile requests. Thereby, the JVM startup, the parser warm-up, the initialization
+ * of predefined types, templates and the python environment checks are paid once and not once per invocation.
+ *
+ * The daemon listens only on the loopback interface:
+ * <ul>
+ *   <li>POST /compile with a JSON array of command line arguments, e.g. ["models", "--target", "build"]. The response
+ *   is the JSON report of the request.</li>
+ *   <li>POST /shutdown stops the daemon.</li>
+ * </ul>
+ */
+class CompileDaemon {
+  private static final Reporter reporter = Reporter.get();
+  private static final String WARM_UP_MODEL = "warm_up_neuron.nestml";
+  private static final String WARM_UP_MODEL_TEXT =
+      "neuron warm_up_neuron:\n" +
+      "  state:\n" +
+      "    V_m mV = 0 mV\n" +
+      "  end\n" +
+      "  parameters:\n" +
+      "    tau_m ms = 10 ms\n" +
+      "  end\n" +
+      "  input:\n" +
+      "    spikes <- spike\n" +
+      "  end\n" +
+      "  output: spike\n" +
+      "  update:\n" +
+      "    V_m = V_m * exp(-resolution() / tau_m)\n" +
+      "  end\n" +
+      "end\n";
+
+  private final NestmlFrontend frontend;
+  private final int port;
+  private final CountDownLatch shutdownSignal = new CountDownLatch(1);
+
+  CompileDaemon(final NestmlFrontend frontend, final int port) {
+    this.frontend = frontend;
+    this.port = port;
+  }
+
+  /**
+   * Checks the environment, warms up the JVM and processes requests until the daemon is shut down.
+   */
+  void start() throws IOException {
+    final Path warmUpFolder = Files.createTempDirectory("nestml_daemon");
+    try {
+      final CliConfiguration warmUpConfiguration = new CliConfiguration.Builder()
+          .withTargetPath(warmUpFolder.toString())
+          .build();
+      if (!NestmlFrontend.checkEnvironment(warmUpConfiguration)) {
+        reporter.reportProgress("The execution environment is not installed properly. The daemon is not started.");
+        return;
+      }
+
+      warmUp(warmUpFolder);
+    }
+    finally {
+      FilesHelper.deleteFilesInFolder(warmUpFolder);
+    }
+
+    final HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+    // requests are processed one after another, since predefined types and functions are shared by all requests
+    final ExecutorService requestProcessor = Executors.newSingleThreadExecutor();
+    server.setExecutor(requestProcessor);
+    server.createContext("/compile", this::handleCompile);
+    server.createContext("/shutdown", this::handleShutdown);
+    server.start();
+    reporter.reportProgress("The compile daemon listens on http://localhost:" + port + "/compile");
+
+    try {
+      shutdownSignal.await();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    finally {
+      server.stop(0);
+      requestProcessor.shutdown();
+      reporter.reportProgress("The compile daemon is stopped.");
+    }
+
+  }
+
+  /**
+   * Processes a small model once in order to load and initialize the parser, symbol table, context conditions and
+   * templates before the first request.
+   */
+  private void warmUp(final Path warmUpFolder) throws IOException {
+    final Path modelFolder = Paths.get(warmUpFolder.toString(), "models");
+    FilesHelper.createFolders(modelFolder);
+    Files.write(Paths.get(modelFolder.toString(), WARM_UP_MODEL), WARM_UP_MODEL_TEXT.getBytes(Charsets.UTF_8));
+
+    reporter.reportProgress("Warm up the compile daemon...");
+    final Path targetFolder = Paths.get(warmUpFolder.toString(), "build");
+    frontend.compile(new String[] {modelFolder.toString(), "--target", targetFolder.toString()});
+  }
+
+  private void handleCompile(final HttpExchange exchange) throws IOException {
+    if (!exchange.getRequestMethod().equals("POST")) {
+      respond(exchange, 405, "Use POST with a JSON array of command line arguments.");
+      return;
+    }
+
+    try {
+      final String[] args = new ObjectMapper().readValue(
+          ByteStreams.toByteArray(exchange.getRequestBody()),
+          String[].class);
+      final Optional<String> report = frontend.compile(args);
+      if (report.isPresent()) {
+        respond(exchange, 200, report.get());
+      }
+      else {
+        respond(exchange, 400, "Invalid command line arguments.");
+      }
+
+    }
+    catch (IOException | RuntimeException e) {
+      respond(exchange, 400, "Cannot process the request: " + e.getMessage());
+    }
+
+  }
+
+  private void handleShutdown(final HttpExchange exchange) throws IOException {
+    respond(exchange, 200, "The compile daemon is stopped.");
+    shutdownSignal.countDown();
+  }
+
+  private void respond(final HttpExchange exchange, final int status, final String body) throws IOException {
+    final byte[] content = body.getBytes(Charsets.UTF_8);
+    exchange.sendResponseHeaders(status, content.length);
+    try (OutputStream responseBody = exchange.getResponseBody()) {
+      responseBody.write(content);
+    }
+
+  }
+
+}
@@ -8,9 +8,13 @@ package org.nest.frontend;
 import com.google.common.base.Joiner;
 import de.se_rwth.commons.logging.Log;
 import org.apache.commons.cli.*;
+import org.nest.codegeneration.IntegratorConfiguration;
 import org.nest.codegeneration.NestCodeGenerator;
+import org.nest.codegeneration.ParameterSet;
+import org.nest.codegeneration.Precision;
 import org.nest.nestml._symboltable.NESTMLScopeCreator;
 import org.nest.reporting.Reporter;
+import org.nest.reporting.TaskLocalLog;
 import org.nest.utils.FilesHelper;
 
 import java.io.*;
@@ -46,6 +50,17 @@ public class NestmlFrontend {
   private static final String DRY_RUN_OPTION = "dry-run";
   private static final String JSON_OPTION = "json_log";
   private static final String MODULE_OPTION = "module_name";
+  private static final String JOBS_OPTION = "jobs";
+  private static final String SYMPY_CACHE_OPTION = "sympy_cache";
+  private static final String INCREMENTAL_OPTION = "incremental";
+  private static final String DAEMON_OPTION = "daemon";
+  private static final String GSL_STEPPER_OPTION = "gsl_stepper";
+  private static final String POPULATION_KERNEL_OPTION = "population_kernel";
+  private static final String PRECISION_OPTION = "precision";
+  private static final String FIXED_PARAMETERS_OPTION = "fixed_parameters";
+  private static final String QUIESCENCE_OPTION = "quiescence";
+  private static final String REDUCE_POWERS_OPTION = "reduce_powers";
+  private static final String BENCHMARK_OPTION = "benchmark";
 
 
 
@@ -101,6 +116,121 @@ public class NestmlFrontend {
         .numberOfArgs(1)
         .desc(MODULE_DESCRIPTION)
         .build());
+
+    // the short name 'j' is already taken by the json_log option
+    final String JOBS_DESCRIPTION = "Defines the number of worker threads which parse, check and generate code " +
+                                    "for models in parallel. E.g. --" + JOBS_OPTION + " 8. Default: 1";
+    options.addOption(Option.builder()
+        .longOpt(JOBS_OPTION)
+        .hasArgs()
+        .numberOfArgs(1)
+        .desc(JOBS_DESCRIPTION)
+        .build());
+
+    final String SYMPY_CACHE_DESCRIPTION = "Defines the folder where SymPy results are cached between runs. Models " +
+                                           "with unchanged equations are not evaluated by SymPy again. E.g. --" +
+                                           SYMPY_CACHE_OPTION + " ~/.nestml_cache";
+    options.addOption(Option.builder(SYMPY_CACHE_OPTION.substring(0, 1))
+        .longOpt(SYMPY_CACHE_OPTION)
+        .hasArgs()
+        .numberOfArgs(1)
+        .desc(SYMPY_CACHE_DESCRIPTION)
+        .build());
+
+    final String INCREMENTAL_DESCRIPTION = "Regenerates only models which were changed since the last run into the " +
+                                           "same target folder. Artifacts of unchanged models are not touched.";
+    options.addOption(Option.builder(INCREMENTAL_OPTION.substring(0, 1))
+        .longOpt(INCREMENTAL_OPTION)
+        .desc(INCREMENTAL_DESCRIPTION)
+        .build());
+
+    // the short name 'd' is already taken by the dry-run option
+    final String DAEMON_DESCRIPTION = "Starts a long-running compile daemon on the given local port. It accepts " +
+                                      "POST requests on /compile with a JSON array of command line arguments and " +
+                                      "returns the JSON report. E.g. --" + DAEMON_OPTION + " 7070";
+    options.addOption(Option.builder()
+        .longOpt(DAEMON_OPTION)
+        .hasArgs()
+        .numberOfArgs(1)
+        .desc(DAEMON_DESCRIPTION)
+        .build());
+
+    final String GSL_STEPPER_DESCRIPTION = "Defines the integrator for neurons which are integrated numerically: " +
+                                           "stepper[:absolute_tolerance[:relative_tolerance]]. " +
+                                           "Implicit steppers, e.g. rk2imp, rk4imp or bsimp, suit stiff models. " +
+                                           "The fixed-step methods fixed_rk4 and fixed_rk45 are inlined without " +
+                                           "GSL step size control and suit non-stiff models. " +
+                                           "The integrator is set for all neurons or per neuron. E.g. --" +
+                                           GSL_STEPPER_OPTION + " rk4imp:1e-6,hh_psc_alpha=bsimp. Default: " +
+                                           IntegratorConfiguration.DEFAULT_STEPPER + ":" +
+                                           IntegratorConfiguration.DEFAULT_ABSOLUTE_TOLERANCE + ":" +
+                                           IntegratorConfiguration.DEFAULT_RELATIVE_TOLERANCE;
+    options.addOption(Option.builder()
+        .longOpt(GSL_STEPPER_OPTION)
+        .hasArgs()
+        .numberOfArgs(1)
+        .desc(GSL_STEPPER_DESCRIPTION)
+        .build());
+
+    final String POPULATION_KERNEL_DESCRIPTION = "Generates additionally a population kernel <neuron>_population.h " +
+                                                 "which stores the state of many neurons as arrays and updates them " +
+                                                 "in one vectorisable loop. It is generated for neurons which are " +
+                                                 "solved exactly.";
+    options.addOption(Option.builder()
+        .longOpt(POPULATION_KERNEL_OPTION)
+        .desc(POPULATION_KERNEL_DESCRIPTION)
+        .build());
+
+    final String PRECISION_DESCRIPTION = "Defines the floating point precision of the generated module: double or " +
+                                         "mixed. With mixed, state variables and internals are stored as float, if " +
+                                         "their values are representable. Parameters, propagators, GSL state " +
+                                         "vectors and all computations stay double. E.g. --" + PRECISION_OPTION +
+                                         " mixed. Default: " + Precision.DOUBLE;
+    options.addOption(Option.builder()
+        .longOpt(PRECISION_OPTION)
+        .hasArgs()
+        .numberOfArgs(1)
+        .desc(PRECISION_DESCRIPTION)
+        .build());
+
+    final String FIXED_PARAMETERS_DESCRIPTION = "Defines a JSON file with parameter values which are fixed at " +
+                                                "generation time, e.g. {\"resolution\": 0.1, \"neurons\": " +
+                                                "{\"iaf_neuron\": {\"tau_m\": 10.0}}}. Fixed parameters and " +
+                                                "internals which depend only on them are generated as constants " +
+                                                "and cannot be changed with SetStatus.";
+    options.addOption(Option.builder()
+        .longOpt(FIXED_PARAMETERS_OPTION)
+        .hasArgs()
+        .numberOfArgs(1)
+        .desc(FIXED_PARAMETERS_DESCRIPTION)
+        .build());
+
+    final String QUIESCENCE_DESCRIPTION = "Enables the detection of resting neurons. A neuron skips its update " +
+                                          "steps while it receives no input and the previous step neither " +
+                                          "changed its state exactly nor emitted a spike. Then, the state is a " +
+                                          "fixed point, so that the results are the same as without the option.";
+    options.addOption(Option.builder()
+        .longOpt(QUIESCENCE_OPTION)
+        .desc(QUIESCENCE_DESCRIPTION)
+        .build());
+
+    final String REDUCE_POWERS_DESCRIPTION = "Prints powers with constant exponents without pow calls, e.g. " +
+                                             "m**3 as a multiplication and x**0.5 as std::sqrt(x). The results " +
+                                             "can differ from pow in the last bit, for cube roots of negative " +
+                                             "bases and for the square root of -inf.";
+    options.addOption(Option.builder()
+        .longOpt(REDUCE_POWERS_OPTION)
+        .desc(REDUCE_POWERS_DESCRIPTION)
+        .build());
+
+    final String BENCHMARK_DESCRIPTION = "Generates additionally a standalone benchmark for every neuron into the " +
+                                         "folder benchmark. It steps many neurons with synthetic spike input and " +
+                                         "reports the cost of the update in ns per neuron and step. It is built " +
+                                         "with CMake and requires no NEST installation.";
+    options.addOption(Option.builder()
+        .longOpt(BENCHMARK_OPTION)
+        .desc(BENCHMARK_DESCRIPTION)
+        .build());
   }
 
   public static void main(final String[] args) {
@@ -108,7 +238,18 @@ public class NestmlFrontend {
   }
 
   public void start(final String[] args) {
-    final Optional<CliConfiguration> cliConfiguration = createCLIConfiguration(args);
+    if (args.length == 0) {
+      printToolUsageHelp();
+      return;
+    }
+
+    final CommandLine cliParameters = parseCLIArguments(args);
+    if (cliParameters.hasOption(DAEMON_OPTION)) {
+      startDaemon(cliParameters);
+      return;
+    }
+
+    final Optional<CliConfiguration> cliConfiguration = createCLIConfiguration(cliParameters);
 
     if (cliConfiguration.isPresent()) {
       final String inputPathMsg = "The input modelpath: " + cliConfiguration.get().getInputPath().toAbsolutePath().toString();
@@ -129,14 +270,41 @@ public class NestmlFrontend {
 
   }
 
+  private void startDaemon(final CommandLine cliParameters) {
+    // models and options are passed with every request
+    if (cliParameters.getOptions().length > 1 || !cliParameters.getArgList().isEmpty()) {
+      formatter.printHelp("The daemon accepts no further arguments. Pass them with every compile request.", options);
+      return;
+    }
+
+    final int port;
+    try {
+      port = Integer.parseInt(cliParameters.getOptionValue(DAEMON_OPTION));
+    }
+    catch (NumberFormatException e) {
+      formatter.printHelp("The port of the daemon must be an integer.", options);
+      return;
+    }
+
+    try {
+      new CompileDaemon(this, port).start();
+    }
+    catch (IOException e) {
+      reporter.reportProgress("Cannot start the compile daemon: " + e.getMessage(), Reporter.Level.ERROR);
+    }
+
+  }
+
   public Optional<CliConfiguration> createCLIConfiguration(String[] args) {
     if (args.length == 0) {
       printToolUsageHelp();
       return Optional.empty();
     }
 
-    final CommandLine cliParameters = parseCLIArguments(args);
+    return createCLIConfiguration(parseCLIArguments(args));
+  }
 
+  private Optional<CliConfiguration> createCLIConfiguration(final CommandLine cliParameters) {
     if (cliParameters.hasOption(HELP_ARGUMENT)) {
       printToolUsageHelp();
     }
@@ -185,14 +353,79 @@ public class NestmlFrontend {
       jsonLogFile = "";
     }
 
-    return Optional.of(new CliConfiguration
-        .Builder()
+    int jobs = 1;
+    if (cliParameters.hasOption(JOBS_OPTION)) {
+      try {
+        jobs = Integer.parseInt(cliParameters.getOptionValue(JOBS_OPTION));
+      }
+      catch (NumberFormatException e) {
+        jobs = 0; // handled below
+      }
+
+      if (jobs < 1) {
+        formatter.printHelp("The number of jobs must be a positive integer.", options);
+        return Optional.empty();
+      }
+
+    }
+
+    IntegratorConfiguration integratorConfiguration = new IntegratorConfiguration();
+    if (cliParameters.hasOption(GSL_STEPPER_OPTION)) {
+      final Optional<IntegratorConfiguration> parsedConfiguration =
+          IntegratorConfiguration.fromString(cliParameters.getOptionValue(GSL_STEPPER_OPTION));
+      if (!parsedConfiguration.isPresent()) {
+        final String msg = "The stepper must be one of: " +
+                           Joiner.on(", ").join(IntegratorConfiguration.getSteppers()) +
+                           ". Tolerances must be positive numbers.";
+        formatter.printHelp(msg, options);
+        return Optional.empty();
+      }
+      integratorConfiguration = parsedConfiguration.get();
+    }
+
+    Precision precision = Precision.DOUBLE;
+    if (cliParameters.hasOption(PRECISION_OPTION)) {
+      final Optional<Precision> parsedPrecision = Precision.fromString(cliParameters.getOptionValue(PRECISION_OPTION));
+      if (!parsedPrecision.isPresent()) {
+        final String msg = "The precision must be one of: " + Joiner.on(", ").join(Precision.values());
+        formatter.printHelp(msg, options);
+        return Optional.empty();
+      }
+      precision = parsedPrecision.get();
+    }
+
+    ParameterSet parameterSet = new ParameterSet();
+    if (cliParameters.hasOption(FIXED_PARAMETERS_OPTION)) {
+      final Path parameterFile = Paths.get(cliParameters.getOptionValue(FIXED_PARAMETERS_OPTION));
+      final Optional<ParameterSet> parsedParameterSet = ParameterSet.load(parameterFile);
+      if (!parsedParameterSet.isPresent()) {
+        final String msg = "The file with fixed parameters cannot be read or is malformed: " + parameterFile;
+        formatter.printHelp(msg, options);
+        return Optional.empty();
+      }
+      parameterSet = parsedParameterSet.get();
+    }
+
+
+    final CliConfiguration.Builder builder = new CliConfiguration.Builder();
+    getOptionValue(cliParameters, SYMPY_CACHE_OPTION).ifPresent(builder::withSolverCachePath);
+
+    return Optional.of(builder
         .withCodegeneration(isCodegeneration)
         .withModelPath(modelPath)
         .withModuleName(moduleName)
         .withTargetPath(targetPath)
         .withTracing(isTracing)
         .withJsonLog(jsonLogFile)
+        .withJobs(jobs)
+        .withIncremental(cliParameters.hasOption(INCREMENTAL_OPTION))
+        .withIntegratorConfiguration(integratorConfiguration)
+        .withPopulationKernel(cliParameters.hasOption(POPULATION_KERNEL_OPTION))
+        .withPrecision(precision)
+        .withParameterSet(parameterSet)
+        .withQuiescence(cliParameters.hasOption(QUIESCENCE_OPTION))
+        .withBenchmark(cliParameters.hasOption(BENCHMARK_OPTION))
+        .withReducedPowers(cliParameters.hasOption(REDUCE_POWERS_OPTION))
         .build());
   }
 
@@ -232,19 +465,10 @@ public class NestmlFrontend {
 
 
   public static boolean checkEnvironment(final CliConfiguration cliConfiguration) {
-    try {
-      FilesHelper.createFolders(cliConfiguration.getTargetPath());
-    }
-
-    catch (final Exception e) {
-      final String msg = "Cannot create output folder. If you are running from docker, check if the folder provided " +
-                         "exists and/or the corresponding user. Execution will be terminated.";
-      reporter.reportProgress(msg);
+    if (!prepareTargetFolder(cliConfiguration)) {
       return false;
     }
 
-    cleanUpTmpFiles(cliConfiguration);
-
     boolean isError = false;
     if (!evaluateCheckScript(
         PYTHON_CHECK_SCRIPT_SOURCE,
@@ -277,6 +501,22 @@ public class NestmlFrontend {
     return !isError;
   }
 
+  private static boolean prepareTargetFolder(final CliConfiguration cliConfiguration) {
+    try {
+      FilesHelper.createFolders(cliConfiguration.getTargetPath());
+    }
+
+    catch (final Exception e) {
+      final String msg = "Cannot create output folder. If you are running from docker, check if the folder provided " +
+                         "exists and/or the corresponding user. Execution will be terminated.";
+      reporter.reportProgress(msg);
+      return false;
+    }
+
+    cleanUpTmpFiles(cliConfiguration);
+    return true;
+  }
+
   private static void cleanUpTmpFiles(final CliConfiguration cliConfiguration) {
     if (!Files.exists(cliConfiguration.getTargetPath())) {
       FilesHelper.createFolders(cliConfiguration.getTargetPath());
@@ -367,11 +607,40 @@ public class NestmlFrontend {
     return in.lines().collect(Collectors.toList());
   }
 
-  private void executeConfiguration(final CliConfiguration configuration) {
+  private Reporter.Context executeConfiguration(final CliConfiguration configuration) {
     final CliConfigurationExecutor executor = new CliConfigurationExecutor();
-    final NestCodeGenerator nestCodeGenerator = new NestCodeGenerator(configuration.isTracing());
+    final NestCodeGenerator nestCodeGenerator = new NestCodeGenerator.Builder()
+        .withTracing(configuration.isTracing())
+        .withSolverCacheFolder(configuration.getSolverCachePath())
+        .withIntegratorConfiguration(configuration.getIntegratorConfiguration())
+        .withPopulationKernel(configuration.isPopulationKernel())
+        .withPrecision(configuration.getPrecision())
+        .withParameterSet(configuration.getParameterSet())
+        .withQuiescence(configuration.isQuiescence())
+        .withBenchmark(configuration.isBenchmark())
+        .withReducedPowers(configuration.isReducePowers())
+        .build();
+
+    return executor.execute(nestCodeGenerator, configuration);
+  }
+
+  /**
+   * Executes one request of the compile daemon. The python environment is checked once at the daemon start.
+   * @param args The same arguments as for the command line tool
+   * @return The JSON report of the request or an empty value, if the arguments are invalid.
+   */
+  Optional<String> compile(final String[] args) {
+    // every request starts without findings. Otherwise, errors of previous requests are attributed to this one.
+    TaskLocalLog.install();
+    return TaskLocalLog.collectFindings(() -> {
+      final Optional<CliConfiguration> cliConfiguration = createCLIConfiguration(args);
+      if (!cliConfiguration.isPresent() || !prepareTargetFolder(cliConfiguration.get())) {
+        return Optional.<String>empty();
+      }
 
-    executor.execute(nestCodeGenerator, configuration);
+      final Reporter.Context context = executeConfiguration(cliConfiguration.get());
+      return Optional.of(reporter.runInContext(context, reporter::printFindingsAsJsonString));
+    }).getResult();
   }
 
 }
@@ -60,7 +60,7 @@ public class ASTExpr extends ASTExprTOP {
     if(type.get().isValue()){
       TypeSymbol typeSymbol = type.get().getValue();
       if(typeSymbol.getType() == TypeSymbol.Type.UNIT){
-        UnitRepresentation unit = UnitRepresentation.getBuilder().serialization(typeSymbol.getName()).build();
+        UnitRepresentation unit = UnitRepresentation.fromSerialization(typeSymbol.getName());
         if(unit.isZero()){
          type =Optional.of(Either.value(PredefinedTypes.getRealType()));
         }
@@ -29,7 +29,7 @@ public class BufferNotAssignable implements NESTMLASTAssignmentCoCo {
     final Scope enclosingScope = astAssignment.getEnclosingScope().get();
     final String varName = astAssignment.getLhsVarialbe().toString();
 
-    final Optional<VariableSymbol> var = enclosingScope.resolve(varName, VariableSymbol.KIND);
+    final Optional<VariableSymbol> var = VariableSymbol.resolveIfExists(varName, enclosingScope);
 
     if (!var.isPresent()) {
       Log.trace("Cannot resolve the variable: " + varName + " . Thereofore, the coco is skipped.", BufferNotAssignable.class.getSimpleName());
@@ -42,7 +42,7 @@ public class EquationsOnlyForStateVariables implements NESTMLASTEquationCoCo {
     final Scope scope = astEq.getEnclosingScope().get();
 
     if (astEq.getLhs().getDifferentialOrder().size() > 0) {
-      final Optional<VariableSymbol> variableSymbol = scope.resolve(astEq.getLhs().getSimpleName(), VariableSymbol.KIND);
+      final Optional<VariableSymbol> variableSymbol = VariableSymbol.resolveIfExists(astEq.getLhs().getSimpleName(), scope);
       if (variableSymbol.isPresent()) {
         if (!variableSymbol.get().isState()) {
           final String msg = NestmlErrorStrings.getErrorMsgAssignToNonState(this,variableSymbol.get().getName());
@@ -49,7 +49,7 @@ public class GetterSetterFunctionNames implements NESTMLASTFunctionCoCo {
       if (funName.startsWith("get_") || funName.startsWith("set_")) {
         String varName = funName.substring(4);
 
-        final Optional<VariableSymbol> var = enclosingScope.get().resolve(varName, VariableSymbol.KIND);
+        final Optional<VariableSymbol> var = VariableSymbol.resolveIfExists(varName, enclosingScope.get());
 
         if (var.isPresent()) {
           if (funName.startsWith("set_")) {
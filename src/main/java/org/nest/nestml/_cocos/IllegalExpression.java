@@ -108,9 +108,9 @@ public class IllegalExpression implements
       ASTAssignment node){
     //collect lhs information
     final String variableName = node.getLhsVarialbe().getName() + Strings.repeat("'", node.getLhsVarialbe().getDifferentialOrder().size());
-    final Optional<VariableSymbol> lhsVariable = node.getEnclosingScope().get().resolve(
+    final Optional<VariableSymbol> lhsVariable = VariableSymbol.resolveIfExists(
         variableName,
-        VariableSymbol.KIND);
+        node.getEnclosingScope().get());
     final TypeSymbol variableType = lhsVariable.get().getType();
     //collect rhs information
 
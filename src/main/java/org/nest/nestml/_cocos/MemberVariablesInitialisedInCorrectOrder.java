@@ -36,9 +36,9 @@ public class MemberVariablesInitialisedInCorrectOrder implements NESTMLASTDeclar
       // has at least one declaration. it is ensured by the grammar
       final String lhsVariableName = declaration.getVars().get(0).toString();
 
-      final Optional<VariableSymbol> lhsVariable = enclosingScope.get().resolve(
+      final Optional<VariableSymbol> lhsVariable = VariableSymbol.resolveIfExists(
           lhsVariableName,
-          VariableSymbol.KIND);
+          enclosingScope.get());
 
       checkState(lhsVariable.isPresent(), "Variable '" + lhsVariableName + "' is not defined");
 
@@ -65,9 +65,9 @@ public class MemberVariablesInitialisedInCorrectOrder implements NESTMLASTDeclar
       final BiPredicate<Integer, Integer> predicate) {
     for (final ASTVariable astVariable : variablesNames) {
       final String rhsVariableName = astVariable.toString();
-      final Optional<VariableSymbol> rhsSymbol = enclosingScope.resolve(
+      final Optional<VariableSymbol> rhsSymbol = VariableSymbol.resolveIfExists(
           rhsVariableName,
-          VariableSymbol.KIND);
+          enclosingScope);
 
       if (!rhsSymbol.isPresent()) { // actually redudant and it is should be checked through another CoCo
         final String msg = NestmlErrorStrings.getErrorMsgVariableNotDefined(this,
@@ -11,7 +11,10 @@ import de.monticore.symboltable.ResolvingConfiguration;
 import de.monticore.symboltable.Scope;
 import de.se_rwth.commons.logging.Log;
 import org.nest.nestml._ast.ASTNESTMLCompilationUnit;
+import org.nest.nestml._symboltable.predefined.PredefinedFunctions;
+import org.nest.nestml._symboltable.predefined.PredefinedVariables;
 import org.nest.nestml._visitor.ODEPostProcessingVisitor;
+import org.nest.utils.AstIndex;
 import org.nest.utils.LogHelper;
 
 import java.nio.file.Path;
@@ -20,10 +23,24 @@ import java.nio.file.Paths;
 /**
  * Creates a artifact scope, build the symbol table and adds predifined types.
  *
+ * The language and the resolving configuration are stateless. They are created once and shared by all scope
+ * creators, e.g. by the ones which are created for every cloned neuron or by concurrent workers. Predefined symbols
+ * are resolved from the shared registries in the predefined package.
+ *
  * @author plotnikov
  */
 public class NESTMLScopeCreator extends ScopeCreatorBase {
   private final static String LOG_NAME = "NESTML_" + NESTMLScopeCreator.class.getName();
+  private final static NESTMLLanguage NESTML_LANGUAGE = new NESTMLLanguage();
+  private final static ResolvingConfiguration RESOLVING_CONFIGURATION = new ResolvingConfiguration();
+
+  static {
+    RESOLVING_CONFIGURATION.addDefaultFilters(NESTML_LANGUAGE.getResolvers());
+    // loads the predefined symbols before the first symbol table is built
+    PredefinedVariables.gerVariables();
+    PredefinedFunctions.getMethodSymbols();
+  }
+
   private GlobalScope globalScope;
   private final ModelPath modelPath;
   private final ResolvingConfiguration resolverConfiguration;
@@ -36,11 +53,8 @@ public class NESTMLScopeCreator extends ScopeCreatorBase {
   public NESTMLScopeCreator() {
     // since NestML works only with single file we ignore the modelpath feature and stub it with the working path
     modelPath = new ModelPath(Paths.get("./"));
-
-    nestmlLanguage = new NESTMLLanguage();
-
-    resolverConfiguration = new ResolvingConfiguration();
-    resolverConfiguration.addDefaultFilters(nestmlLanguage.getResolvers());
+    nestmlLanguage = NESTML_LANGUAGE;
+    resolverConfiguration = RESOLVING_CONFIGURATION;
   }
 
   public Scope runSymbolTableCreator(final ASTNESTMLCompilationUnit compilationUnit) {
@@ -61,6 +75,8 @@ public class NESTMLScopeCreator extends ScopeCreatorBase {
       Log.error(LOG_NAME + ": The symboltable is built incorrectly, skip the step of processing ODEs.");
     }
 
+    // the symbol table is built after the parsing and after every transformation step
+    compilationUnit.getNeurons().forEach(AstIndex::update);
     return result;
   }
 
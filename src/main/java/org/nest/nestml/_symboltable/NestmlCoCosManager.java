@@ -7,10 +7,13 @@ package org.nest.nestml._symboltable;
 
 import de.se_rwth.commons.logging.Finding;
 import de.se_rwth.commons.logging.Log;
+import org.nest.nestml._ast.ASTNESTMLCompilationUnit;
 import org.nest.nestml._ast.ASTNESTMLNode;
 import org.nest.nestml._ast.ASTNeuron;
 import org.nest.nestml._cocos.*;
 import org.nest.nestml._cocos.UnitDeclarationOnlyOnesAllowed;
+import org.nest.nestml._symboltable.symbols.VariableResolutionMemo;
+import org.nest.reporting.Reporter;
 import org.nest.utils.LogHelper;
 
 import java.util.List;
@@ -21,6 +24,7 @@ import java.util.List;
  * @author plotnikov
  */
 public class NestmlCoCosManager {
+  private final Reporter reporter = Reporter.get();
 
   private final NESTMLCoCoChecker variableExistenceChecker = new NESTMLCoCoChecker();
   private final NESTMLCoCoChecker methodExistenceChecker = new NESTMLCoCoChecker();
@@ -47,7 +51,6 @@ public class NestmlCoCosManager {
     variableExistenceChecker.addCoCo((NESTMLASTCompound_StmtCoCo) usageOfAmbiguousName);
     variableExistenceChecker.addCoCo((NESTMLASTDeclarationCoCo) usageOfAmbiguousName);
     variableExistenceChecker.addCoCo((NESTMLASTOdeDeclarationCoCo) usageOfAmbiguousName);
-    variableExistenceChecker.addCoCo((NESTMLASTDeclarationCoCo) usageOfAmbiguousName);
 
   }
 
@@ -65,21 +68,16 @@ public class NestmlCoCosManager {
     multipleDefinitionChecker.addCoCo(new BlockVariableDefinedMultipleTimes());
   }
 
+  /**
+   * The checks of multiple definitions are not repeated, since this phase runs only if they passed.
+   */
   private void registerCocos() {
-
-
     final VariableNotDefinedBeforeUse variableNotDefinedBeforeUse = new VariableNotDefinedBeforeUse();
 
     nestmlCoCoChecker.addCoCo((NESTMLASTAssignmentCoCo) variableNotDefinedBeforeUse);
     nestmlCoCoChecker.addCoCo((NESTMLASTDeclarationCoCo) variableNotDefinedBeforeUse);
     nestmlCoCoChecker.addCoCo((NESTMLASTFOR_StmtCoCo) variableNotDefinedBeforeUse);
 
-    final BlockVariableDefinedMultipleTimes variableDefinedMultipleTimes = new BlockVariableDefinedMultipleTimes();
-    nestmlCoCoChecker.addCoCo(variableDefinedMultipleTimes);
-
-    final VariableHasTypeName variableHasTypeName = new VariableHasTypeName();
-    nestmlCoCoChecker.addCoCo(variableHasTypeName);
-
     final IllegalExpression illegalExpression = new IllegalExpression();
     nestmlCoCoChecker.addCoCo((NESTMLASTAssignmentCoCo) illegalExpression);
     nestmlCoCoChecker.addCoCo((NESTMLASTDeclarationCoCo) illegalExpression);
@@ -120,9 +118,6 @@ public class NestmlCoCosManager {
             = new MemberVariablesInitialisedInCorrectOrder();
     nestmlCoCoChecker.addCoCo(memberVariablesInitialisedInCorrectOrder);
 
-    final FunctionDefinedMultipleTimes functionDefinedMultipleTimes = new FunctionDefinedMultipleTimes();
-    nestmlCoCoChecker.addCoCo(functionDefinedMultipleTimes);
-
     final MultipleInhExcModifiers multipleInhExcModifiers = new MultipleInhExcModifiers();
     nestmlCoCoChecker.addCoCo(multipleInhExcModifiers);
 
@@ -188,22 +183,64 @@ public class NestmlCoCosManager {
     return LogHelper.getModelErrors(Log.getFindings());
   }
 
+  /**
+   * Checks the model in phases. Every phase is a single traversal which dispatches every node to all context
+   * conditions of the phase. A phase runs only if the previous phases found no errors, since its context conditions
+   * rely on defined and unambiguous names. Resolved variables are shared by all phases.
+   */
   public List<Finding> analyzeModel(final ASTNESTMLNode root) {
-    variableExistenceChecker.checkAll(root);
-    final boolean allVariablesDefined = Log.getFindings().stream().noneMatch(Finding::isError);
-    if (!allVariablesDefined) {
+    final String artifactName = getArtifactName(root);
+    return VariableResolutionMemo.run(() -> {
+      check(variableExistenceChecker, root, artifactName, "coco_variable_existence");
+      final boolean allVariablesDefined = Log.getFindings().stream().noneMatch(Finding::isError);
+      if (!allVariablesDefined) {
+        return LogHelper.getModelErrors(Log.getFindings());
+      }
+
+      check(multipleDefinitionChecker, root, artifactName, "coco_multiple_definitions");
+      final boolean allVariablesDefinedAtMostOnce = Log.getFindings().stream().noneMatch(Finding::isError);
+      if (!allVariablesDefinedAtMostOnce) {
+        return LogHelper.getModelErrors(Log.getFindings());
+      }
+      else {
+        check(nestmlCoCoChecker, root, artifactName, "coco_nestml");
+      }
+
       return LogHelper.getModelErrors(Log.getFindings());
+    });
+
+  }
+
+  /**
+   * Runs the {@code checker} and reports its processing time. The time is measured for the whole phase, i.e. for all
+   * context conditions of the checker together.
+   */
+  private void check(
+      final NESTMLCoCoChecker checker,
+      final ASTNESTMLNode root,
+      final String artifactName,
+      final String phase) {
+    final Reporter.Timer timer = reporter.startTimer(artifactName, phase);
+    try {
+      checker.checkAll(root);
+    }
+    finally {
+      timer.stop();
     }
 
-    multipleDefinitionChecker.checkAll(root);
-    final boolean allVariablesDefinedAtMostOnce = Log.getFindings().stream().noneMatch(Finding::isError);
-    if (!allVariablesDefinedAtMostOnce) {
-      return LogHelper.getModelErrors(Log.getFindings());
+  }
+
+  private String getArtifactName(final ASTNESTMLNode root) {
+    if (root instanceof ASTNESTMLCompilationUnit) {
+      return ((ASTNESTMLCompilationUnit) root).getArtifactName();
+    }
+    else if (root instanceof ASTNeuron) {
+      return ((ASTNeuron) root).getName();
     }
     else {
-      nestmlCoCoChecker.checkAll(root);
+      return root.getClass().getSimpleName();
     }
 
-    return LogHelper.getModelErrors(Log.getFindings());
   }
+
 }
@@ -26,15 +26,15 @@ public class PredefinedFunctions {
   private static final String TIME_RESOLUTION = "resolution";
   private static final String TIME_STEPS = "steps";
   public static final String EMIT_SPIKE = "emit_spike";
-  private static final String PRINT = "print";
-  private static final String PRINTLN = "println";
+  public static final String PRINT = "print";
+  public static final String PRINTLN = "println";
   public static final String POW = "pow";
   public static final String EXP = "exp";
   public static final String LOG = "log";
-  private static final String LOGGER_INFO = "info";
-  private static final String LOGGER_WARNING = "warning";
-  private static final String RANDOM = "random";
-  private static final String RANDOM_INT = "randomInt";
+  public static final String LOGGER_INFO = "info";
+  public static final String LOGGER_WARNING = "warning";
+  public static final String RANDOM = "random";
+  public static final String RANDOM_INT = "randomInt";
   private static final String EXPM1 = "expm1";
   public static final String DELTA = "delta";
   public static final String MAX = "max";
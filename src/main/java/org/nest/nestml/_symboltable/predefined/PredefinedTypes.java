@@ -18,15 +18,22 @@ import java.util.Optional;
 /**
  * Creates implicit types like boolean and nestml specific
  *
+ * The types are shared by all compilations and can be read concurrently. Primitive types and types of SI units are
+ * preloaded. Types of derived units, e.g. mV/ms, are registered lock-free on their first use.
+ *
  * @author plotnikov
  */
 public class PredefinedTypes {
 
-  private final static Map<String, TypeSymbol> implicitTypes = Maps.newHashMap();
+  private final static Map<String, TypeSymbol> implicitTypes = Maps.newConcurrentMap();
+  // Key: packed key of an interned unit, value: its type. Avoids the serialization in the type computation. Types
+  // are computed concurrently, if models are processed with several jobs.
+  private final static Map<Long, TypeSymbol> unitTypes = Maps.newConcurrentMap();
 
   static {
     registerPrimitiveTypes();
     registerBufferType();
+    registerSIUnitTypes();
   }
 
   /**
@@ -77,11 +84,19 @@ public class PredefinedTypes {
     registerType("void", TypeSymbol.Type.PRIMITIVE);
   }
 
+  /**
+   * @return The registered type. If the type is registered concurrently, the first registered instance is returned.
+   */
   private static TypeSymbol registerType(String modelName, TypeSymbol.Type type) {
     TypeSymbol typeSymbol = new TypeSymbol(modelName, type);
     typeSymbol.setPackageName("");
-    implicitTypes.put(modelName, typeSymbol);
-    return typeSymbol;
+    final TypeSymbol registeredType = implicitTypes.putIfAbsent(modelName, typeSymbol);
+    return registeredType != null ? registeredType : typeSymbol;
+  }
+
+  private static void registerSIUnitTypes() {
+    SIData.getCorrectSIUnits().forEach(unitName -> UnitRepresentation.lookupName(unitName)
+        .ifPresent(PredefinedTypes::getTypeOfUnit));
   }
 
   private static void registerBufferType() {
@@ -116,27 +131,46 @@ public class PredefinedTypes {
     if (implicitTypes.containsKey(typeName)) {
       return Optional.of(implicitTypes.get(typeName));
     }
-    else if (SIData.getCorrectSIUnits().contains(typeName)) {
-      Optional<UnitRepresentation> unitRepresentation = UnitRepresentation.lookupName(typeName);
-      if (unitRepresentation.isPresent()) {
-        registerType(unitRepresentation.get().serialize(), TypeSymbol.Type.UNIT);
-        return Optional.of(implicitTypes.get(unitRepresentation.get().serialize()));
-      }
-      return Optional.empty();
+    else if (SIData.isCorrectSIUnit(typeName)) {
+      return UnitRepresentation.lookupName(typeName).map(PredefinedTypes::getTypeOfUnit);
     }
     else {
       //TODO: Sometimes this method gets a Variable name as parameter, which I dont see a reason for. Gotta look into it.
       try {
-        UnitRepresentation unitRepresentation = UnitRepresentation.getBuilder().serialization(typeName).build();
-        registerType(unitRepresentation.serialize(), TypeSymbol.Type.UNIT);
+        UnitRepresentation unitRepresentation = UnitRepresentation.fromSerialization(typeName);
+        getTypeOfUnit(unitRepresentation);
       }
       catch (IllegalStateException e){
         return Optional.empty();
       }
-      return Optional.of(implicitTypes.get(typeName));
+      return Optional.ofNullable(implicitTypes.get(typeName));
     }
 
   }
 
+  /**
+   * @return The type of the unit. The name of the type is the serialization of the unit. The type is registered on
+   * the fly.
+   */
+  public static TypeSymbol getTypeOfUnit(final UnitRepresentation unit) {
+    if (!unit.isInterned()) {
+      return getOrRegisterUnitType(unit.serialize());
+    }
+
+    final TypeSymbol cached = unitTypes.get(unit.getKey());
+    if (cached != null) {
+      return cached;
+    }
+
+    final TypeSymbol unitType = getOrRegisterUnitType(unit.serialize());
+    final TypeSymbol registeredType = unitTypes.putIfAbsent(unit.getKey(), unitType);
+    return registeredType != null ? registeredType : unitType;
+  }
+
+  private static TypeSymbol getOrRegisterUnitType(final String serialization) {
+    final TypeSymbol registeredType = implicitTypes.get(serialization);
+    return registeredType != null ? registeredType : registerType(serialization, TypeSymbol.Type.UNIT);
+  }
+
 
 }
@@ -53,7 +53,7 @@ public class TypeSymbol extends CommonSymbol {
 
   public String prettyPrint() {
     if (getType().equals(TypeSymbol.Type.UNIT)) {
-      UnitRepresentation unitRepresentation =UnitRepresentation.getBuilder().serialization(getName()).build();
+      UnitRepresentation unitRepresentation =UnitRepresentation.fromSerialization(getName());
       return unitRepresentation.prettyPrint();
     }
     else {
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c)  RWTH Aachen. All rights reserved.
+ *
+ * http://www.se-rwth.de/
+ */
+package org.nest.nestml._symboltable.symbols;
+
+import com.google.common.collect.Maps;
+import de.monticore.symboltable.Scope;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Memorizes resolved variables during a run in which the symbol table is not changed, e.g. during the context
+ * condition checks. The memo is local to the thread which executes the run. Outside of a run, variables are resolved
+ * directly through the scope.
+ */
+public final class VariableResolutionMemo {
+  // Key: scope, value: resolved variables by their names
+  private static final ThreadLocal<Map<Scope, Map<String, Optional<VariableSymbol>>>> memo = new ThreadLocal<>();
+
+  private VariableResolutionMemo() {
+  }
+
+  /**
+   * Executes the {@code task} with a memo. Nested runs share the memo of the outermost run.
+   */
+  public static <T> T run(final Supplier<T> task) {
+    if (memo.get() != null) {
+      return task.get();
+    }
+
+    memo.set(Maps.newIdentityHashMap());
+    try {
+      return task.get();
+    }
+    finally {
+      memo.remove();
+    }
+
+  }
+
+  static Optional<VariableSymbol> resolve(final String variableName, final Scope scope) {
+    final Map<Scope, Map<String, Optional<VariableSymbol>>> resolvedVariables = memo.get();
+    if (resolvedVariables == null) {
+      return scope.resolve(variableName, VariableSymbol.KIND);
+    }
+
+    // ambiguous names are not stored, since the resolution fails with an exception
+    return resolvedVariables
+        .computeIfAbsent(scope, key -> Maps.newHashMap())
+        .computeIfAbsent(variableName, name -> scope.resolve(name, VariableSymbol.KIND));
+  }
+
+}
@@ -255,13 +255,13 @@ public class VariableSymbol extends CommonSymbol {
 
 
   public static VariableSymbol resolve(final String variableName, final Scope scope) {
-    final Optional<VariableSymbol> variableSymbol = scope.resolve(variableName, VariableSymbol.KIND);
+    final Optional<VariableSymbol> variableSymbol = VariableResolutionMemo.resolve(variableName, scope);
     checkState(variableSymbol.isPresent(), "Cannot resolve the variable: " + variableName);
     return variableSymbol.get();
   }
 
   public static Optional<VariableSymbol> resolveIfExists(final String variableName, final Scope scope) {
-    return scope.resolve(variableName, VariableSymbol.KIND);
+    return VariableResolutionMemo.resolve(variableName, scope);
   }
 
   public boolean isConductanceBased() {
@@ -25,8 +25,8 @@ public class TypeChecker {
 
     //simplified check for Units set to ignore magnitude: (ignore if any is set)
     if(lhsType.getType().equals(UNIT) && rhsType.getType().equals(UNIT)){
-      UnitRepresentation lhsUnit = UnitRepresentation.getBuilder().serialization(lhsType.getName()).build();
-      UnitRepresentation rhsUnit = UnitRepresentation.getBuilder().serialization(rhsType.getName()).build();
+      UnitRepresentation lhsUnit = UnitRepresentation.fromSerialization(lhsType.getName());
+      UnitRepresentation rhsUnit = UnitRepresentation.fromSerialization(rhsType.getName());
       return lhsUnit.equals(rhsUnit);
     }
 
@@ -109,7 +109,7 @@ public class TypeChecker {
     if(isPrimitiveTypeName(typeName)){
       return typeName;
     }else{
-      return UnitRepresentation.getBuilder().serialization(typeName).build().prettyPrint();
+      return UnitRepresentation.fromSerialization(typeName).prettyPrint();
     }
   }
 
@@ -11,7 +11,9 @@ import com.google.common.collect.HashBiMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Provides static information about the SI system.
@@ -20,7 +22,6 @@ import java.util.List;
  */
 public class SIData {
 
-  private static SIData instance=null;
   private UnitRepresentation lumen = UnitRepresentation.getBuilder().cd(1).build();
   private UnitRepresentation siemens = UnitRepresentation.getBuilder().g(-1).m(-2).s(3).A(2).build();
   private UnitRepresentation farad = UnitRepresentation.getBuilder().g(-1).m(-2).s(4).A(2).build();
@@ -54,6 +55,7 @@ public class SIData {
   static private BiMap<String, Integer> prefixMagnitudes =HashBiMap.create();
 
   private static ArrayList<String> CorrectSIUnits= new ArrayList<>();
+  private static Set<String> CorrectSIUnitsSet = new HashSet<>();
   //ignore dimensionless units radian and steradian. Ignore degree Celsius as Kelvin exists.
 
   private static String[] SIUnitsRaw =
@@ -67,6 +69,9 @@ public class SIData {
   private static List<String> SIUnitsDerived = Arrays.asList(SIUnitsDerivedRaw);
   private static List<String> SIPrefixes = Arrays.asList(SIPrefixesRaw);
 
+  // created by the class initialization, which publishes the data safely to all threads
+  private static final SIData instance = new SIData();
+
   private void populateUnitsList(){
     for (String pre: SIPrefixes) {
       for (String unit: SIUnits) {
@@ -82,6 +87,7 @@ public class SIData {
     for (String unit: SIUnitsDerived){
       CorrectSIUnits.add(unit);
     }
+    CorrectSIUnitsSet.addAll(CorrectSIUnits);
 
   }
 
@@ -92,12 +98,17 @@ public class SIData {
    * <p>-SI base units (K,s,m,...) and compound units (N,Ohm,V,...)
    */
   public static List<String> getCorrectSIUnits() {
-    if(instance == null) {
-      instance = new SIData();
-    }
     return CorrectSIUnits;
   }
 
+  /**
+   *
+   * @return true iff. the name is contained in {@link #getCorrectSIUnits()}. The lookup takes constant time.
+   */
+  public static boolean isCorrectSIUnit(String unitName) {
+    return CorrectSIUnitsSet.contains(unitName);
+  }
+
   /**
    *
    * @return List of valid SI prefixes (k,m,mu,n,...)
@@ -111,9 +122,6 @@ public class SIData {
    * @return Mapping of (derived)SI unit names without prefixes to their internal representation.
    */
   static public HashMap<String,UnitRepresentation> getBaseRepresentations(){
-    if(instance == null) {
-      instance = new SIData();
-    }
     return baseRepresentations;
   }
 
@@ -123,9 +131,6 @@ public class SIData {
    * e.g. k=3,p=-12 etc
    */
   static public BiMap<String, Integer> getPrefixMagnitudes() {
-    if(instance == null) {
-      instance = new SIData();
-    }
     return prefixMagnitudes;
   }
 
@@ -5,10 +5,11 @@
  */
 package org.nest.nestml._symboltable.unitrepresentation;
 
-import org.nest.nestml._cocos.NestmlErrorStrings;
 import org.nest.nestml._cocos.NestmlErrorStrings;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -23,9 +24,27 @@ import static org.nest.nestml._symboltable.predefined.PredefinedTypes.getRealTyp
  * Internal representation of SI Units. Supplies arithmetic functions on units and
  * (de)serializes them.
  *
+ * Units are immutable. Units whose fields fit into a packed key (see {@link #getKey()}) are interned, i.e. there is
+ * only one instance per unit. Results of arithmetic functions, serializations and names are cached for them.
+ *
  * @author plotnikov, traeder
  */
 public class UnitRepresentation implements Comparable<UnitRepresentation>{
+  // bits of the packed key: 7 exponents with 7 bits, the magnitude with 13 bits and the ignoreMagnitude flag. The
+  // key uses 63 bits and is therefore non-negative.
+  private static final int EXPONENT_BITS = 7;
+  private static final int MAGNITUDE_BITS = 13;
+  private static final int MAX_EXPONENT = (1 << (EXPONENT_BITS - 1)) - 1;
+  private static final int MAX_MAGNITUDE = (1 << (MAGNITUDE_BITS - 1)) - 1;
+  // marks units which cannot be packed, since a field is out of range
+  private static final long NO_KEY = -1L;
+  private static final Pattern NUMBER = Pattern.compile("-?[0-9]+");
+
+  // Key: packed key, value: the only instance of the unit
+  private static final ConcurrentMap<Long, UnitRepresentation> internedUnits = new ConcurrentHashMap<>();
+  // Key: serialization or unit name, value: the corresponding unit
+  private static final ConcurrentMap<String, UnitRepresentation> serializations = new ConcurrentHashMap<>();
+  private static final ConcurrentMap<String, UnitRepresentation> unitNames = new ConcurrentHashMap<>();
 
   /**
    * Helper class for organizing printing
@@ -81,8 +100,6 @@ public class UnitRepresentation implements Comparable<UnitRepresentation>{
     private int magnitude;
     private int K, s, m, g, cd, mol, A;
     private boolean ignoreMagnitude = false;
-    private boolean errorState = false;
-    private String serialization;
     private String unitName;
 
     /**
@@ -173,61 +190,7 @@ public class UnitRepresentation implements Comparable<UnitRepresentation>{
      * @param serialization serialized UnitRepresentation.
      */
     public Builder serialization(String serialization){
-      if(serialization == getRealType().getName()) {
-        return this; //[0,0,0,0,0,0,0,0]i
-      }
-
-      if(serialization.substring(serialization.length()-1).equals("I")){
-        this.ignoreMagnitude = true;
-      }
-
-      Pattern parse = Pattern.compile("-?[0-9]+");
-      Matcher matcher = parse.matcher(serialization);
-
-      if(matcher.find()) {
-        this.K = Integer.parseInt(matcher.group());
-      } else{
-        this.errorState = true;
-      }
-      if(matcher.find()) {
-        this.s = Integer.parseInt(matcher.group());
-      } else{
-        this.errorState = true;
-      }
-      if(matcher.find()) {
-        this.m = Integer.parseInt(matcher.group());
-      } else{
-        this.errorState = true;
-      }
-      if(matcher.find()) {
-        this.g = Integer.parseInt(matcher.group());
-      } else{
-        this.errorState = true;
-      }
-      if(matcher.find()) {
-        this.cd = Integer.parseInt(matcher.group());
-      } else{
-        this.errorState = true;
-      }
-      if(matcher.find()) {
-        this.mol = Integer.parseInt(matcher.group());
-      } else{
-        this.errorState = true;
-      }
-      if(matcher.find()) {
-        this.A = Integer.parseInt(matcher.group());
-      } else{
-        this.errorState = true;
-      }
-      if(matcher.find()) {
-        this.magnitude = Integer.parseInt(matcher.group());
-      } else{
-        this.errorState = true;
-      }
-      checkState(!errorState,
-          "NESTML_UnitRepresentation: Cannot parse unitRepresentation from the string '"+serialization+"'");
-
-      return this;
+      return other(fromSerialization(serialization));
     }
 
     /**
@@ -252,17 +215,32 @@ public class UnitRepresentation implements Comparable<UnitRepresentation>{
      * @return The UnitRepresentation built from provided data.
      */
     public UnitRepresentation build(){
-      return new UnitRepresentation(K,s,m,g,cd,mol,A,magnitude,ignoreMagnitude);
+      return of(K,s,m,g,cd,mol,A,magnitude,ignoreMagnitude);
     }
   }
 
-  private int magnitude;
-  private int K, s, m, g, cd, mol, A;
-  private boolean ignoreMagnitude = false;
-  private static UnitFilter targetUnitFilter = new NESTMLUnitFilter();
+  private final int magnitude;
+  private final int K, s, m, g, cd, mol, A;
+  private final boolean ignoreMagnitude;
+  private final long key;
+  private final String serialization;
+  // lazily computed, since the factorization is expensive. Races compute the same name.
+  private volatile String name;
+  // caches of arithmetic functions, only used for interned units
+  private final ConcurrentMap<UnitRepresentation, UnitRepresentation> products = new ConcurrentHashMap<>();
+  private final ConcurrentMap<UnitRepresentation, UnitRepresentation> quotients = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Integer, UnitRepresentation> powers = new ConcurrentHashMap<>();
+
+  /**
+   * The filter is created on the first use. Otherwise, the initialization of this class would depend on SIData,
+   * whose initialization creates units. Such cycles can deadlock, if both classes are initialized concurrently.
+   */
+  private static class TargetUnitFilterHolder {
+    private static final UnitFilter targetUnitFilter = new NESTMLUnitFilter();
+  }
 
   public static UnitFilter getTargetUnitFilter(){
-    return targetUnitFilter;
+    return TargetUnitFilterHolder.targetUnitFilter;
   }
 
   public int getMagnitude() {
@@ -278,11 +256,96 @@ public class UnitRepresentation implements Comparable<UnitRepresentation>{
   }
 
   /**
+   * Parses a UnitRepresentation from a serialization. Throws IllegalStateException if errors are encountered.
+   * Used predominantly to reconstruct a UnitRepresentation from a TypeSymbol name for further handling. Parsed
+   * serializations are cached.
    *
-   * @param ignoreMagnitude new value for ignoreMagnitude
+   * @param serialization serialized UnitRepresentation, see {@link #serialize()}.
    */
-  public void setIgnoreMagnitude(boolean ignoreMagnitude) {
-    this.ignoreMagnitude = ignoreMagnitude;
+  public static UnitRepresentation fromSerialization(final String serialization) {
+    final UnitRepresentation cached = serializations.get(serialization);
+    if (cached != null) {
+      return cached;
+    }
+
+    final UnitRepresentation parsed = parse(serialization);
+    if (parsed.isInterned()) {
+      serializations.putIfAbsent(serialization, parsed);
+    }
+    return parsed;
+  }
+
+  /**
+   * @return The unit with the given fields. Units which can be packed are interned.
+   */
+  private static UnitRepresentation of(
+      int K, int s, int m, int g, int cd, int mol, int A, int magnitude, boolean ignoreMagnitude) {
+    final long key = pack(K, s, m, g, cd, mol, A, magnitude, ignoreMagnitude);
+    if (key == NO_KEY) {
+      return new UnitRepresentation(K, s, m, g, cd, mol, A, magnitude, ignoreMagnitude, NO_KEY);
+    }
+
+    final UnitRepresentation interned = internedUnits.get(key);
+    if (interned != null) {
+      return interned;
+    }
+
+    final UnitRepresentation unit = new UnitRepresentation(K, s, m, g, cd, mol, A, magnitude, ignoreMagnitude, key);
+    final UnitRepresentation concurrentlyInterned = internedUnits.putIfAbsent(key, unit);
+    return concurrentlyInterned != null ? concurrentlyInterned : unit;
+  }
+
+  /**
+   * @return The packed key or {@link #NO_KEY}, if a field is out of the range of the key.
+   */
+  private static long pack(
+      int K, int s, int m, int g, int cd, int mol, int A, int magnitude, boolean ignoreMagnitude) {
+    if (abs(magnitude) > MAX_MAGNITUDE) {
+      return NO_KEY;
+    }
+
+    long key = 0;
+    for (final int exponent:new int[] { K, s, m, g, cd, mol, A }) {
+      if (abs(exponent) > MAX_EXPONENT) {
+        return NO_KEY;
+      }
+      key = (key << EXPONENT_BITS) | (exponent & ((1 << EXPONENT_BITS) - 1));
+    }
+    key = (key << MAGNITUDE_BITS) | (magnitude & ((1 << MAGNITUDE_BITS) - 1));
+    return (key << 1) | (ignoreMagnitude ? 1 : 0);
+  }
+
+  private static UnitRepresentation parse(final String serialization) {
+    if(serialization.equals(getRealType().getName())) {
+      return getBuilder().build(); //[0,0,0,0,0,0,0,0]i
+    }
+
+    final int[] fields = new int[8]; // K, s, m, g, cd, mol, A, magnitude
+    final Matcher matcher = NUMBER.matcher(serialization);
+    for (int i = 0; i < fields.length; ++i) {
+      checkState(matcher.find(),
+          "NESTML_UnitRepresentation: Cannot parse unitRepresentation from the string '"+serialization+"'");
+      fields[i] = Integer.parseInt(matcher.group());
+    }
+
+    final boolean ignoreMagnitude = serialization.endsWith("I");
+    return of(fields[0], fields[1], fields[2], fields[3], fields[4], fields[5], fields[6], fields[7], ignoreMagnitude);
+  }
+
+  /**
+   * @return The packed exponents, magnitude and ignoreMagnitude flag. Two interned units are equal iff. their keys
+   * are equal. Only valid for interned units.
+   */
+  public long getKey() {
+    checkState(isInterned(), "The unit " + serialization + " cannot be packed.");
+    return key;
+  }
+
+  /**
+   * @return true iff. the unit is interned, i.e. its fields fit into the packed key.
+   */
+  public boolean isInterned() {
+    return key != NO_KEY;
   }
 
   /**
@@ -301,7 +364,7 @@ public class UnitRepresentation implements Comparable<UnitRepresentation>{
    * E.g. kN without ignoreMagnitude would be serialized as "[0,-2,1,1,0,0,0,3]i"
    */
   public String serialize() {
-    return Arrays.toString(this.asArray())+(ignoreMagnitude?"I":"i");
+    return serialization;
   }
 
   /**
@@ -344,7 +407,10 @@ public class UnitRepresentation implements Comparable<UnitRepresentation>{
     if(isZero()){
       return "real";
     }
-    return  calculateName();
+    if (name == null) {
+      name = calculateName();
+    }
+    return name;
   }
 
   /**
@@ -353,14 +419,25 @@ public class UnitRepresentation implements Comparable<UnitRepresentation>{
    * @return UnitRepresentation equivalent to unit given as parameter, if existent.
    */
   static public Optional<UnitRepresentation> lookupName(String unit){
+    final UnitRepresentation cached = unitNames.get(unit);
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+
+    final Optional<UnitRepresentation> result = calculateLookupName(unit);
+    result.filter(UnitRepresentation::isInterned).ifPresent(interned -> unitNames.putIfAbsent(unit, interned));
+    return result;
+  }
+
+  static private Optional<UnitRepresentation> calculateLookupName(String unit){
     for (String pre: SIData.getSIPrefixes()){
       if(pre.regionMatches(false,0,unit,0,pre.length())){
         //See if remaining unit name matches a valid SI Unit. Since some prefixes are not unique
         String remainder = unit.substring(pre.length());
         if(SIData.getBaseRepresentations().containsKey(remainder)){
           int magnitude = SIData.getPrefixMagnitudes().get(pre);
-          UnitRepresentation result = getBuilder().other(SIData.getBaseRepresentations().get(remainder)).build();
-          result.increaseMagnitude(magnitude);
+          UnitRepresentation base = SIData.getBaseRepresentations().get(remainder);
+          UnitRepresentation result = getBuilder().other(base).magnitude(base.magnitude + magnitude).build();
           return Optional.of(result);
         }
 
@@ -368,8 +445,7 @@ public class UnitRepresentation implements Comparable<UnitRepresentation>{
 
     }
     if(SIData.getBaseRepresentations().containsKey(unit)) { //No prefix present, see if whole name matches
-      UnitRepresentation result = getBuilder().other(SIData.getBaseRepresentations().get(unit)).build();
-      return Optional.of(result);
+      return Optional.of(SIData.getBaseRepresentations().get(unit));
     }
     return Optional.empty();
   }
@@ -406,7 +482,14 @@ public class UnitRepresentation implements Comparable<UnitRepresentation>{
   }
 
   public UnitRepresentation divideBy(UnitRepresentation denominator){
-    return new UnitRepresentation(
+    if (isInterned() && denominator.isInterned()) {
+      return quotients.computeIfAbsent(denominator, this::calculateQuotient);
+    }
+    return calculateQuotient(denominator);
+  }
+
+  private UnitRepresentation calculateQuotient(UnitRepresentation denominator){
+    return of(
         this.K -denominator.K,
         this.s -denominator.s,
         this.m - denominator.m,
@@ -419,7 +502,14 @@ public class UnitRepresentation implements Comparable<UnitRepresentation>{
   }
 
   public UnitRepresentation pow(int exponent){
-    return new UnitRepresentation(
+    if (isInterned()) {
+      return powers.computeIfAbsent(exponent, this::calculatePower);
+    }
+    return calculatePower(exponent);
+  }
+
+  private UnitRepresentation calculatePower(int exponent){
+    return of(
         this.K * exponent,
         this.s * exponent,
         this.m * exponent,
@@ -432,7 +522,14 @@ public class UnitRepresentation implements Comparable<UnitRepresentation>{
   }
 
   public UnitRepresentation multiplyBy(UnitRepresentation factor){
-    return new UnitRepresentation(
+    if (isInterned() && factor.isInterned()) {
+      return products.computeIfAbsent(factor, this::calculateProduct);
+    }
+    return calculateProduct(factor);
+  }
+
+  private UnitRepresentation calculateProduct(UnitRepresentation factor){
+    return of(
         this.K +factor.K,
         this.s +factor.s,
         this.m + factor.m,
@@ -445,7 +542,7 @@ public class UnitRepresentation implements Comparable<UnitRepresentation>{
   }
 
   public UnitRepresentation invert(){
-    return new UnitRepresentation(-K,-s,-m,-g,-cd,-mol,-A,-magnitude,this.isIgnoreMagnitude());
+    return pow(-1);
   }
 
   public UnitRepresentation deriveT(int order) {
@@ -455,7 +552,8 @@ public class UnitRepresentation implements Comparable<UnitRepresentation>{
     return result;
   }
 
-  private UnitRepresentation(int K, int s, int m, int g, int cd, int mol, int A, int magnitude,boolean ignoreMagnitude) {
+  private UnitRepresentation(
+      int K, int s, int m, int g, int cd, int mol, int A, int magnitude, boolean ignoreMagnitude, long key) {
     this.K = K;
     this.s = s;
     this.m = m;
@@ -465,10 +563,8 @@ public class UnitRepresentation implements Comparable<UnitRepresentation>{
     this.A = A;
     this.magnitude = magnitude;
     this.ignoreMagnitude = ignoreMagnitude;
-  }
-
-  private void increaseMagnitude(int difference) {
-    this.magnitude += difference;
+    this.key = key;
+    this.serialization = Arrays.toString(this.asArray())+(ignoreMagnitude?"I":"i");
   }
 
   private int exponentSum() {
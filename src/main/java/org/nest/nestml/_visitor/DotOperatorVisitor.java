@@ -50,17 +50,15 @@ public class DotOperatorVisitor implements NESTMLVisitor {
         // If both are units, calculate resulting Type
         if (lhsType.getType() == TypeSymbol.Type.UNIT
             && rhsType.getType() == TypeSymbol.Type.UNIT) {
-          UnitRepresentation leftRep = UnitRepresentation.getBuilder().serialization(lhsType.getName()).build();
-          UnitRepresentation rightRep = UnitRepresentation.getBuilder().serialization(rhsType.getName()).build();
+          UnitRepresentation leftRep = UnitRepresentation.fromSerialization(lhsType.getName());
+          UnitRepresentation rightRep = UnitRepresentation.fromSerialization(rhsType.getName());
           if (expr.isTimesOp()) {
-            TypeSymbol returnType = getTypeIfExists((leftRep.multiplyBy(rightRep)).serialize())
-                .get();//Register type on the fly
+            TypeSymbol returnType = getTypeOfUnit(leftRep.multiplyBy(rightRep));//Register type on the fly
             expr.setType(Either.value(returnType));
             return;
           }
           else if (expr.isDivOp()) {
-            TypeSymbol returnType = getTypeIfExists((leftRep.divideBy(rightRep)).serialize())
-                .get();//Register type on the fly
+            TypeSymbol returnType = getTypeOfUnit(leftRep.divideBy(rightRep));//Register type on the fly
             expr.setType(Either.value(returnType));
             return;
           }
@@ -77,8 +75,8 @@ public class DotOperatorVisitor implements NESTMLVisitor {
             return;
           }
           else if (expr.isDivOp()) {
-            UnitRepresentation rightRep = UnitRepresentation.getBuilder().serialization(rhsType.getName()).build();
-            TypeSymbol returnType = getTypeIfExists((rightRep.invert()).serialize()).get();//Register type on the fly
+            UnitRepresentation rightRep = UnitRepresentation.fromSerialization(rhsType.getName());
+            TypeSymbol returnType = getTypeOfUnit(rightRep.invert());//Register type on the fly
             expr.setType(Either.value(returnType));
             return;
           }
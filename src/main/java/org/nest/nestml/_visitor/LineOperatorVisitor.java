@@ -50,7 +50,7 @@ public class LineOperatorVisitor implements NESTMLVisitor {
       if (lhsType.prettyPrint().equals(rhsType.prettyPrint())) {
         //Make sure that ignoreMagnitude gets propagated if set
         if (isUnit(rhsType)) {
-          UnitRepresentation rhsRep = UnitRepresentation.getBuilder().serialization(rhsType.getName()).build();
+          UnitRepresentation rhsRep = UnitRepresentation.fromSerialization(rhsType.getName());
           if (rhsRep.isIgnoreMagnitude()) {
             expr.setType(Either.value(rhsType));
           }
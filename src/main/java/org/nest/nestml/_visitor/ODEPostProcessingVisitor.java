@@ -87,7 +87,7 @@ public class ODEPostProcessingVisitor implements NESTMLVisitor {
       return;
     }
 
-    UnitRepresentation varUnit = UnitRepresentation.getBuilder().serialization(varType.getName()).build();
+    UnitRepresentation varUnit = UnitRepresentation.fromSerialization(varType.getName());
     UnitRepresentation derivedVarUnit = varUnit.deriveT(astEquation.getLhs().getDifferentialOrder().size());
 
     //get type of RHS expression
@@ -98,9 +98,11 @@ public class ODEPostProcessingVisitor implements NESTMLVisitor {
       error(NestmlErrorStrings.expressionNonNumeric(this), astEquation.get_SourcePositionStart());
       return;
     }
-    UnitRepresentation unitFromExpression = UnitRepresentation.getBuilder().serialization(typeFromExpression.getName()).build();
     //set any of the units to ignoreMagnitude
-    unitFromExpression.setIgnoreMagnitude(false);
+    UnitRepresentation unitFromExpression = UnitRepresentation.getBuilder()
+        .other(UnitRepresentation.fromSerialization(typeFromExpression.getName()))
+        .ignoreMagnitude(false)
+        .build();
     //do the actual test:
     if (!unitFromExpression.equals(derivedVarUnit)) {
       //remove magnitude for clearer error message
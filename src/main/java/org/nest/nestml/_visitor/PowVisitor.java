@@ -44,10 +44,10 @@ public class PowVisitor implements NESTMLVisitor {
           error(errorMsg, expr.get_SourcePositionStart());
           return;
         }
-        UnitRepresentation baseRep = UnitRepresentation.getBuilder().serialization(baseType.getName()).build();
+        UnitRepresentation baseRep = UnitRepresentation.fromSerialization(baseType.getName());
         Either<Integer, String> numericValue = calculateNumericValue(expr.getExponent().get());//calculate exponent value if exponent composed of literals
         if (numericValue.isValue()) {
-          expr.setType(Either.value(getTypeIfExists((baseRep.pow(numericValue.getValue())).serialize()).get()));
+          expr.setType(Either.value(getTypeOfUnit(baseRep.pow(numericValue.getValue()))));
           return;
         }
         else {
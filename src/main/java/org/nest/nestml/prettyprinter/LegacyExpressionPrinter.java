@@ -23,19 +23,40 @@ package org.nest.nestml.prettyprinter;
 
 import org.nest.nestml._ast.ASTExpr;
 import org.nest.nestml._ast.ASTFunctionCall;
+import org.nest.nestml._symboltable.predefined.PredefinedFunctions;
+import org.nest.utils.LiteralEvaluator;
+
+import java.util.Optional;
 
 /**
  * Created by ptraeder.
  * "Legacy" version of the expression printer that does not print units for literals
  */
 public class LegacyExpressionPrinter extends ExpressionsPrettyPrinter{
+  // larger exponents are left to pow, since the multiplication chain becomes inaccurate
+  private static final int MAX_INTEGER_EXPONENT = 16;
+
+  // no variables are known, so that only exponents of literals and predefined constants are reduced, e.g. (1.0/3.0)
+  private final LiteralEvaluator literalEvaluator = new LiteralEvaluator();
+  private final boolean isReducePowers;
 
   public LegacyExpressionPrinter() {
     super();
+    this.isReducePowers = false;
   }
 
   public LegacyExpressionPrinter(final IReferenceConverter referenceConverter) {
+    this(referenceConverter, false);
+  }
+
+  /**
+   * @param isReducePowers If true, powers with constant exponents are printed without pow calls: small integer
+   *                       exponents through the {@code __ipow<N>} helper of the generated header, the exponents 0.5
+   *                       and 1/3 through std::sqrt and std::cbrt calls. E.g. {@code m**3} becomes {@code __ipow< 3 >( m )}.
+   */
+  public LegacyExpressionPrinter(final IReferenceConverter referenceConverter, final boolean isReducePowers) {
     super(referenceConverter);
+    this.isReducePowers = isReducePowers;
   }
 
   @Override
@@ -58,6 +79,15 @@ public class LegacyExpressionPrinter extends ExpressionsPrettyPrinter{
     }
     else if (expr.getFunctionCall().isPresent()) { // function
       final ASTFunctionCall astFunctionCall = expr.getFunctionCall().get();
+      if (PredefinedFunctions.POW.equals(astFunctionCall.getCalleeName()) && astFunctionCall.getArgs().size() == 2) {
+        final Optional<String> reducedPower = printReducedPower(
+            astFunctionCall.getArgs().get(0),
+            astFunctionCall.getArgs().get(1));
+        if (reducedPower.isPresent()) {
+          return reducedPower.get();
+        }
+
+      }
       return printMethodCall(astFunctionCall);
 
     }
@@ -83,6 +113,11 @@ public class LegacyExpressionPrinter extends ExpressionsPrettyPrinter{
       return expression.toString();
     }
     else if (expr.isPow()) {
+      final Optional<String> reducedPower = printReducedPower(expr.getBase().get(), expr.getExponent().get());
+      if (reducedPower.isPresent()) {
+        return reducedPower.get();
+      }
+
       final String leftOperand = print(expr.getBase().get());
       final String rightOperand = print(expr.getExponent().get());
 
@@ -145,4 +180,33 @@ public class LegacyExpressionPrinter extends ExpressionsPrettyPrinter{
 
     throw new RuntimeException(errorMsg);
   }
+
+  private Optional<String> printReducedPower(final ASTExpr base, final ASTExpr exponent) {
+    if (!isReducePowers) {
+      return Optional.empty();
+    }
+
+    final Optional<Double> exponentValue = literalEvaluator.evaluate(exponent);
+    if (!exponentValue.isPresent()) {
+      return Optional.empty();
+    }
+
+    final double value = exponentValue.get();
+    if (value == 0.5) {
+      return Optional.of("std::sqrt(" + print(base) + ")");
+    }
+    else if (value == 1.0 / 3.0) {
+      // unlike pow, cbrt is defined for negative bases, e.g. cbrt(-8) is -2 and not NaN
+      return Optional.of("std::cbrt(" + print(base) + ")");
+    }
+    else if (value == Math.rint(value) && value != 0 && Math.abs(value) <= MAX_INTEGER_EXPONENT) {
+      final String power = "__ipow< " + (int) Math.abs(value) + " >(" + print(base) + ")";
+      return Optional.of(value > 0 ? power : "(1.0 / " + power + ")");
+    }
+    else {
+      return Optional.empty();
+    }
+
+  }
+
 }
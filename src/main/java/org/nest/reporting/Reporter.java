@@ -22,26 +22,29 @@ package org.nest.reporting;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.collect.Lists;
 import de.se_rwth.commons.logging.Finding;
 import de.se_rwth.commons.logging.Log;
 
 import java.io.PrintStream;
 import java.util.List;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
 
 /**
  * Collects all finding and statuses for artifacts and containing neurons.
  *
- * @implSpec Not parallelizable, but the frontend is executed with one instance.
+ * @implSpec Reports are stored in the {@link Context} of the current thread. Every run of the frontend uses an own
+ * context, see {@link #runInContext}. Therefore, runs and tasks of one run can be executed concurrently. Reports
+ * outside of a run are stored in a default context.
  * @author plotnikov
  */
 public class Reporter {
-  // Not parallelizable, but the frontend is executed with one instance.
-  static private Reporter reporter = new Reporter();
+  static private final Reporter reporter = new Reporter();
 
-  // Key: addNeuronReport name, value: info message
-  private final List<Report> neuronReports = Lists.newArrayList();
+  private final Context defaultContext = new Context();
+  private final ThreadLocal<Context> currentContext = ThreadLocal.withInitial(() -> defaultContext);
 
   /**
    * Use the factory method
@@ -66,10 +69,41 @@ public class Reporter {
     System.out.println(level + ": " + message);
   }
 
+  /**
+   * @return The context where reports of the current thread are stored.
+   */
+  public Context getContext() {
+    return currentContext.get();
+  }
+
+  /**
+   * Executes the {@code action} on the current thread with the {@code context}. The previous context is restored
+   * afterwards. Tasks which are executed on worker threads must be started through this method with the context of
+   * their run.
+   */
+  public <T> T runInContext(final Context context, final Supplier<T> action) {
+    final Context previousContext = currentContext.get();
+    currentContext.set(context);
+    try {
+      return action.get();
+    }
+    finally {
+      currentContext.set(previousContext);
+    }
+
+  }
+
+  public void runInContext(final Context context, final Runnable action) {
+    runInContext(context, () -> {
+      action.run();
+      return context;
+    });
+  }
+
   public String printFindingsAsJsonString() {
     ObjectMapper mapper = new ObjectMapper();
     try {
-      final String jsonInString = mapper.writerWithDefaultPrettyPrinter().writeValueAsString(neuronReports);
+      final String jsonInString = mapper.writerWithDefaultPrettyPrinter().writeValueAsString(getContext().reports);
       return jsonInString;
     }
     catch (JsonProcessingException e) {
@@ -79,8 +113,35 @@ public class Reporter {
 
   }
 
+  public String printMetricsAsJsonString() {
+    ObjectMapper mapper = new ObjectMapper();
+    try {
+      return mapper.writerWithDefaultPrettyPrinter().writeValueAsString(getContext().metrics);
+    }
+    catch (JsonProcessingException e) {
+      Log.error("Cannot produce JSON output", e);
+      return "";
+    }
+
+  }
+
+  /**
+   * Starts to measure the processing time of the {@code phase} for the {@code artifactName}, e.g. a model file, a
+   * neuron or a module. The time is recorded through {@link Timer#stop()}.
+   */
+  public Timer startTimer(final String artifactName, final String phase) {
+    return new Timer(artifactName, phase);
+  }
+
+  /**
+   * Records a counter for the {@code artifactName}, e.g. number of AST nodes or size of generated files.
+   */
+  public void addCounter(final String artifactName, final String name, final String unit, final long value) {
+    getContext().metrics.add(new Metric(artifactName, name, unit, value));
+  }
+
   public void printReports(final PrintStream info, final PrintStream err) {
-    Optional<Report> error = neuronReports
+    Optional<Report> error = getContext().reports
         .stream()
         .filter(message -> message.severity.equals(Level.ERROR))
         .findAny();
@@ -161,7 +222,7 @@ public class Reporter {
         row,
         col,
         message);
-    neuronReports.add(report);
+    getContext().reports.add(report);
   }
 
 
@@ -197,6 +258,53 @@ public class Reporter {
 
   }
 
+  /**
+   * Append-only storage of reports and metrics of one run. It can be filled concurrently.
+   */
+  public static class Context {
+    private final Queue<Report> reports = new ConcurrentLinkedQueue<>();
+    private final Queue<Metric> metrics = new ConcurrentLinkedQueue<>();
+  }
+
+  public class Timer {
+    private final Context context = getContext(); // the timer can be stopped in another context
+    private final String artifactName;
+    private final String phase;
+    private final long start = System.nanoTime();
+
+    private Timer(final String artifactName, final String phase) {
+      this.artifactName = artifactName;
+      this.phase = phase;
+    }
+
+    public void stop() {
+      final double elapsedTime = (double) (System.nanoTime() - start) / 1000000.0;
+      context.metrics.add(new Metric(artifactName, phase, Metric.MILLISECONDS, elapsedTime));
+    }
+
+  }
+
+  static class Metric {
+    static final String MILLISECONDS = "ms";
+
+    public final String artifactName;
+    public final String name;
+    public final String unit;
+    public final double value;
+
+    Metric(final String artifactName, final String name, final String unit, final double value) {
+      this.artifactName = artifactName;
+      this.name = name;
+      this.unit = unit;
+      this.value = value;
+    }
+
+    @Override
+    public String toString() {
+      return artifactName + ": " + name + " = " + value + " [" + unit + "]";
+    }
+  }
+
   static class Report {
     public final String filename;
     public final String neuronName;
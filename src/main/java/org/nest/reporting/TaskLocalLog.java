@@ -0,0 +1,98 @@
+/*
+ * TaskLocalLog.java
+ *
+ * This file is part of NEST.
+ *
+ * Copyright (C) 2004 The NEST Initiative
+ *
+ * NEST is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * NEST is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NEST.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nest.reporting;
+
+import com.google.common.collect.Lists;
+import de.se_rwth.commons.logging.Finding;
+import de.se_rwth.commons.logging.Log;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Stores findings per thread instead of one global list. Thereby, every task sees only own findings through
+ * {@code Log.getFindings()} and compilation units can be checked concurrently. Findings of a task are returned by
+ * {@link #collectFindings} and merged by the caller.
+ */
+public class TaskLocalLog extends Log {
+  private final ThreadLocal<List<Finding>> findings = ThreadLocal.withInitial(Lists::newArrayList);
+
+  /**
+   * Replaces the global MontiCore log, unless it is already a task local log. Thereby, the log is installed again
+   * after it was replaced, e.g. by {@code Log.init()}. Findings of the calling thread are preserved.
+   */
+  public static synchronized void install() {
+    if (!(getLog() instanceof TaskLocalLog)) {
+      final List<Finding> previousFindings = Lists.newArrayList(Log.getFindings());
+      setLog(new TaskLocalLog());
+      Log.getFindings().addAll(previousFindings);
+    }
+
+  }
+
+  /**
+   * Executes the {@code task} with an empty findings buffer, e.g. on a reused worker thread.
+   * @return The result of the task with all findings which were reported during its execution.
+   */
+  public static <T> TaskResult<T> collectFindings(final Supplier<T> task) {
+    final List<Finding> previousFindings = Lists.newArrayList(Log.getFindings());
+    Log.getFindings().clear();
+    try {
+      final T result = task.get();
+      return new TaskResult<>(result, Lists.newArrayList(Log.getFindings()));
+    }
+    finally {
+      Log.getFindings().clear();
+      Log.getFindings().addAll(previousFindings);
+    }
+
+  }
+
+  @Override
+  protected List<Finding> doGetFindings() {
+    return findings.get();
+  }
+
+  @Override
+  protected void addFinding(final Finding finding) {
+    findings.get().add(finding);
+  }
+
+  public static class TaskResult<T> {
+    private final T result;
+    private final List<Finding> findings;
+
+    TaskResult(final T result, final List<Finding> findings) {
+      this.result = result;
+      this.findings = findings;
+    }
+
+    public T getResult() {
+      return result;
+    }
+
+    public List<Finding> getFindings() {
+      return findings;
+    }
+
+  }
+
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c)  RWTH Aachen. All rights reserved.
+ *
+ * http://www.se-rwth.de/
+ */
+package org.nest.utils;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import de.monticore.ast.ASTNode;
+
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Index of an AST with parent pointers and the nodes of every class in the pre-order. Nodes are numbered in the
+ * pre-order, so that the successors of a node are the range between its number and the number of its last successor.
+ *
+ * The index is a snapshot of the tree. It is rebuilt for every neuron whenever its symbol table is built, i.e. after
+ * the parsing and after every transformation step. Parent lookups through {@link AstUtils#getParent} verify the
+ * indexed path to the root and rebuild the index if the tree was changed in the meantime. Class queries must be
+ * used only on trees which are not changed since the last symbol table run, e.g. during context condition checks.
+ */
+public final class AstIndex {
+  // the index references the root, therefore, its entries are released only if the memory is required
+  private static final Cache<ASTNode, AstIndex> indices = CacheBuilder.newBuilder().weakKeys().softValues().build();
+
+  private final ASTNode root;
+  // Key: node, value: its parent. The root has no entry.
+  private final Map<ASTNode, ASTNode> parents = Maps.newIdentityHashMap();
+  // Key: node, value: its position in the pre-order
+  private final Map<ASTNode, Integer> positions = Maps.newIdentityHashMap();
+  private final List<ASTNode> nodes = Lists.newArrayList();
+  // position after the last successor of the node at the given position
+  private final int[] ends;
+  // Key: queried class, value: positions of all its instances in the ascending order
+  private final ConcurrentMap<Class<?>, int[]> positionsByClass = Maps.newConcurrentMap();
+
+  private AstIndex(final ASTNode root) {
+    this.root = root;
+
+    final Deque<ASTNode> toVisit = Lists.newLinkedList();
+    toVisit.push(root);
+    while (!toVisit.isEmpty()) {
+      final ASTNode node = toVisit.pop();
+      positions.put(node, nodes.size());
+      nodes.add(node);
+
+      final List<ASTNode> children = Lists.newArrayList(node.get_Children());
+      for (final ASTNode child:Lists.reverse(children)) {
+        // a shared node is indexed only at its first occurrence
+        if (!positions.containsKey(child) && !parents.containsKey(child)) {
+          parents.put(child, node);
+          toVisit.push(child);
+        }
+
+      }
+
+    }
+
+    // successors follow their parent in the pre-order, so that subtree sizes can be summed up backwards
+    final int[] sizes = new int[nodes.size()];
+    ends = new int[nodes.size()];
+    for (int i = nodes.size() - 1; i >= 0; --i) {
+      sizes[i] += 1;
+      ends[i] = i + sizes[i];
+      final ASTNode parent = parents.get(nodes.get(i));
+      if (parent != null) {
+        sizes[positions.get(parent)] += sizes[i];
+      }
+
+    }
+
+  }
+
+  /**
+   * @return The index of the tree starting at the {@code root}. It is built on the first request.
+   */
+  public static AstIndex of(final ASTNode root) {
+    checkNotNull(root);
+    try {
+      return indices.get(root, () -> new AstIndex(root));
+    }
+    catch (ExecutionException e) {
+      throw new RuntimeException("Cannot index the AST.", e.getCause());
+    }
+
+  }
+
+  /**
+   * Indexes the tree starting at the {@code root} without registering the index. It is used for short-lived trees,
+   * e.g. single expressions during a transformation, which must not occupy the cache of the neuron indices.
+   * @return The new index
+   */
+  public static AstIndex create(final ASTNode root) {
+    checkNotNull(root);
+    return new AstIndex(root);
+  }
+
+  /**
+   * Rebuilds the index of the tree starting at the {@code root}, e.g. after the tree was transformed.
+   * @return The new index
+   */
+  public static AstIndex update(final ASTNode root) {
+    checkNotNull(root);
+    final AstIndex index = new AstIndex(root);
+    indices.put(root, index);
+    return index;
+  }
+
+  public ASTNode getRoot() {
+    return root;
+  }
+
+  public boolean contains(final ASTNode node) {
+    return positions.containsKey(node);
+  }
+
+  /**
+   * @return Parent of the node at the time of the indexing or an empty value for the root and unknown nodes.
+   */
+  public Optional<ASTNode> getParent(final ASTNode node) {
+    return Optional.ofNullable(parents.get(node));
+  }
+
+  /**
+   * Checks that the indexed path from the node to the root still exists in the tree.
+   */
+  boolean isUpToDate(final ASTNode node) {
+    ASTNode current = node;
+    while (current != root) {
+      final ASTNode parent = parents.get(current);
+      if (parent == null || !parent.get_Children().contains(current)) {
+        return false;
+      }
+      current = parent;
+    }
+
+    return true;
+  }
+
+  /**
+   * @return True iff the {@code successor} is contained in the subtree of the {@code node} and is not the node itself.
+   */
+  public boolean isSuccessor(final ASTNode node, final ASTNode successor) {
+    final Integer nodePosition = positions.get(node);
+    final Integer successorPosition = positions.get(successor);
+    return nodePosition != null && successorPosition != null &&
+           nodePosition < successorPosition && successorPosition < ends[nodePosition];
+  }
+
+  /**
+   * @return All nodes of the required type in the pre-order.
+   */
+  public <T> List<T> getAll(final Class<T> clazz) {
+    return getAll(root, clazz);
+  }
+
+  /**
+   * @param subRoot The indexed node from where the search starts. It is included in the result, if it has the type.
+   * @return All nodes of the required type in the subtree of the {@code subRoot} in the pre-order.
+   */
+  @SuppressWarnings("unchecked") // checked by reflection
+  public <T> List<T> getAll(final ASTNode subRoot, final Class<T> clazz) {
+    final Integer subRootPosition = positions.get(subRoot);
+    if (subRootPosition == null) {
+      return AstUtils.getAll(subRoot, clazz);
+    }
+
+    final int[] candidates = getPositions(clazz);
+    final int from = insertionPoint(candidates, subRootPosition);
+    final int to = insertionPoint(candidates, ends[subRootPosition]);
+    final List<T> result = Lists.newArrayListWithCapacity(to - from);
+    for (int i = from; i < to; ++i) {
+      // it is checked by the class filter. only T types are stored
+      result.add((T) nodes.get(candidates[i]));
+    }
+
+    return result;
+  }
+
+  /**
+   * @return The fist node of the required type in the subtree of the {@code subRoot} or an empty value.
+   */
+  public <T> Optional<T> getAny(final ASTNode subRoot, final Class<T> clazz) {
+    return getAll(subRoot, clazz).stream().findFirst();
+  }
+
+  private int[] getPositions(final Class<?> clazz) {
+    return positionsByClass.computeIfAbsent(clazz, queriedClass -> {
+      int size = 0;
+      final int[] result = new int[nodes.size()];
+      for (int i = 0; i < nodes.size(); ++i) {
+        if (queriedClass.isInstance(nodes.get(i))) {
+          result[size++] = i;
+        }
+      }
+
+      return Arrays.copyOf(result, size);
+    });
+
+  }
+
+  private static int insertionPoint(final int[] sortedPositions, final int position) {
+    final int index = Arrays.binarySearch(sortedPositions, position);
+    return index >= 0 ? index : -index - 1;
+  }
+
+}
@@ -7,7 +7,6 @@ package org.nest.utils;
 
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Queues;
 import com.google.common.collect.Sets;
 import de.monticore.ast.ASTNode;
 import de.monticore.symboltable.Scope;
@@ -15,7 +14,6 @@ import de.se_rwth.commons.SourcePosition;
 import de.se_rwth.commons.Util;
 import org.apache.commons.io.FileUtils;
 import org.nest.nestml._ast.*;
-import org.nest.nestml._parser.NESTMLParser;
 import org.nest.nestml._symboltable.NESTMLScopeCreator;
 import org.nest.nestml._symboltable.symbols.TypeSymbol;
 import org.nest.nestml._symboltable.symbols.VariableSymbol;
@@ -31,7 +29,6 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Deque;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -49,9 +46,9 @@ import static org.nest.nestml._symboltable.symbols.VariableSymbol.resolve;
  * @author plotnikov, oberhoff
  */
 public final class AstUtils {
-  private final static NESTMLParser parser = new NESTMLParser();
   /**
-   * Returns the unambiguous parent of the {@code queryNode}. Uses an breadthfirst traverse approach to collect nodes in the error order
+   * Returns the unambiguous parent of the {@code queryNode}. The parent is taken from the {@link AstIndex} of the
+   * {@code root}. The index is rebuilt, if the tree was changed after the indexing.
    * @param queryNode The node direct parent of the given node
    * @param root The node that is an ancestor of the {@code queryNode}
    *
@@ -61,18 +58,12 @@ public final class AstUtils {
     checkNotNull(queryNode);
     checkNotNull(root);
 
-    final Deque<ASTNode> successors = Queues.newArrayDeque();
-
-    final Iterable<ASTNode> tmp = Util.preOrder(root, ASTNode::get_Children);
-
-    successors.add(root);
-    for (ASTNode parentCandidate:tmp) {
-      if (parentCandidate.get_Children().contains(queryNode)) {
-        return Optional.of(parentCandidate);
-      }
+    final AstIndex index = AstIndex.of(root);
+    if (index.isUpToDate(queryNode)) {
+      return index.getParent(queryNode);
     }
 
-    return Optional.empty();
+    return AstIndex.update(root).getParent(queryNode);
   }
 
   /**
@@ -397,25 +388,64 @@ public final class AstUtils {
   }
 
   /**
-   * Model is printed and read again due 2 reasons:
-   * a) Technically it is necessary to build a new symbol table
-   * b) The model developer can view how the solution was computed.
+   * Clones the neuron in memory and builds a new symbol table for the clone. The clone is necessary, since the
+   * transformations of the model invalidate its symbol table.
    * @return New root node of the altered model with an initialized symbol table
    */
   public static ASTNeuron deepCloneNeuronAndBuildSymbolTable(final ASTNeuron astNeuron, final Path temporaryFolder) {
-    try {
-      final Path outputTmpPath = Paths.get(temporaryFolder.toString(), astNeuron.getName() + ".tmp");
+    return deepCloneNeuronAndBuildSymbolTable(astNeuron, temporaryFolder, false);
+  }
+
+  /**
+   * Clones the neuron in memory and builds a new symbol table for the clone.
+   * @param printTemporaryModel If true, the clone is additionally printed into the {@code temporaryFolder}. Thereby,
+   *                            the model developer can view how the solution was computed.
+   * @return New root node of the altered model with an initialized symbol table
+   */
+  public static ASTNeuron deepCloneNeuronAndBuildSymbolTable(
+      final ASTNeuron astNeuron,
+      final Path temporaryFolder,
+      final boolean printTemporaryModel) {
+    if (printTemporaryModel) {
+      printModelToFile(astNeuron, Paths.get(temporaryFolder.toString(), astNeuron.getName() + ".tmp"));
+    }
 
-      printModelToFile(astNeuron, outputTmpPath);
+    final ASTNeuron clone = astNeuron.deepClone();
+    copyAttributesNotClonedByMontiCore(astNeuron, clone);
 
-      final ASTNESTMLCompilationUnit withSolvedOde = parser.parseNESTMLCompilationUnit(outputTmpPath.toString()).get();
-      withSolvedOde.setArtifactName(astNeuron.getName());
-      final NESTMLScopeCreator scopeCreator =  new NESTMLScopeCreator();
-      scopeCreator.runSymbolTableCreator(withSolvedOde);
-      return withSolvedOde.getNeurons().get(0);
+    final ASTNESTMLCompilationUnit cloneRoot = NESTMLNodeFactory.createASTNESTMLCompilationUnit();
+    cloneRoot.getNeurons().add(clone);
+    cloneRoot.setArtifactName(astNeuron.getName());
+
+    final NESTMLScopeCreator scopeCreator =  new NESTMLScopeCreator();
+    scopeCreator.runSymbolTableCreator(cloneRoot);
+    return clone;
+  }
+
+  /**
+   * The generated deepClone copies only grammar attributes. Handwritten attributes, which are otherwise set by the
+   * parser, are copied here. The clone has the same structure as the original, therefore, nodes are matched by their
+   * position in the pre-order traversal.
+   */
+  private static void copyAttributesNotClonedByMontiCore(final ASTNeuron original, final ASTNeuron clone) {
+    final List<ASTDeclaration> originalDeclarations = getAll(original, ASTDeclaration.class);
+    final List<ASTDeclaration> clonedDeclarations = getAll(clone, ASTDeclaration.class);
+    checkState(originalDeclarations.size() == clonedDeclarations.size());
+    for (int i = 0; i < originalDeclarations.size(); ++i) {
+      originalDeclarations.get(i).getComments().forEach(clonedDeclarations.get(i)::addComment);
     }
-    catch (IOException e) {
-      throw  new RuntimeException(e);
+
+    final List<ASTUnitType> originalUnitTypes = getAll(original, ASTUnitType.class);
+    final List<ASTUnitType> clonedUnitTypes = getAll(clone, ASTUnitType.class);
+    checkState(originalUnitTypes.size() == clonedUnitTypes.size());
+    for (int i = 0; i < originalUnitTypes.size(); ++i) {
+      if (originalUnitTypes.get(i).getSerializedUnit() != null) {
+        clonedUnitTypes.get(i).setSerializedUnit(originalUnitTypes.get(i).getSerializedUnit());
+      }
+      else { // e.g. nodes which were created during the model transformation
+        UnitsSIVisitor.convertSiUnitsToSignature(clonedUnitTypes.get(i));
+      }
+
     }
 
   }
@@ -425,18 +455,13 @@ public final class AstUtils {
   }
 
   public static Optional<String> convertSiName(String astVariable) {
-    for (String siUnit : SIData.getCorrectSIUnits()) {
-      if (astVariable.equals(siUnit)) {
-        TypeSymbol variableType = getType(astVariable);
-        UnitRepresentation variableRep = UnitRepresentation
-            .getBuilder()
-            .serialization(variableType.getName())
-            .build();
-        int magnitude = UnitRepresentation.getTargetUnitFilter()
-            .getDifferenceToRegisteredTarget(variableRep);
-        double magnitudeAsFactor = pow(10.0, magnitude);
-        return Optional.of(String.valueOf(magnitudeAsFactor));
-      }
+    if (SIData.isCorrectSIUnit(astVariable)) {
+      TypeSymbol variableType = getType(astVariable);
+      UnitRepresentation variableRep = UnitRepresentation.fromSerialization(variableType.getName());
+      int magnitude = UnitRepresentation.getTargetUnitFilter()
+          .getDifferenceToRegisteredTarget(variableRep);
+      double magnitudeAsFactor = pow(10.0, magnitude);
+      return Optional.of(String.valueOf(magnitudeAsFactor));
     }
     return Optional.empty();
   }
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c)  RWTH Aachen. All rights reserved.
+ *
+ * http://www.se-rwth.de/
+ */
+package org.nest.utils;
+
+import de.monticore.prettyprint.IndentPrinter;
+import de.monticore.types.prettyprint.TypesPrettyPrinterConcreteVisitor;
+import org.nest.nestml._ast.ASTExpr;
+import org.nest.nestml._ast.ASTFunctionCall;
+import org.nest.nestml._symboltable.predefined.PredefinedVariables;
+
+import java.util.Optional;
+
+import static org.nest.utils.AstUtils.convertSiName;
+
+/**
+ * Evaluates expressions which consist of literals, SI units and predefined constants. The evaluation follows the
+ * generated C++ code, e.g. integer constants are divided as integers and booleans are represented as 1 and 0.
+ * Subclasses extend the evaluation through further variables and function calls.
+ */
+public class LiteralEvaluator {
+
+  /**
+   * @return The value of the expression or an empty value, if it is not constant or not supported.
+   */
+  public Optional<Double> evaluate(final ASTExpr expr) {
+    if (expr.getNumericLiteral().isPresent()) {
+      final Optional<Double> literal = parseLiteral(expr);
+      if (!expr.getVariable().isPresent()) {
+        return literal;
+      }
+      // number variable pair, e.g. 4 mOhm
+      return literal.flatMap(value -> evaluateVariable(expr.getVariable().get().toString()).map(unit -> value * unit));
+    }
+    else if (expr.isInf()) {
+      return Optional.of(Double.POSITIVE_INFINITY);
+    }
+    else if (expr.getBooleanLiteral().isPresent()) {
+      return Optional.of("true".equals(typesPrinter().prettyprint(expr.getBooleanLiteral().get())) ? 1.0 : 0.0);
+    }
+    else if (expr.getVariable().isPresent()) {
+      return evaluateVariable(expr.getVariable().get().toString());
+    }
+    else if (expr.getFunctionCall().isPresent()) {
+      return evaluateFunctionCall(expr.getFunctionCall().get());
+    }
+    else if (expr.isLeftParentheses()) {
+      return evaluate(expr.getExpr().get());
+    }
+    else if (expr.isUnaryPlus()) {
+      return evaluate(expr.getTerm().get());
+    }
+    else if (expr.isUnaryMinus()) {
+      return evaluate(expr.getTerm().get()).map(value -> -value);
+    }
+    else if (expr.isLogicalNot()) {
+      return evaluate(expr.getExpr().get()).map(value -> value == 0 ? 1.0 : 0.0);
+    }
+    else if (expr.isPow()) {
+      final Optional<Double> base = evaluate(expr.getBase().get());
+      final Optional<Double> exponent = evaluate(expr.getExponent().get());
+      return base.isPresent() && exponent.isPresent() ?
+             Optional.of(Math.pow(base.get(), exponent.get())) :
+             Optional.empty();
+    }
+    else if (expr.getCondition().isPresent()) {
+      return evaluate(expr.getCondition().get())
+          .flatMap(condition -> evaluate(condition != 0 ? expr.getIfTrue().get() : expr.getIfNot().get()));
+    }
+    else if (expr.getLeft().isPresent() && expr.getRight().isPresent()) {
+      final Optional<Double> left = evaluate(expr.getLeft().get());
+      final Optional<Double> right = evaluate(expr.getRight().get());
+      if (!left.isPresent() || !right.isPresent()) {
+        return Optional.empty();
+      }
+
+      return evaluateBinaryOperation(expr, left.get(), right.get());
+    }
+    else {
+      return Optional.empty();
+    }
+
+  }
+
+  /**
+   * @return The value of SI units and predefined constants
+   */
+  protected Optional<Double> evaluateVariable(final String variableName) {
+    final Optional<String> siUnitAsLiteral = convertSiName(variableName);
+    if (siUnitAsLiteral.isPresent()) {
+      return Optional.of(Double.parseDouble(siUnitAsLiteral.get()));
+    }
+    else if (PredefinedVariables.E_CONSTANT.equals(variableName)) {
+      return Optional.of(Math.E);
+    }
+    else {
+      return Optional.empty();
+    }
+
+  }
+
+  /**
+   * @return An empty value, since function calls depend on the context of the evaluation
+   */
+  protected Optional<Double> evaluateFunctionCall(final ASTFunctionCall astFunctionCall) {
+    return Optional.empty();
+  }
+
+  private Optional<Double> evaluateBinaryOperation(final ASTExpr expr, final double left, final double right) {
+    if (expr.isPlusOp()) {
+      return Optional.of(left + right);
+    }
+    else if (expr.isMinusOp()) {
+      return Optional.of(left - right);
+    }
+    else if (expr.isTimesOp()) {
+      return Optional.of(left * right);
+    }
+    else if (expr.isDivOp()) {
+      // integer constants are divided as in C++
+      if (isIntegerConstant(expr.getLeft().get()) && isIntegerConstant(expr.getRight().get())) {
+        return right == 0 ? Optional.empty() : Optional.of((double) ((long) left / (long) right));
+      }
+      return Optional.of(left / right);
+    }
+    else if (expr.isLt()) {
+      return toBoolean(left < right);
+    }
+    else if (expr.isLe()) {
+      return toBoolean(left <= right);
+    }
+    else if (expr.isEq()) {
+      return toBoolean(left == right);
+    }
+    else if (expr.isNe() || expr.isNe2()) {
+      return toBoolean(left != right);
+    }
+    else if (expr.isGe()) {
+      return toBoolean(left >= right);
+    }
+    else if (expr.isGt()) {
+      return toBoolean(left > right);
+    }
+    else if (expr.isLogicalAnd()) {
+      return toBoolean(left != 0 && right != 0);
+    }
+    else if (expr.isLogicalOr()) {
+      return toBoolean(left != 0 || right != 0);
+    }
+    else {
+      // bit and modulo operations are left to the C++ compiler
+      return Optional.empty();
+    }
+
+  }
+
+  private Optional<Double> parseLiteral(final ASTExpr expr) {
+    try {
+      return Optional.of(Double.parseDouble(typesPrinter().prettyprint(expr.getNumericLiteral().get())));
+    }
+    catch (NumberFormatException e) {
+      return Optional.empty();
+    }
+
+  }
+
+  /**
+   * @return True iff the expression is computed with integers in C++, e.g. 1, -2 or (1 + 2) * 3.
+   */
+  private boolean isIntegerConstant(final ASTExpr expr) {
+    if (expr.getNumericLiteral().isPresent()) {
+      final String literal = typesPrinter().prettyprint(expr.getNumericLiteral().get());
+      return !expr.getVariable().isPresent() &&
+             !literal.contains(".") && !literal.contains("e") && !literal.contains("E");
+    }
+    else if (expr.isLeftParentheses()) {
+      return isIntegerConstant(expr.getExpr().get());
+    }
+    else if (expr.isUnaryPlus() || expr.isUnaryMinus()) {
+      return isIntegerConstant(expr.getTerm().get());
+    }
+    else if (expr.isPlusOp() || expr.isMinusOp() || expr.isTimesOp() || expr.isDivOp()) {
+      return isIntegerConstant(expr.getLeft().get()) && isIntegerConstant(expr.getRight().get());
+    }
+    else {
+      return false;
+    }
+
+  }
+
+  private static Optional<Double> toBoolean(final boolean value) {
+    return Optional.of(value ? 1.0 : 0.0);
+  }
+
+  private static TypesPrettyPrinterConcreteVisitor typesPrinter() {
+    return new TypesPrettyPrinterConcreteVisitor(new IndentPrinter());
+  }
+
+}
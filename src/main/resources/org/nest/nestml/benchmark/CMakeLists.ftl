@@ -0,0 +1,63 @@
+<#--
+  Generates the build of the standalone benchmarks of all neurons.
+  @param ast ASTNeuron (an arbitrary neuron)
+  @result CMake configuration
+-->
+# ${moduleName}/benchmark/CMakeLists.txt
+#
+# This file is part of NEST.
+#
+# Copyright (C) 2004 The NEST Initiative
+#
+# NEST is free software: you can redistribute it and/or modify
+# it under the terms of the GNU General Public License as published by
+# the Free Software Foundation, either version 2 of the License, or
+# (at your option) any later version.
+#
+# NEST is distributed in the hope that it will be useful,
+# but WITHOUT ANY WARRANTY; without even the implied warranty of
+# MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+# GNU General Public License for more details.
+#
+# You should have received a copy of the GNU General Public License
+# along with NEST.  If not, see <http://www.gnu.org/licenses/>.
+
+# Builds one benchmark per neuron without a NEST installation. The neurons are
+# compiled against the stand-ins in `stubs`, which replace the NEST headers:
+#
+#   mkdir build && cd build && cmake .. && make && make run_benchmarks
+#
+# Every benchmark accepts [neurons] [steps] [spike probability] [weight] and
+# prints the update cost in ns per neuron and step.
+
+cmake_minimum_required( VERSION 2.8.12 )
+project( ${moduleName}_benchmark CXX )
+
+if ( NOT CMAKE_BUILD_TYPE )
+  set( CMAKE_BUILD_TYPE Release )
+endif ()
+set( CMAKE_CXX_FLAGS "${r"$"}{CMAKE_CXX_FLAGS} -std=c++11" )
+
+# the stubs must be found before any installed NEST headers
+include_directories( BEFORE ${r"$"}{CMAKE_CURRENT_SOURCE_DIR}/stubs ${r"$"}{CMAKE_CURRENT_SOURCE_DIR}/.. )
+
+# neurons which are integrated numerically are built only with GSL
+find_package( GSL )
+if ( GSL_FOUND )
+  add_definitions( -DHAVE_GSL )
+  include_directories( ${r"$"}{GSL_INCLUDE_DIRS} )
+endif ()
+
+<#list neurons as neuron>
+add_executable( ${neuron.getName()}_benchmark ${neuron.getName()}_benchmark.cpp ../${neuron.getName()}.cpp )
+if ( GSL_FOUND )
+  target_link_libraries( ${neuron.getName()}_benchmark ${r"$"}{GSL_LIBRARIES} )
+endif ()
+
+</#list>
+add_custom_target( run_benchmarks
+  <#list neurons as neuron>
+    COMMAND ${neuron.getName()}_benchmark
+  </#list>
+    DEPENDS<#list neurons as neuron> ${neuron.getName()}_benchmark</#list>
+    )
@@ -0,0 +1,679 @@
+<#--
+  Generates minimal stand-ins for the parts of NEST and SLI which are used by generated neurons. They allow to
+  compile and run generated neurons without a NEST installation. Status dictionaries, recording and spike delivery
+  are no-ops.
+  @result C++ header
+-->
+/*
+ *  nest_standalone.h
+ *
+ *  This file is part of NEST.
+ *
+ *  Copyright (C) 2004 The NEST Initiative
+ *
+ *  NEST is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  NEST is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with NEST.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+#ifndef NEST_STANDALONE_H
+#define NEST_STANDALONE_H
+
+// C++ includes:
+#include <algorithm>
+#include <cassert>
+#include <cmath>
+#include <cstddef>
+#include <map>
+#include <memory>
+#include <stdexcept>
+#include <string>
+#include <vector>
+
+namespace numerics
+{
+const double e = 2.718281828459045;
+
+inline double
+expm1( const double x )
+{
+  return std::expm1( x );
+}
+}
+
+/* ----------------------------------------------------------------
+ * SLI dictionaries: values which are written or read are ignored
+ * ---------------------------------------------------------------- */
+class Token
+{
+public:
+  template < typename T >
+  Token& operator=( const T& )
+  {
+    return *this;
+  }
+};
+
+class Dictionary
+{
+public:
+  Token& operator[]( const std::string& name )
+  {
+    return entries_[ name ];
+  }
+
+private:
+  std::map< std::string, Token > entries_;
+};
+
+class DictionaryDatum
+{
+public:
+  DictionaryDatum()
+    : dictionary_( new Dictionary() )
+  {
+  }
+
+  DictionaryDatum( Dictionary* dictionary )
+    : dictionary_( dictionary )
+  {
+  }
+
+  Dictionary& operator*() const
+  {
+    return *dictionary_;
+  }
+
+  Dictionary* operator->() const
+  {
+    return dictionary_.get();
+  }
+
+private:
+  std::shared_ptr< Dictionary > dictionary_;
+};
+
+template < typename FT >
+void
+def( DictionaryDatum&, const std::string&, const FT& )
+{
+}
+
+template < typename FT, typename VT >
+bool
+updateValue( const DictionaryDatum&, const std::string&, VT& )
+{
+  return false;
+}
+
+template < typename TO, typename FROM >
+const TO&
+downcast( const FROM& from )
+{
+  return static_cast< const TO& >( from );
+}
+
+namespace nest
+{
+typedef long port;
+typedef long rport;
+typedef unsigned short synindex;
+
+namespace names
+{
+const std::string recordables( "recordables" );
+const std::string gsl_error_tol( "gsl_error_tol" );
+}
+
+/* ----------------------------------------------------------------
+ * Exceptions
+ * ---------------------------------------------------------------- */
+class KernelException : public std::runtime_error
+{
+public:
+  explicit KernelException( const std::string& msg )
+    : std::runtime_error( msg )
+  {
+  }
+};
+
+class BadProperty : public KernelException
+{
+public:
+  explicit BadProperty( const std::string& msg )
+    : KernelException( msg )
+  {
+  }
+};
+
+class UnknownReceptorType : public KernelException
+{
+public:
+  UnknownReceptorType( const port receptor_type, const std::string& name )
+    : KernelException( name + ": unknown receptor type " + std::to_string( receptor_type ) )
+  {
+  }
+};
+
+class IncompatibleReceptorType : public KernelException
+{
+public:
+  IncompatibleReceptorType( const port receptor_type, const std::string& name, const std::string& event )
+    : KernelException( name + ": receptor type " + std::to_string( receptor_type ) + " does not accept " + event )
+  {
+  }
+};
+
+class UnexpectedEvent : public KernelException
+{
+public:
+  UnexpectedEvent()
+    : KernelException( "unexpected event" )
+  {
+  }
+};
+
+class GSLSolverFailure : public KernelException
+{
+public:
+  GSLSolverFailure( const std::string& name, const int status )
+    : KernelException( name + ": GSL solver failed with status " + std::to_string( status ) )
+  {
+  }
+};
+
+/* ----------------------------------------------------------------
+ * Simulation time with the NEST default of 1000 tics per ms
+ * ---------------------------------------------------------------- */
+class Time
+{
+public:
+  struct ms
+  {
+    explicit ms( const double t )
+      : t( t )
+    {
+    }
+    double t;
+  };
+
+  struct step
+  {
+    explicit step( const long t )
+      : t( t )
+    {
+    }
+    long t;
+  };
+
+  Time()
+    : tics_( 0 )
+  {
+  }
+
+  Time( const ms t )
+    : tics_( std::lround( t.t * TICS_PER_MS ) )
+  {
+  }
+
+  Time( const step t )
+    : tics_( t.t * tics_per_step_() )
+  {
+  }
+
+  long
+  get_steps() const
+  {
+    return tics_ / tics_per_step_();
+  }
+
+  double
+  get_ms() const
+  {
+    return tics_ / TICS_PER_MS;
+  }
+
+  static Time
+  get_resolution()
+  {
+    return Time( step( 1 ) );
+  }
+
+  static void
+  set_resolution( const double resolution_ms )
+  {
+    tics_per_step_() = std::lround( resolution_ms * TICS_PER_MS );
+  }
+
+private:
+  static constexpr double TICS_PER_MS = 1000.0;
+
+  static long&
+  tics_per_step_()
+  {
+    static long tics_per_step = 100;
+    return tics_per_step;
+  }
+
+  long tics_;
+};
+
+/* ----------------------------------------------------------------
+ * Events
+ * ---------------------------------------------------------------- */
+class Node;
+
+class Event
+{
+public:
+  Event()
+    : sender_( 0 )
+    , rport_( 0 )
+    , weight_( 1.0 )
+    , delay_( 1 )
+    , stamp_steps_( 0 )
+  {
+  }
+
+  void
+  set_sender( Node& sender )
+  {
+    sender_ = &sender;
+  }
+
+  rport
+  get_rport() const
+  {
+    return rport_;
+  }
+
+  void
+  set_rport( const rport p )
+  {
+    rport_ = p;
+  }
+
+  double
+  get_weight() const
+  {
+    return weight_;
+  }
+
+  void
+  set_weight( const double weight )
+  {
+    weight_ = weight;
+  }
+
+  //! @return The delay in steps
+  long
+  get_delay() const
+  {
+    return delay_;
+  }
+
+  void
+  set_delay_steps( const long delay )
+  {
+    delay_ = delay;
+  }
+
+  void
+  set_stamp( const Time& stamp )
+  {
+    stamp_steps_ = stamp.get_steps();
+  }
+
+  //! @return The delivery step relative to the given slice origin
+  long
+  get_rel_delivery_steps( const Time& origin ) const
+  {
+    return stamp_steps_ + delay_ - 1 - origin.get_steps();
+  }
+
+private:
+  Node* sender_;
+  rport rport_;
+  double weight_;
+  long delay_;
+  long stamp_steps_;
+};
+
+class SpikeEvent : public Event
+{
+public:
+  SpikeEvent()
+    : multiplicity_( 1 )
+  {
+  }
+
+  int
+  get_multiplicity() const
+  {
+    return multiplicity_;
+  }
+
+  void
+  set_multiplicity( const int multiplicity )
+  {
+    multiplicity_ = multiplicity;
+  }
+
+private:
+  int multiplicity_;
+};
+
+class CurrentEvent : public Event
+{
+public:
+  CurrentEvent()
+    : current_( 0.0 )
+  {
+  }
+
+  double
+  get_current() const
+  {
+    return current_;
+  }
+
+  void
+  set_current( const double current )
+  {
+    current_ = current;
+  }
+
+private:
+  double current_;
+};
+
+class DataLoggingRequest : public Event
+{
+};
+
+/* ----------------------------------------------------------------
+ * Kernel: only the slice origin and the number of sent spikes are kept
+ * ---------------------------------------------------------------- */
+class SimulationManager
+{
+public:
+  const Time&
+  get_slice_origin() const
+  {
+    return slice_origin_;
+  }
+
+  void
+  set_slice_origin( const Time& slice_origin )
+  {
+    slice_origin_ = slice_origin;
+  }
+
+private:
+  Time slice_origin_;
+};
+
+class EventDeliveryManager
+{
+public:
+  EventDeliveryManager()
+    : spike_count_( 0 )
+  {
+  }
+
+  void
+  send( Node&, SpikeEvent&, const long )
+  {
+    ++spike_count_;
+  }
+
+  long
+  get_spike_count() const
+  {
+    return spike_count_;
+  }
+
+private:
+  long spike_count_;
+};
+
+struct KernelManager
+{
+  SimulationManager simulation_manager;
+  EventDeliveryManager event_delivery_manager;
+};
+
+inline KernelManager&
+kernel()
+{
+  static KernelManager kernel_manager;
+  return kernel_manager;
+}
+
+/* ----------------------------------------------------------------
+ * Ring buffer for input which is indexed relative to the slice origin
+ * ---------------------------------------------------------------- */
+class RingBuffer
+{
+public:
+  //! must exceed the largest delay plus the slice length in steps
+  static const long SIZE = 1024;
+
+  RingBuffer()
+    : buffer_( SIZE, 0.0 )
+  {
+  }
+
+  void
+  add_value( const long offset, const double value )
+  {
+    buffer_[ get_index_( offset ) ] += value;
+  }
+
+  //! Returns the value and clears it, so that the slot can be reused
+  double
+  get_value( const long offset )
+  {
+    const size_t index = get_index_( offset );
+    const double value = buffer_[ index ];
+    buffer_[ index ] = 0.0;
+    return value;
+  }
+
+  void
+  clear()
+  {
+    std::fill( buffer_.begin(), buffer_.end(), 0.0 );
+  }
+
+private:
+  size_t
+  get_index_( const long offset ) const
+  {
+    assert( offset >= 0 && offset < SIZE );
+    return ( kernel().simulation_manager.get_slice_origin().get_steps() + offset ) % SIZE;
+  }
+
+  std::vector< double > buffer_;
+};
+
+/* ----------------------------------------------------------------
+ * Nodes. The functions which NEST calls on private members of neurons
+ * are public, so that the benchmark driver can call them through Node.
+ * ---------------------------------------------------------------- */
+class Node
+{
+public:
+  virtual ~Node()
+  {
+  }
+
+  virtual void
+  handle( SpikeEvent& )
+  {
+    throw UnexpectedEvent();
+  }
+
+  virtual void
+  handle( CurrentEvent& )
+  {
+    throw UnexpectedEvent();
+  }
+
+  virtual void
+  handle( DataLoggingRequest& )
+  {
+    throw UnexpectedEvent();
+  }
+
+  virtual port
+  handles_test_event( SpikeEvent&, port )
+  {
+    throw UnexpectedEvent();
+  }
+
+  virtual port
+  handles_test_event( CurrentEvent&, port )
+  {
+    throw UnexpectedEvent();
+  }
+
+  virtual port
+  handles_test_event( DataLoggingRequest&, port )
+  {
+    throw UnexpectedEvent();
+  }
+
+  std::string
+  get_name() const
+  {
+    return "standalone_node";
+  }
+
+  virtual void init_state_( const Node& proto ) = 0;
+  virtual void init_buffers_() = 0;
+  virtual void calibrate() = 0;
+  virtual void update( const Time& origin, const long from, const long to ) = 0;
+};
+
+class Archiving_Node : public Node
+{
+public:
+  Archiving_Node()
+    : last_spike_( -1.0 )
+  {
+  }
+
+  double
+  get_spiketime_ms() const
+  {
+    return last_spike_;
+  }
+
+  void
+  set_spiketime( const Time& t )
+  {
+    last_spike_ = t.get_ms();
+  }
+
+  void
+  clear_history()
+  {
+    last_spike_ = -1.0;
+  }
+
+  void
+  get_status( DictionaryDatum& ) const
+  {
+  }
+
+  void
+  set_status( const DictionaryDatum& )
+  {
+  }
+
+private:
+  double last_spike_;
+};
+
+/* ----------------------------------------------------------------
+ * Recording: recordables are registered, but no data is recorded
+ * ---------------------------------------------------------------- */
+template < typename HostNode >
+class RecordablesMap
+{
+public:
+  typedef double ( HostNode::*DataAccessFct )() const;
+
+  //! Registers the recordables, must be specialised for every neuron
+  void create();
+
+  std::vector< std::string >
+  get_list() const
+  {
+    std::vector< std::string > names;
+    for ( typename std::map< std::string, DataAccessFct >::const_iterator it = map_.begin(); it != map_.end(); ++it )
+    {
+      names.push_back( it->first );
+    }
+    return names;
+  }
+
+private:
+  void
+  insert_( const std::string& name, const DataAccessFct f )
+  {
+    map_[ name ] = f;
+  }
+
+  std::map< std::string, DataAccessFct > map_;
+};
+
+template < typename HostNode >
+class UniversalDataLogger
+{
+public:
+  explicit UniversalDataLogger( HostNode& )
+  {
+  }
+
+  void
+  init()
+  {
+  }
+
+  void
+  reset()
+  {
+  }
+
+  void
+  record_data( const long )
+  {
+  }
+
+  void
+  handle( const DataLoggingRequest& )
+  {
+  }
+
+  port
+  connect_logging_device( const DataLoggingRequest&, const RecordablesMap< HostNode >& )
+  {
+    return 0;
+  }
+};
+
+} // namespace nest
+
+#endif /* #ifndef NEST_STANDALONE_H */
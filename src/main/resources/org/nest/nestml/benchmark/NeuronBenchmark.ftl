@@ -0,0 +1,193 @@
+<#--
+  Generates a standalone driver which steps many instances of a neuron with synthetic spike input and reports the
+  cost of the update per neuron and step. The driver is compiled against the stand-ins from nest_standalone.h.
+  @param ast ASTNeuron
+  @result C++ program
+-->
+/*
+*  ${neuronName}_benchmark.cpp
+*
+*  This file is part of NEST.
+*
+*  Copyright (C) 2004 The NEST Initiative
+*
+*  NEST is free software: you can redistribute it and/or modify
+*  it under the terms of the GNU General Public License as published by
+*  the Free Software Foundation, either version 2 of the License, or
+*  (at your option) any later version.
+*
+*  NEST is distributed in the hope that it will be useful,
+*  but WITHOUT ANY WARRANTY; without even the implied warranty of
+*  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+*  GNU General Public License for more details.
+*
+*  You should have received a copy of the GNU General Public License
+*  along with NEST.  If not, see <http://www.gnu.org/licenses/>.
+*
+*/
+
+/**
+ * Usage: ${neuronName}_benchmark [neurons] [steps] [spike probability] [weight]
+ * Prints one line with the cost of the update in ns per neuron and step.
+ */
+
+// C++ includes:
+#include <algorithm>
+#include <chrono>
+#include <cstdint>
+#include <cstdlib>
+#include <iostream>
+#include <vector>
+
+#include "nest_standalone.h"
+#include "${neuronName}.h"
+<#if useGSL>
+
+// the neuron is compiled only with GSL
+#ifdef HAVE_GSL
+</#if>
+
+namespace
+{
+//! neurons are updated slice by slice as in NEST
+const long SLICE_STEPS = 10;
+const double RESOLUTION_MS = 0.1;
+
+/**
+ * Xorshift generator, so that the input is the same on every machine.
+ */
+class InputGenerator
+{
+public:
+  explicit InputGenerator( const uint64_t seed )
+    : state_( seed )
+  {
+  }
+
+  //! @return A uniformly distributed number in [0, 1)
+  double
+  uniform()
+  {
+    state_ ^= state_ << 13;
+    state_ ^= state_ >> 7;
+    state_ ^= state_ << 17;
+    return ( state_ >> 11 ) * ( 1.0 / 9007199254740992.0 );
+  }
+
+private:
+  uint64_t state_;
+};
+<#if isSpikeInput>
+
+/**
+ * @return Ports for all receptor types which accept spikes, as they are assigned on connect.
+ */
+std::vector< nest::rport >
+get_spike_ports( nest::Node& node )
+{
+  std::vector< nest::rport > ports;
+  for ( nest::port receptor_type = 0; receptor_type < 64; ++receptor_type )
+  {
+    nest::SpikeEvent e;
+    try
+    {
+      ports.push_back( node.handles_test_event( e, receptor_type ) );
+    }
+    catch ( nest::KernelException& )
+    {
+      // receptor types start with 0 or 1
+      if ( !ports.empty() )
+      {
+        break;
+      }
+    }
+  }
+  return ports;
+}
+</#if>
+}
+
+int
+main( int argc, char* argv[] )
+{
+  const size_t size = argc > 1 ? std::strtoul( argv[ 1 ], 0, 10 ) : 1000;
+  const long steps = argc > 2 ? std::strtol( argv[ 2 ], 0, 10 ) : 10000;
+  // probability of an incoming spike per neuron and step
+  const double spike_probability = argc > 3 ? std::strtod( argv[ 3 ], 0 ) : 0.01;
+  const double weight = argc > 4 ? std::strtod( argv[ 4 ], 0 ) : 10.0;
+
+  nest::Time::set_resolution( RESOLUTION_MS );
+
+  // instances are copies of the prototype as in NEST
+  const ${neuronName} prototype;
+  std::vector< ${neuronName} > neurons( size, prototype );
+  for ( size_t i = 0; i < size; ++i )
+  {
+    nest::Node& node = neurons[ i ];
+    node.init_state_( prototype );
+    node.init_buffers_();
+    node.calibrate();
+  }
+
+  InputGenerator input( 12345 );
+  <#if isSpikeInput>
+  const std::vector< nest::rport > ports = get_spike_ports( neurons[ 0 ] );
+  <#else>
+  ( void ) spike_probability;
+  ( void ) weight;
+  </#if>
+  double update_seconds = 0.0;
+
+  for ( long origin = 0; origin < steps; origin += SLICE_STEPS )
+  {
+    const nest::Time slice_origin = nest::Time::step( origin );
+    const long slice_steps = std::min( SLICE_STEPS, steps - origin );
+    nest::kernel().simulation_manager.set_slice_origin( slice_origin );
+    <#if isSpikeInput>
+
+    // spikes are delivered before the slice is updated, 80% are excitatory
+    for ( size_t i = 0; i < size; ++i )
+    {
+      for ( long lag = 0; lag < slice_steps; ++lag )
+      {
+        if ( input.uniform() < spike_probability )
+        {
+          nest::SpikeEvent e;
+          e.set_stamp( slice_origin );
+          e.set_delay_steps( lag + 1 );
+          e.set_rport( ports[ static_cast< size_t >( input.uniform() * ports.size() ) ] );
+          e.set_weight( input.uniform() < 0.8 ? weight : -weight );
+          neurons[ i ].handle( e );
+        }
+      }
+    }
+    </#if>
+
+    const std::chrono::steady_clock::time_point start = std::chrono::steady_clock::now();
+    for ( size_t i = 0; i < size; ++i )
+    {
+      static_cast< nest::Node& >( neurons[ i ] ).update( slice_origin, 0, slice_steps );
+    }
+    update_seconds += std::chrono::duration< double >( std::chrono::steady_clock::now() - start ).count();
+  }
+
+  const double ns_per_neuron_step = 1e9 * update_seconds / ( static_cast< double >( size ) * steps );
+  std::cout << "neuron=${neuronName}"
+            << " solver=<#if !useGSL>exact<#elseif isFixedStep>${fixedStepMethod}<#else>gsl_${gslStepper}</#if>"
+            << " neurons=" << size
+            << " steps=" << steps
+            << " spikes=" << nest::kernel().event_delivery_manager.get_spike_count()
+            << " ns_per_neuron_step=" << ns_per_neuron_step << std::endl;
+  return 0;
+}
+<#if useGSL>
+#else
+
+int
+main()
+{
+  std::cerr << "${neuronName}_benchmark requires GSL" << std::endl;
+  return 1;
+}
+#endif
+</#if>
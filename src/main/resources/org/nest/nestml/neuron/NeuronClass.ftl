@@ -21,6 +21,8 @@
 */
 
 // C++ includes:
+#include <algorithm>
+#include <cmath>
 #include <limits>
 
 // Includes from libnestutil:
@@ -46,6 +48,18 @@
 * ---------------------------------------------------------------- */
 nest::RecordablesMap<${neuronName}> ${neuronName}::recordablesMap_;
 
+<#-- constexpr members which are passed by reference need a definition in C++11 -->
+<#list body.getParameterNonAliasSymbols() as parameter>
+<#if declarations.isConstant(parameter)>
+constexpr ${declarations.printStorageType(parameter)} ${neuronName}::Parameters_::${names.name(parameter)};
+</#if>
+</#list>
+<#list body.getInternalNonAliasSymbols() as internal>
+<#if declarations.isConstant(internal)>
+constexpr ${declarations.printStorageType(internal)} ${neuronName}::Variables_::${names.name(internal)};
+</#if>
+</#list>
+
 namespace nest
 {
   // Override the create() method with one call to RecordablesMap::insert_()
@@ -122,9 +136,9 @@ ${neuronName}::${neuronName}():Archiving_Node(), P_(), S_(), B_(*this)
 {
   recordablesMap_.create();
    <#if useGSL>
-     // use a default `good` enough value for the absolute error.
+     // use the configured value for the absolute error.
      // it cab be adjusted via `SetStatus`
-     P_.__gsl_error_tol = 1e-3;
+     P_.__gsl_error_tol = ${absoluteTolerance};
   </#if>
 
   <#list body.getParameterNonAliasSymbols() as parameter>
@@ -140,7 +154,9 @@ ${neuronName}::${neuronName}():Archiving_Node(), P_(), S_(), B_(*this)
 ${neuronName}::${neuronName}(const ${neuronName}& __n): Archiving_Node(), P_(__n.P_), S_(__n.S_), B_(__n.B_, *this)
 {
   <#list body.getParameterNonAliasSymbols() as parameter>
+    <#if !declarations.isConstant(parameter)>
     P_.${names.name(parameter)} = __n.P_.${names.name(parameter)};
+    </#if>
   </#list>
 
   <#list body.getStateNonAliasSymbols() as state>
@@ -148,7 +164,9 @@ ${neuronName}::${neuronName}(const ${neuronName}& __n): Archiving_Node(), P_(__n
   </#list>
 
   <#list body.getInternalNonAliasSymbols() as internal>
+    <#if !declarations.isConstant(internal)>
     V_.${names.name(internal)} = __n.V_.${names.name(internal)};
+    </#if>
   </#list>
 }
 
@@ -178,6 +196,9 @@ ${neuronName}::init_state_(const Node& proto)
 
 <#if useGSL>
 ${tc.include("org.nest.nestml.neuron.function.GSLDifferentiationFunction", body)}
+<#if useJacobian>
+${tc.include("org.nest.nestml.neuron.function.GSLJacobianFunction", body)}
+</#if>
 </#if>
 
 void
@@ -188,10 +209,14 @@ ${neuronName}::init_buffers_()
   </#list>
   B_.logger_.reset(); // includes resize
   Archiving_Node::clear_history();
+  <#if useQuiescence>
+  B_.__quiescent = false;
+  </#if>
   <#if useGSL>
+    <#if !isFixedStep>
     if ( B_.__s == 0 )
     {
-      B_.__s = gsl_odeiv_step_alloc( gsl_odeiv_step_rkf45, ${stateSize} );
+      B_.__s = gsl_odeiv_step_alloc( gsl_odeiv_step_${gslStepper}, ${stateSize} );
     }
     else
     {
@@ -200,11 +225,11 @@ ${neuronName}::init_buffers_()
 
     if ( B_.__c == 0 )
     {
-      B_.__c = gsl_odeiv_control_y_new( P_.__gsl_error_tol, 0.0 );
+      B_.__c = gsl_odeiv_control_y_new( P_.__gsl_error_tol, ${relativeTolerance} );
     }
     else
     {
-      gsl_odeiv_control_init( B_.__c, P_.__gsl_error_tol, 0.0, 1.0, 0.0 );
+      gsl_odeiv_control_init( B_.__c, P_.__gsl_error_tol, ${relativeTolerance}, 1.0, 0.0 );
     }
 
     if ( B_.__e == 0 )
@@ -215,9 +240,14 @@ ${neuronName}::init_buffers_()
     {
       gsl_odeiv_evolve_reset( B_.__e );
     }
+    </#if>
 
     B_.__sys.function = ${neuronName}_dynamics;
+    <#if useJacobian>
+    B_.__sys.jacobian = ${neuronName}_jacobian;
+    <#else>
     B_.__sys.jacobian = NULL;
+    </#if>
     B_.__sys.dimension = ${stateSize};
     B_.__sys.params = reinterpret_cast< void* >( this );
     B_.__step = nest::Time::get_resolution().get_ms();
@@ -230,6 +260,18 @@ void
 ${neuronName}::calibrate()
 {
   B_.logger_.init();
+  <#if useQuiescence>
+  // parameters or the state may have changed
+  B_.__quiescent = false;
+  </#if>
+  <#if specializedResolution?has_content>
+
+  // internals were computed at generation time for this resolution
+  if ( std::abs( nest::Time::get_resolution().get_ms() - ${specializedResolution} ) > 1e-12 )
+  {
+    throw nest::BadProperty( "${neuronName} was generated for the resolution ${specializedResolution} ms." );
+  }
+  </#if>
 
   <#list body.getInternalNonAliasSymbols() as variable>
     ${tc.includeArgs("org.nest.nestml.neuron.function.Calibrate", [variable])}
@@ -277,9 +319,25 @@ ${neuronName}::update(
           B_.${names.bufferValue(inputLine)} = get_${names.name(inputLine)}().get_value( lag );
        </#if>
     </#list>
+    <#if useQuiescence>
+
+    const bool __no_input = true<#list body.getInputBuffers() as inputLine> && B_.${names.bufferValue(inputLine)} == 0.0</#list>;
+    if ( B_.__quiescent && __no_input )
+    {
+      // the neuron rests in a fixed point
+      B_.logger_.record_data(origin.get_steps()+lag);
+      continue;
+    }
+    const State_ __previous_state = S_;
+    const double __previous_spike = get_spiketime_ms();
+    </#if>
 
     <#assign dynamics = body.getDynamicsBlock().get()>
     ${tc.include("org.nest.spl.Block", dynamics.getBlock())}
+    <#if useQuiescence>
+
+    B_.__quiescent = __no_input && get_spiketime_ms() == __previous_spike && is_at_rest_( __previous_state );
+    </#if>
 
     // voltage logging
     B_.logger_.record_data(origin.get_steps()+lag);
@@ -287,6 +345,21 @@ ${neuronName}::update(
 
 }
 
+<#if useQuiescence>
+bool
+${neuronName}::is_at_rest_(const State_& __previous) const
+{
+  // a state which changes by any amount is not a fixed point, e.g. a slowly decaying conductance
+  <#list body.getStateNonAliasSymbols() as state>
+  if ( S_.${names.name(state)} != __previous.${names.name(state)} )
+  {
+    return false;
+  }
+  </#list>
+  return true;
+}
+
+</#if>
 // Do not move this function as inline to h-file. It depends on
 // universal_data_logger_impl.h being included here.
 void
@@ -24,6 +24,32 @@
 
 #include "config.h"
 
+// C++ includes:
+#include <cmath>
+
+#ifndef NESTML_IPOW
+#define NESTML_IPOW
+/**
+ * Computes powers with constant integer exponents through multiplications
+ * instead of std::pow, e.g. __ipow< 3 >( m ) is m * m * m.
+ * @note Shared by all neurons of the module.
+ */
+template < int N >
+inline double
+__ipow( const double x )
+{
+  const double half = __ipow< N / 2 >( x );
+  return N % 2 == 0 ? half * half : half * half * x;
+}
+
+template <>
+inline double
+__ipow< 0 >( const double )
+{
+  return 1.0;
+}
+#endif /* #ifndef NESTML_IPOW */
+
 <#if useGSL>
 #ifdef HAVE_GSL
 
@@ -176,6 +202,11 @@ private:
 
   //! Take neuron through given time interval
   void update(nest::Time const &, const long, const long);
+  <#if useQuiescence>
+
+  //! true iff. every state variable equals exactly the one of the given state
+  bool is_at_rest_(const State_& __previous) const;
+  </#if>
 
   // The next two classes need to be friends to access the State_ class/member
   friend class nest::RecordablesMap<${neuronName}>;
@@ -339,6 +370,12 @@ private:
       double __step;             //!< step size in ms
       double __integration_step; //!< current integration time step, updated by GSL
     </#if>
+    <#if useQuiescence>
+
+    // true iff. the last step without input neither changed the state exactly nor emitted a spike. Since
+    // the update step depends only on state, parameters and input, the state is a fixed point then.
+    bool __quiescent;
+    </#if>
   };
 
   <#list body.getStateSymbols() as state>
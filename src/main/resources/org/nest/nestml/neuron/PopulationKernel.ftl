@@ -0,0 +1,192 @@
+<#--
+  Generates a population kernel which updates all neurons of a homogeneous population in one loop. State variables
+  and input buffers are stored as contiguous arrays over the neurons (structure of arrays), so that the compiler can
+  vectorise the update loop. Parameters and internals are shared by all neurons of the population.
+  @param ast ASTNeuron
+  @result C++ header
+-->
+/*
+*  ${neuronName}_population.h
+*
+*  This file is part of NEST.
+*
+*  Copyright (C) 2004 The NEST Initiative
+*
+*  NEST is free software: you can redistribute it and/or modify
+*  it under the terms of the GNU General Public License as published by
+*  the Free Software Foundation, either version 2 of the License, or
+*  (at your option) any later version.
+*
+*  NEST is distributed in the hope that it will be useful,
+*  but WITHOUT ANY WARRANTY; without even the implied warranty of
+*  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+*  GNU General Public License for more details.
+*
+*  You should have received a copy of the GNU General Public License
+*  along with NEST.  If not, see <http://www.gnu.org/licenses/>.
+*
+*/
+#ifndef ${neuronName?upper_case}_POPULATION
+#define ${neuronName?upper_case}_POPULATION
+
+// C++ includes:
+#include <cstddef>
+#include <vector>
+
+// provides nest::Time, numerics and __ipow which are used in the update loop
+#include "${neuronName}.h"
+
+/**
+ * Updates ${neuronName} neurons of a homogeneous population in one loop.
+ * Every state variable is an array over all neurons of the population. The
+ * update loop has no calls through the node interface and can be vectorised.
+ * @note Input is added per neuron and consumed by the next call of update().
+ * Spike weights are added as they are, i.e. without the sign based routing
+ * of ${neuronName}::handle().
+ */
+class ${neuronName}_population
+{
+public:
+  explicit ${neuronName}_population( const size_t size );
+
+  /**
+   * Computes internals from the parameters. Must be called after parameters
+   * are changed and before the first update.
+   */
+  void calibrate();
+
+  /**
+   * Advances all neurons by one simulation step.
+   * @param spiked Indices of neurons which emitted a spike are appended.
+   */
+  void update( std::vector< size_t >& spiked );
+
+  size_t
+  size() const
+  {
+    return size_;
+  }
+
+  <#list body.getInputBuffers() as buffer>
+  void
+  add_${buffer.getName()}( const size_t i, const double value )
+  {
+    B_.${names.bufferValue(buffer)}[ i ] += value;
+  }
+
+  </#list>
+  <#list body.getStateNonAliasSymbols() as state>
+  ${declarations.printVariableType(state)}
+  get_${state.getName()}( const size_t i ) const
+  {
+    return S_.${state.getName()}[ i ];
+  }
+
+  void
+  set_${state.getName()}( const size_t i, const ${declarations.printVariableType(state)} value )
+  {
+    S_.${state.getName()}[ i ] = value;
+  }
+
+  </#list>
+  /**
+   * Parameters are shared by all neurons of the population.
+   */
+  struct Parameters_
+  {
+    <#list body.getParameterNonAliasSymbols() as parameter>
+      ${tc.includeArgs("org.nest.nestml.neuron.function.MemberDeclaration", [parameter])}
+    </#list>
+  } P_;
+
+private:
+  struct State_
+  {
+    <#list body.getStateNonAliasSymbols() as state>
+    std::vector< ${declarations.printStorageType(state)} > ${state.getName()}; ${state.printComment("//! ")}
+    </#list>
+  } S_;
+
+  struct Variables_
+  {
+    <#list body.getInternalNonAliasSymbols() as internal>
+      ${tc.includeArgs("org.nest.nestml.neuron.function.MemberDeclaration", [internal])}
+    </#list>
+  } V_;
+
+  struct Buffers_
+  {
+    <#list body.getInputBuffers() as buffer>
+    std::vector< double > ${names.bufferValue(buffer)};
+    </#list>
+  } B_;
+
+  const size_t size_;
+
+  // 1 iff. the neuron emitted a spike in the current step
+  std::vector< char > __spiked;
+};
+
+inline
+${neuronName}_population::${neuronName}_population( const size_t size )
+  : size_( size )
+  , __spiked( size, 0 )
+{
+  <#list body.getParameterNonAliasSymbols() as parameter>
+    ${tc.includeArgs("org.nest.nestml.neuron.function.MemberInitialization", [parameter, expressionsPrinter])}
+  </#list>
+
+  <#list body.getStateNonAliasSymbols() as state>
+  S_.${state.getName()}.resize( size );
+  </#list>
+  for ( size_t i = 0; i < size; ++i )
+  {
+    <#list body.getStateNonAliasSymbols() as state>
+      ${tc.includeArgs("org.nest.nestml.neuron.function.MemberInitialization", [state, expressionsPrinter])}
+    </#list>
+  }
+
+  <#list body.getInputBuffers() as buffer>
+  B_.${names.bufferValue(buffer)}.assign( size, 0.0 );
+  </#list>
+}
+
+inline void
+${neuronName}_population::calibrate()
+{
+  <#list body.getInternalNonAliasSymbols() as variable>
+    ${tc.includeArgs("org.nest.nestml.neuron.function.Calibrate", [variable])}
+  </#list>
+}
+
+/*
+ ${body.printDynamicsComment()}
+ */
+inline void
+${neuronName}_population::update( std::vector< size_t >& spiked )
+{
+  const size_t size = size_;
+
+#pragma omp simd
+  for ( size_t i = 0; i < size; ++i )
+  {
+    <#assign dynamics = body.getDynamicsBlock().get()>
+    ${tc.include("org.nest.spl.Block", dynamics.getBlock())}
+
+    <#list body.getInputBuffers() as buffer>
+    B_.${names.bufferValue(buffer)}[ i ] = 0.0;
+    </#list>
+  }
+
+  // spikes are collected outside of the vectorised loop
+  for ( size_t i = 0; i < size; ++i )
+  {
+    if ( __spiked[ i ] )
+    {
+      spiked.push_back( i );
+      __spiked[ i ] = 0;
+    }
+  }
+}
+
+#endif /* #ifndef ${neuronName?upper_case}_POPULATION */
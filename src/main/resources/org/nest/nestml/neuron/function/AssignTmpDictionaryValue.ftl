@@ -5,7 +5,9 @@
   @result C++ Block
 -->
 ${signature("variable")}
-<#if variable.hasSetter() || !variable.isFunction()>
+<#if declarations.isConstant(variable)>
+  // ${statusNames.name(variable)} is fixed at generation time
+<#elseif variable.hasSetter() || !variable.isFunction()>
   ${names.setter(variable)}(tmp_${statusNames.name(variable)});
 <#else>
   // ignores '${statusNames.name(variable)}' ${declarations.printVariableType(variable)}' since it is an function and setter isn't defined
@@ -3,7 +3,9 @@
 -->
 ${signature("variable")}
 
-<#if variable.getVectorParameter().isPresent()>
+<#if declarations.isConstant(variable)>
+// ${variable.getName()} is fixed at generation time
+<#elseif variable.getVectorParameter().isPresent()>
 ${variableHelper.printOrigin(variable)} ${variable.getName()}.resize(P_.${variable.getVectorParameter().get()});
 for (long i=0; i < get_${variable.getVectorParameter().get()}(); i++) {
   ${variableHelper.printOrigin(variable)} ${variable.getName()}[i] =
@@ -0,0 +1,32 @@
+<#--
+  Creates GSL implementation of the Jacobian of the ODE system. It is used by implicit steppers, e.g. bsimp.
+
+  @param ast ASTBody The body of the neuron containing ODE
+  @result C++ Function
+-->
+<#assign dimension = ast.getEquations()?size>
+extern "C" inline int
+${neuronName}_jacobian( double, const double y[], double* dfdy, double dfdt[], void* pnode )
+{
+  typedef ${neuronName}::State_ State_;
+  // get access to node so we can almost work as in a member function
+  assert( pnode );
+  const ${neuronName}& node = *( reinterpret_cast< ${neuronName}* >( pnode ) );
+
+  // dfdy is stored row-major: dfdy[ i * dimension + j ] is the derivative of f[ i ] with respect to y[ j ].
+  // the right hand side depends on the time only through buffers, which are constant during the step.
+  for ( int i = 0; i < ${dimension}; ++i )
+  {
+    dfdt[ i ] = 0.0;
+    for ( int j = 0; j < ${dimension}; ++j )
+    {
+      dfdy[ i * ${dimension} + j ] = 0.0;
+    }
+  }
+
+  <#list jacobian as element>
+  dfdy[ ${names.arrayIndex(element.getRow())} * ${dimension} + ${names.arrayIndex(element.getColumn())} ] = ${expressionsPrinterForGSL.print(element.getExpression())};
+  </#list>
+
+  return GSL_SUCCESS;
+}
@@ -1,8 +1,12 @@
 <#--
-  Generates C++ declaration for a variable
+  Generates C++ declaration for a variable. Variables which are fixed at generation time are declared as constexpr.
 
   @param variable VariableSymbol
   @result C++ declaration
 -->
 ${signature("variable")}
-${declarations.printVariableType(variable)} ${names.name(variable)}; ${variable.printComment("//! ")}
\ No newline at end of file
+<#if declarations.isConstant(variable)>
+static constexpr ${declarations.printStorageType(variable)} ${names.name(variable)} = ${expressionsPrinter.print(variable.getDeclaringExpression().get())}; ${variable.printComment("//! ")}
+<#else>
+${declarations.printStorageType(variable)} ${names.name(variable)}; ${variable.printComment("//! ")}
+</#if>
\ No newline at end of file
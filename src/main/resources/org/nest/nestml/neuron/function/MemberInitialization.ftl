@@ -6,7 +6,9 @@
                  variable is declared (inside a struct or in another method)
 -->
 ${signature("variable", "printer")}
-<#if variable.getDeclaringExpression().isPresent()>
+<#if declarations.isConstant(variable)>
+  // ${names.name(variable)} is fixed at generation time
+<#elseif variable.getDeclaringExpression().isPresent()>
   <#if variable.isVector()>
     ${variableHelper.printOrigin(variable)}${names.name(variable)}.resize(P_.${variable.getVectorParameter().get()}, ${printer.print(variable.getDeclaringExpression().get())});
   <#else>
@@ -11,6 +11,11 @@ ${signature("variable")}
     <#assign simpleExpression = odeTransformer.replaceSumCalls(variable.getDeclaringExpression().get())>
     return ${expressionsPrinter.print(simpleExpression)};
   }
+<#elseif declarations.isConstant(variable)>
+  // ${names.name(variable)} is fixed at generation time and has no setter
+  inline ${declarations.printVariableType(variable)} ${names.getter(variable)}() const {
+    return ${variableHelper.printOrigin(variable)} ${names.name(variable)};
+  }
 <#else>
   inline ${declarations.printVariableType(variable)} ${names.getter(variable)}() const {
     return ${variableHelper.printOrigin(variable)} ${names.name(variable)};
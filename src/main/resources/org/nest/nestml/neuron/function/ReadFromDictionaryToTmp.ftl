@@ -5,7 +5,14 @@
   @result C++ Block
 -->
 ${signature("variable")}
-<#if variable.hasSetter() || !variable.isFunction()>
+<#if declarations.isConstant(variable)>
+  ${declarations.printVariableType(variable)} tmp_${statusNames.name(variable)} = ${names.getter(variable)}();
+  updateValue<${declarations.printVariableType(variable)}>(__d, "${statusNames.name(variable)}", tmp_${statusNames.name(variable)});
+  if ( tmp_${statusNames.name(variable)} != ${names.getter(variable)}() )
+  {
+    throw nest::BadProperty( "The parameter ${statusNames.name(variable)} is fixed at generation time." );
+  }
+<#elseif variable.hasSetter() || !variable.isFunction()>
   ${declarations.printVariableType(variable)} tmp_${statusNames.name(variable)} = ${names.getter(variable)}();
   updateValue<${declarations.printVariableType(variable)}>(__d, "${statusNames.name(variable)}", tmp_${statusNames.name(variable)});
 <#else>
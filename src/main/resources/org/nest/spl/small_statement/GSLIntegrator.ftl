@@ -3,7 +3,90 @@
   all odes defined the neuron.
   @result C++ statements
 -->
+<#assign stateSize = body.getEquations()?size>
 __t = 0;
+<#if isFixedStep>
+// numerical integration with a fixed step size:
+// ---------------------------------------------
+// one ${fixedStepMethod} step over the whole simulation step without step
+// size control; the right-hand side is called directly, not through GSL
+{
+  const double __step_size = B_.__step;
+  double __y_stage[ ${stateSize} ];
+  <#if fixedStepMethod == "rk4">
+  double __k1[ ${stateSize} ], __k2[ ${stateSize} ], __k3[ ${stateSize} ], __k4[ ${stateSize} ];
+
+  ${neuronName}_dynamics( __t, S_.y, __k1, reinterpret_cast< void* >( this ) );
+  for ( int __i = 0; __i < ${stateSize}; ++__i )
+  {
+    __y_stage[ __i ] = S_.y[ __i ] + 0.5 * __step_size * __k1[ __i ];
+  }
+  ${neuronName}_dynamics( __t + 0.5 * __step_size, __y_stage, __k2, reinterpret_cast< void* >( this ) );
+  for ( int __i = 0; __i < ${stateSize}; ++__i )
+  {
+    __y_stage[ __i ] = S_.y[ __i ] + 0.5 * __step_size * __k2[ __i ];
+  }
+  ${neuronName}_dynamics( __t + 0.5 * __step_size, __y_stage, __k3, reinterpret_cast< void* >( this ) );
+  for ( int __i = 0; __i < ${stateSize}; ++__i )
+  {
+    __y_stage[ __i ] = S_.y[ __i ] + __step_size * __k3[ __i ];
+  }
+  ${neuronName}_dynamics( __t + __step_size, __y_stage, __k4, reinterpret_cast< void* >( this ) );
+  for ( int __i = 0; __i < ${stateSize}; ++__i )
+  {
+    S_.y[ __i ] += __step_size / 6.0 * ( __k1[ __i ] + 2.0 * __k2[ __i ] + 2.0 * __k3[ __i ] + __k4[ __i ] );
+  }
+  <#else>
+  // Runge-Kutta-Fehlberg coefficients, the fifth order solution is used
+  double __k1[ ${stateSize} ], __k2[ ${stateSize} ], __k3[ ${stateSize} ];
+  double __k4[ ${stateSize} ], __k5[ ${stateSize} ], __k6[ ${stateSize} ];
+
+  ${neuronName}_dynamics( __t, S_.y, __k1, reinterpret_cast< void* >( this ) );
+  for ( int __i = 0; __i < ${stateSize}; ++__i )
+  {
+    __y_stage[ __i ] = S_.y[ __i ] + __step_size * ( 1.0 / 4.0 ) * __k1[ __i ];
+  }
+  ${neuronName}_dynamics( __t + __step_size / 4.0, __y_stage, __k2, reinterpret_cast< void* >( this ) );
+  for ( int __i = 0; __i < ${stateSize}; ++__i )
+  {
+    __y_stage[ __i ] = S_.y[ __i ] + __step_size * ( 3.0 / 32.0 * __k1[ __i ] + 9.0 / 32.0 * __k2[ __i ] );
+  }
+  ${neuronName}_dynamics( __t + 3.0 / 8.0 * __step_size, __y_stage, __k3, reinterpret_cast< void* >( this ) );
+  for ( int __i = 0; __i < ${stateSize}; ++__i )
+  {
+    __y_stage[ __i ] = S_.y[ __i ] + __step_size * ( 1932.0 / 2197.0 * __k1[ __i ]
+                                                   - 7200.0 / 2197.0 * __k2[ __i ]
+                                                   + 7296.0 / 2197.0 * __k3[ __i ] );
+  }
+  ${neuronName}_dynamics( __t + 12.0 / 13.0 * __step_size, __y_stage, __k4, reinterpret_cast< void* >( this ) );
+  for ( int __i = 0; __i < ${stateSize}; ++__i )
+  {
+    __y_stage[ __i ] = S_.y[ __i ] + __step_size * ( 439.0 / 216.0 * __k1[ __i ]
+                                                   - 8.0 * __k2[ __i ]
+                                                   + 3680.0 / 513.0 * __k3[ __i ]
+                                                   - 845.0 / 4104.0 * __k4[ __i ] );
+  }
+  ${neuronName}_dynamics( __t + __step_size, __y_stage, __k5, reinterpret_cast< void* >( this ) );
+  for ( int __i = 0; __i < ${stateSize}; ++__i )
+  {
+    __y_stage[ __i ] = S_.y[ __i ] + __step_size * ( - 8.0 / 27.0 * __k1[ __i ]
+                                                   + 2.0 * __k2[ __i ]
+                                                   - 3544.0 / 2565.0 * __k3[ __i ]
+                                                   + 1859.0 / 4104.0 * __k4[ __i ]
+                                                   - 11.0 / 40.0 * __k5[ __i ] );
+  }
+  ${neuronName}_dynamics( __t + 0.5 * __step_size, __y_stage, __k6, reinterpret_cast< void* >( this ) );
+  for ( int __i = 0; __i < ${stateSize}; ++__i )
+  {
+    S_.y[ __i ] += __step_size * ( 16.0 / 135.0 * __k1[ __i ]
+                                 + 6656.0 / 12825.0 * __k3[ __i ]
+                                 + 28561.0 / 56430.0 * __k4[ __i ]
+                                 - 9.0 / 50.0 * __k5[ __i ]
+                                 + 2.0 / 55.0 * __k6[ __i ] );
+  }
+  </#if>
+}
+<#else>
 // numerical integration with adaptive step size control:
 // ------------------------------------------------------
 // gsl_odeiv_evolve_apply performs only a single numerical
@@ -30,4 +113,5 @@ while ( __t < B_.__step )
   if ( status != GSL_SUCCESS ) {
     throw nest::GSLSolverFailure( get_name(), status );
   }
-}
\ No newline at end of file
+}
+</#if>
@@ -2,17 +2,21 @@ import json
 
 from sympy import *
 from sympy.parsing.sympy_parser import parse_expr
+from sympy.printing.precedence import precedence
+from sympy.printing.str import StrPrinter
 
 from prop_matrix import PropagatorCalculator
 from shapes import ShapeFunction
 
 import sys
+import traceback
 
 
 class SolverInput:
     """
     Parses and encapsulates JSON input into an object with the following fields:
-    `functions`, `shapes`, `ode`
+    `functions`, `shapes`, `ode` and optionally `odes`. If `odes` is present, the Jacobian of the ODE system is
+    computed.
     """
 
     def __init__(self, json_serialization):
@@ -20,6 +24,7 @@ class SolverInput:
         self.functions = []
         self.shapes = []
         self.ode = ""
+        self.odes = []
 
         self.__dict__ = json.loads(json_serialization)
 
@@ -46,6 +51,7 @@ class SolverOutput:
         self.const_input = const_input
         self.updates_to_shape_state_variables = []
         self.shape_state_odes = []
+        self.jacobian_elements = []
 
     def decode_apostroph(self, ode):
         return
@@ -62,6 +68,42 @@ class SolverOutput:
     def add_initial_values(self, initial_values):
         self.initial_values += initial_values
 
+    def add_jacobian_element(self, row, column, expression):
+        self.jacobian_elements.append({"row": row, "column": column, "expression": expression})
+
+
+class NestmlPrinter(StrPrinter):
+    """
+    Prints SymPy expressions in the NESTML syntax. NESTML has neither `sqrt` nor `Heaviside` and divides integer
+    literals as C++ does. Its `min` and `max` functions have exactly two arguments.
+    """
+
+    def _print_Exp1(self, expr):
+        return "e"
+
+    def _print_Rational(self, expr):
+        return "%d.0/%d.0" % (expr.p, expr.q)
+
+    def _print_Heaviside(self, expr):
+        return "((%s) > 0 ? 1.0 : 0.0)" % self._print(expr.args[0])
+
+    def _print_Min(self, expr):
+        return self._print_nested_function("min", expr.args)
+
+    def _print_Max(self, expr):
+        return self._print_nested_function("max", expr.args)
+
+    def _print_nested_function(self, name, args):
+        if len(args) == 1:
+            return self._print(args[0])
+        return "%s(%s, %s)" % (name, self._print(args[0]), self._print_nested_function(name, args[1:]))
+
+    def _print_Pow(self, expr, rational=False):
+        if expr.exp == S.Half or expr.exp == -S.Half:
+            base = self.parenthesize(expr.base, precedence(expr))
+            return base + "**0.5" if expr.exp == S.Half else "1.0/" + base + "**0.5"
+        return StrPrinter._print_Pow(self, expr, rational)
+
 
 h = symbols("__h")
 
@@ -96,6 +138,8 @@ class OdeAnalyzer(object):
     @staticmethod
     def compute_solution(input_json):
         input_ode_block = SolverInput(input_json)
+        if "odes" in input_ode_block.__dict__ and len(input_ode_block.odes) > 0:
+            return OdeAnalyzer.compute_ode_system(input_ode_block)
 
         """
         The function computes a list with propagator matrices.
@@ -225,6 +269,103 @@ class OdeAnalyzer(object):
             result.add_updates_to_shape_state_variables(shape.get_updates_to_shape_state_variables())
         return json.dumps(result.__dict__, indent=2)
 
+    @staticmethod
+    def compute_ode_system(input_ode_block):
+        """
+        Analyses an ODE system which otherwise is integrated numerically. Every ODE is of the form
+        `state_var = python_expression`, where `state_var` is the variable integrated by the ODE. Derivatives in names
+        are encoded as `__d`. Functions are substituted into the ODEs before the analysis.
+
+        If the system is linear with constant coefficients, i.e. y' = A*y + b, it is solved exactly: the `solver` is
+        `exact`, `propagator_elements` contain the non-zero elements of P = exp(A*h) as `__P__i_j` and of the input
+        propagator Q = integral of exp(A*s) over [0, h] as `__Q__i_j`. `ode_var_update_instructions` compute
+        y = P*y + Q*b with temporary variables, since every update uses the values from the beginning of the step.
+
+        Otherwise, the `solver` is `jacobian`. In both cases, `jacobian_elements` contain the non-zero derivatives of
+        the ODE of the `row` variable with respect to the `column` variable.
+
+        :returns The JSON result or None, if the system is not linear and its Jacobian contains functions which cannot
+        be printed as NESTML.
+        """
+        definitions = {"min": Min, "max": Max, "bounded_min": Min, "bounded_max": Max}
+        state_vars = []
+        for ode in input_ode_block.odes:
+            state_var = ode.split('=', 1)[0].strip()
+            definitions[state_var] = Symbol(state_var)
+            state_vars.append(state_var)
+
+        for function_def in input_ode_block.functions:
+            tmp = function_def.split('=', 1)
+            definitions[tmp[0].strip()] = parse_expr(tmp[1].strip(), local_dict=definitions)
+
+        state_symbols = [definitions[state_var] for state_var in state_vars]
+        ode_rhss = [parse_expr(ode.split('=', 1)[1].strip(), local_dict=definitions) for ode in input_ode_block.odes]
+        jacobian = Matrix([[diff(ode_rhs, state_symbol) for state_symbol in state_symbols] for ode_rhs in ode_rhss])
+
+        printer = NestmlPrinter()
+        result = SolverOutput("success", "jacobian", None, None, None, None)
+        is_printable = all(OdeAnalyzer.is_printable(element) for element in jacobian)
+        if is_printable:
+            for i, row_var in enumerate(state_vars):
+                for j, column_var in enumerate(state_vars):
+                    if jacobian[i, j] != 0:
+                        result.add_jacobian_element(row_var, column_var, printer.doprint(jacobian[i, j]))
+
+        if OdeAnalyzer.is_linear_constant_coefficient_system(jacobian, state_symbols, ode_rhss):
+            const_inputs = [simplify(ode_rhs - (jacobian[i, :] * Matrix(state_symbols))[0, 0])
+                            for i, ode_rhs in enumerate(ode_rhss)]
+            P, Q = PropagatorCalculator.ode_system_to_prop_matrices(jacobian, h)
+
+            result.solver = "exact"
+            result.propagator_elements = []
+            result.ode_var_update_instructions = []
+            for i, state_var in enumerate(state_vars):
+                summands = []
+                for j, column_var in enumerate(state_vars):
+                    if P[i, j] != 0:
+                        result.propagator_elements.append({"__P__{}_{}".format(i, j): printer.doprint(P[i, j])})
+                        summands.append("__P__{}_{} * {}".format(i, j, column_var))
+                    if Q[i, j] != 0 and const_inputs[j] != 0:
+                        result.propagator_elements.append({"__Q__{}_{}".format(i, j): printer.doprint(Q[i, j])})
+                        summands.append("__Q__{}_{} * ({})".format(i, j, printer.doprint(const_inputs[j])))
+
+                update = " + ".join(summands) if summands else "0.0"
+                result.ode_var_update_instructions.append("__tmp__{} real = {}".format(i, update))
+
+            for i, state_var in enumerate(state_vars):
+                result.ode_var_update_instructions.append("{} = __tmp__{}".format(state_var, i))
+
+        elif not is_printable:
+            return None
+
+        return json.dumps(result.__dict__, indent=2)
+
+    @staticmethod
+    def is_linear_constant_coefficient_system(jacobian, state_symbols, ode_rhss):
+        """
+        The system is linear with constant coefficients iff. its Jacobian depends neither on state variables nor on
+        the time and the remaining inhomogeneous part doesn't depend on the time.
+        """
+        t = Symbol("t")
+        for element in jacobian:
+            if element.has(t) or any(diff(element, state_symbol) != 0 for state_symbol in state_symbols):
+                return False
+        for i, ode_rhs in enumerate(ode_rhss):
+            if (ode_rhs - (jacobian[i, :] * Matrix(state_symbols))[0, 0]).has(t):
+                return False
+        return True
+
+    @staticmethod
+    def is_printable(expr):
+        if expr.has(S.ImaginaryUnit, S.NaN, S.ComplexInfinity):
+            return False
+        for node in preorder_traversal(expr):
+            if node.is_Function and not isinstance(node, (exp, log, Heaviside, Min, Max)):
+                return False
+            if isinstance(node, (Derivative, Subs)):
+                return False
+        return True
+
     @staticmethod
     def convert_shapes_to_odes(shape_functions):
         result = SolverOutput("success", "numeric", None, None, None, None)
@@ -235,8 +376,95 @@ class OdeAnalyzer(object):
         return result
 
 
+def solve_safely(request):
+    """
+    Evaluates one JSON serialization of the `SolverInput`.
+    :return: The `SolverOutput` as a dictionary. Errors are reported as the failed status.
+    """
+    try:
+        result = OdeAnalyzer.compute_solution(request)
+    except Exception:
+        traceback.print_exc()
+        result = None
+
+    if result is None:
+        return {"status": "failed"}
+    else:
+        return json.loads(result)
+
+
+def solve_batch(batch, processes=None):
+    """
+    Evaluates independent solver inputs in a pool of processes.
+    :param batch: A dictionary which maps neuron names to deserialized `SolverInput`s
+    :param processes: The size of the pool. None means the number of available CPUs.
+    :return: A dictionary which maps neuron names to `SolverOutput`s.
+    """
+    neuron_names = sorted(batch.keys())
+    requests = [json.dumps(batch[neuron_name]) for neuron_name in neuron_names]
+    if len(requests) > 1 and processes != 1:
+        from multiprocessing import Pool
+        pool = Pool(processes)
+        try:
+            results = pool.map(solve_safely, requests)
+        finally:
+            pool.close()
+            pool.join()
+    else:
+        results = [solve_safely(request) for request in requests]
+
+    return dict(zip(neuron_names, results))
+
+
+def serve(input_stream, output_stream):
+    """
+    Evaluates solver inputs which are read line by line from the `input_stream`. Every input is a JSON serialization
+    of the `SolverInput` or a batch `{"batch": {<neuron name>: <SolverInput>, ...}}`. Every result is written as a
+    single line JSON into the `output_stream`, for a batch as `{<neuron name>: <SolverOutput>, ...}`. The loop
+    terminates as soon as the `input_stream` is closed.
+    Batches are solved in this process. Several servers run side by side and the client distributes a batch over
+    them, so an own pool of every server would oversubscribe the CPUs.
+    """
+    for line in iter(input_stream.readline, ''):
+        request = line.strip()
+        if not request:
+            continue
+
+        try:
+            parsed_request = json.loads(request)
+        except ValueError:
+            traceback.print_exc()
+            parsed_request = {}
+
+        if "batch" in parsed_request:
+            response = solve_batch(parsed_request["batch"], processes=1)
+        else:
+            response = solve_safely(request)
+
+        output_stream.write(json.dumps(response) + "\n")
+        output_stream.flush()
+
+
 # MAIN ENTRY POINT ###
 if __name__ == "__main__":
+    if len(sys.argv) > 1 and sys.argv[1] == "--server":
+        # responses are written into the original stdout. all other outputs are redirected into stderr in order to
+        # keep the protocol readable.
+        protocol_stream = sys.stdout
+        sys.stdout = sys.stderr
+        serve(sys.stdin, protocol_stream)
+        sys.exit(0)
+
+    if len(sys.argv) > 3 and sys.argv[1] == "--batch":
+        # the batch is passed through a file, since it can exceed the maximal length of the command line
+        with open(sys.argv[2]) as batch_file:
+            batch_result = solve_batch(json.load(batch_file)["batch"])
+        with open(sys.argv[3], 'w') as result_file:
+            json.dump(batch_result, result_file, indent=2)
+        sys.exit(0)
+
     result = OdeAnalyzer.compute_solution(sys.argv[1])
-    f = open('result.tmp', 'w')
+    # the optional second argument defines the name of the result file
+    result_file = sys.argv[2] if len(sys.argv) > 2 else 'result.tmp'
+    f = open(result_file, 'w')
     f.write(result)
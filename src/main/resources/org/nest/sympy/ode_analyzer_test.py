@@ -41,6 +41,25 @@ delta_shape = '{' \
               '"ode" : "V_abs\' = (-1)/tau_m*V_abs+1/C_m*(G+I_e+currents)"'\
               '}'
 
+aeif_system = '{' \
+              '"functions" : [ "V_bounded = bounded_min(V_m, V_peak)", "I_spike = g_L*Delta_T*exp((V_bounded-V_th)/Delta_T)" ],' \
+              '"shapes" : [ ],' \
+              '"ode" : null,' \
+              '"odes" : [ "V_m = (-g_L*(V_bounded-E_L)+I_spike-g_ex__d*(V_bounded-E_ex)-w+I_e)/C_m", ' \
+              '"w = (a*(V_m-E_L)-w)/tau_w", ' \
+              '"g_ex__d = (-2/tau_syn_ex)*g_ex__d-(1/tau_syn_ex**2)*g_ex", ' \
+              '"g_ex = g_ex__d" ]' \
+              '}'
+
+linear_system = '{' \
+                '"functions" : [ "I_syn = g_ex*(E_ex-E_L)" ],' \
+                '"shapes" : [ ],' \
+                '"ode" : null,' \
+                '"odes" : [ "V_m = -(V_m-E_L)/tau_m+(I_syn+w+I_e)/C_m", ' \
+                '"w = (a*(V_m-E_L)-w)/tau_w", ' \
+                '"g_ex = -g_ex/tau_syn_ex" ]' \
+                '}'
+
 
 class TestSolutionComputation(unittest.TestCase):
 
@@ -99,5 +118,32 @@ class TestSolutionComputation(unittest.TestCase):
         self.assertIsNotNone(testant)
         print testant
 
+    def test_jacobian(self):
+        result = OdeAnalyzer.compute_solution(aeif_system)
+        self.assertIsNotNone(result)
+        testant = json.loads(result)
+        self.assertEqual("jacobian", testant["solver"])
+        elements = dict(((element["row"], element["column"]), element["expression"])
+                        for element in testant["jacobian_elements"])
+        self.assertTrue(("V_m", "V_m") in elements)
+        self.assertTrue(("V_m", "w") in elements)
+        self.assertTrue(("g_ex__d", "g_ex") in elements)
+        self.assertFalse(("w", "g_ex__d") in elements)
+        # bounded_min is printed as the NESTML function min
+        self.assertTrue("min(" in elements[("V_m", "V_m")])
+        self.assertFalse("Min(" in elements[("V_m", "V_m")])
+        print testant
+
+    def test_linear_system(self):
+        testant = json.loads(OdeAnalyzer.compute_solution(linear_system))
+        self.assertEqual("exact", testant["solver"])
+        propagators = [propagator.keys()[0] for propagator in testant["propagator_elements"]]
+        self.assertTrue("__P__0_1" in propagators)
+        self.assertFalse("__P__2_0" in propagators)
+        # 3 temporary variables and 3 assignments
+        self.assertEqual(6, len(testant["ode_var_update_instructions"]))
+        print testant
+
+
 if __name__ == '__main__':
     unittest.main()
@@ -97,6 +97,26 @@ class PropagatorCalculator(object):
 
         return prop_matrices, simplify(const_input), simplify(step_const)
 
+    @staticmethod
+    def ode_system_to_prop_matrices(A, h):
+        """
+        Computes propagators for the linear constant coefficient system y' = A*y + b, where b is constant during a
+        step of length `h`: y(t + h) = P*y(t) + Q*b.
+        :returns P = exp(A*h) and Q = integral of exp(A*s) over [0, h]
+        """
+        n = A.rows
+        P = simplify(exp(A * h))
+        if simplify(A.det()) != 0:
+            Q = simplify(A.inv() * (P - eye(n)))
+        else:
+            # A is singular. Q is the upper right block of the exponential of the augmented matrix [[A, I], [0, 0]]
+            augmented = zeros(2 * n)
+            augmented[:n, :n] = A
+            augmented[:n, n:] = eye(n)
+            Q = simplify(exp(augmented * h)[:n, n:])
+
+        return P, Q
+
     @staticmethod
     def constant_input(step_const, ode_var_str):
         return "__ode_var_factor * " + ode_var_str + " + __const_input * (" + str(step_const) + ")"
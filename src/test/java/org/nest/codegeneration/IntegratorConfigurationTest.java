@@ -0,0 +1,65 @@
+/*
+ * Copyright (c)  RWTH Aachen. All rights reserved.
+ *
+ * http://www.se-rwth.de/
+ */
+package org.nest.codegeneration;
+
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the parsing of the GSL stepper specification.
+ */
+public class IntegratorConfigurationTest {
+
+  @Test
+  public void testDefaultStepper() {
+    final IntegratorConfiguration testant = new IntegratorConfiguration();
+    assertEquals(IntegratorConfiguration.DEFAULT_STEPPER, testant.getStepper("iaf_cond_alpha"));
+  }
+
+  @Test
+  public void testNeuronSteppers() {
+    final Optional<IntegratorConfiguration> testant = IntegratorConfiguration.fromString(
+        "rk4imp, hh_psc_alpha=bsimp");
+    assertTrue(testant.isPresent());
+    assertEquals("bsimp", testant.get().getStepper("hh_psc_alpha"));
+    assertEquals("rk4imp", testant.get().getStepper("iaf_cond_alpha"));
+    assertTrue(IntegratorConfiguration.requiresJacobian("bsimp"));
+    assertFalse(IntegratorConfiguration.requiresJacobian("rk4imp"));
+  }
+
+  @Test
+  public void testTolerances() {
+    final Optional<IntegratorConfiguration> testant = IntegratorConfiguration.fromString(
+        "rk4imp:1e-6:1e-5, hh_psc_alpha=:1e-8, iaf_cond_alpha=fixed_rk45");
+    assertTrue(testant.isPresent());
+    assertEquals("rk4imp", testant.get().getStepper("hh_psc_alpha"));
+    assertEquals(1e-8, testant.get().getAbsoluteTolerance("hh_psc_alpha"), 0.0);
+    assertEquals(1e-5, testant.get().getRelativeTolerance("hh_psc_alpha"), 0.0);
+    assertEquals(1e-6, testant.get().getAbsoluteTolerance("aeif_cond_alpha"), 0.0);
+    assertFalse(testant.get().getFixedStepMethod("hh_psc_alpha").isPresent());
+    assertEquals("rk45", testant.get().getFixedStepMethod("iaf_cond_alpha").get());
+
+    final IntegratorConfiguration defaultConfiguration = new IntegratorConfiguration();
+    assertEquals(
+        IntegratorConfiguration.DEFAULT_ABSOLUTE_TOLERANCE,
+        defaultConfiguration.getAbsoluteTolerance("iaf_cond_alpha"),
+        0.0);
+  }
+
+  @Test
+  public void testInvalidSteppers() {
+    assertFalse(IntegratorConfiguration.fromString("msadams").isPresent());
+    assertFalse(IntegratorConfiguration.fromString("hh_psc_alpha=bsimp=rk4").isPresent());
+    assertFalse(IntegratorConfiguration.fromString("").isPresent());
+    assertFalse(IntegratorConfiguration.fromString("rkf45:0").isPresent());
+    assertFalse(IntegratorConfiguration.fromString("rkf45:1e-3:small").isPresent());
+    assertFalse(IntegratorConfiguration.fromString("rkf45:1e-3:0:1").isPresent());
+  }
+
+}
@@ -9,10 +9,22 @@ import com.google.common.collect.Lists;
 import org.junit.Before;
 import org.junit.Test;
 import org.nest.base.GenerationBasedTest;
+import org.nest.codegeneration.helpers.Names;
+import org.nest.nestml._ast.ASTNESTMLCompilationUnit;
+import org.nest.nestml._ast.ASTNeuron;
+import org.nest.nestml._symboltable.symbols.VariableSymbol;
 import org.nest.utils.FilesHelper;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Generates entire NEST implementation for several NESTML models. Uses MOCKs or works with models without ODEs.
@@ -23,6 +35,8 @@ public class NestCodeGeneratorTest extends GenerationBasedTest {
   private static final String PSC_MODEL_WITH_ODE = "models/iaf_psc_alpha.nestml";
   private static final String PSC_MODEL_THREE_BUFFERS = "src/test/resources/codegeneration/iaf_psc_alpha_three_buffers.nestml";
   private static final String COND_MODEL_WITH_ODE = "models/iaf_cond_alpha.nestml";
+  private static final String PSC_EXP_MODEL = "models/iaf_psc_exp.nestml";
+  private static final String TIME_DEPENDENT_MODEL = "src/test/resources/codegeneration/quiescence/time_dependent_neuron.nestml";
 
   @Before
   public void cleanUp() {
@@ -54,4 +68,113 @@ public class NestCodeGeneratorTest extends GenerationBasedTest {
     generateNESTModuleCode(model_with_multiple_buffers);
   }
 
+  @Test
+  public void testPopulationKernel() throws IOException {
+    final NestCodeGenerator populationGenerator = new NestCodeGenerator.Builder()
+        .withPopulationKernel(true)
+        .build();
+    final ASTNESTMLCompilationUnit root = parseAndBuildSymboltable(PSC_EXP_MODEL);
+    populationGenerator.analyseAndGenerate(root, CODE_GEN_OUTPUT);
+
+    final Path populationKernel = Paths.get(
+        CODE_GEN_OUTPUT.toString(),
+        root.getNeurons().get(0).getName() + "_population.h");
+    assertTrue(Files.exists(populationKernel));
+    assertTrue(new String(Files.readAllBytes(populationKernel)).contains("#pragma omp simd"));
+
+    // the ODEs are not solved yet
+    assertFalse(NestCodeGenerator.isPopulationKernelSupported(root.getNeurons().get(0)));
+  }
+
+  @Test
+  public void testMixedPrecision() throws IOException {
+    final NestCodeGenerator mixedPrecisionGenerator = new NestCodeGenerator.Builder()
+        .withPrecision(Precision.MIXED)
+        .build();
+    final ASTNESTMLCompilationUnit root = parseAndBuildSymboltable(PSC_EXP_MODEL);
+    mixedPrecisionGenerator.analyseAndGenerate(root, CODE_GEN_OUTPUT);
+
+    final Path header = Paths.get(CODE_GEN_OUTPUT.toString(), root.getNeurons().get(0).getName() + ".h");
+    final String headerContent = new String(Files.readAllBytes(header));
+    assertTrue(headerContent.contains("float V_abs;"));
+    // propagators stay double
+    assertFalse(headerContent.contains("float __P"));
+  }
+
+  @Test
+  public void testFixedParameters() throws IOException {
+    final Path parameterFile = Paths.get(CODE_GEN_OUTPUT.toString(), "fixed_parameters.json");
+    Files.createDirectories(CODE_GEN_OUTPUT);
+    Files.write(
+        parameterFile,
+        "{\"resolution\": 0.1, \"neurons\": {\"iaf_psc_exp_neuron\": {\"tau_m\": 20.0, \"t_ref\": 3.0}}}".getBytes());
+    final Optional<ParameterSet> parameterSet = ParameterSet.load(parameterFile);
+    assertTrue(parameterSet.isPresent());
+
+    final NestCodeGenerator specializingGenerator = new NestCodeGenerator.Builder()
+        .withParameterSet(parameterSet.get())
+        .build();
+    final ASTNESTMLCompilationUnit root = parseAndBuildSymboltable(PSC_EXP_MODEL);
+    specializingGenerator.analyseAndGenerate(root, CODE_GEN_OUTPUT);
+
+    final Path header = Paths.get(CODE_GEN_OUTPUT.toString(), root.getNeurons().get(0).getName() + ".h");
+    final String headerContent = new String(Files.readAllBytes(header));
+    assertTrue(headerContent.contains("static constexpr double tau_m"));
+    // steps(t_ref) is evaluated for the fixed resolution
+    assertTrue(headerContent.contains("RefractoryCounts = 30"));
+    // other parameters can be changed at runtime
+    assertFalse(headerContent.contains("static constexpr double C_m"));
+  }
+
+  @Test
+  public void testQuiescence() throws IOException {
+    final NestCodeGenerator quiescentGenerator = new NestCodeGenerator.Builder()
+        .withQuiescence(true)
+        .build();
+    final ASTNESTMLCompilationUnit root = parseAndBuildSymboltable(COND_MODEL_WITH_ODE);
+    final ASTNeuron astNeuron = root.getNeurons().get(0);
+    assertTrue(NestCodeGenerator.isQuiescenceSupported(astNeuron));
+    quiescentGenerator.analyseAndGenerate(root, CODE_GEN_OUTPUT);
+
+    final Path implementation = Paths.get(CODE_GEN_OUTPUT.toString(), astNeuron.getName() + ".cpp");
+    final String implementationContent = new String(Files.readAllBytes(implementation));
+    final int restCheckStart = implementationContent.indexOf("::is_at_rest_(");
+    assertTrue(restCheckStart >= 0);
+    final String restCheck = implementationContent.substring(
+        restCheckStart,
+        implementationContent.indexOf("return true;", restCheckStart));
+    // only an exact fixed point can be skipped without changing the results
+    assertFalse(restCheck.contains("std::abs"));
+    for (final VariableSymbol state:astNeuron.getBody().getStateNonAliasSymbols()) {
+      final String name = Names.name(state);
+      assertTrue(restCheck.contains("S_." + name + " != __previous." + name));
+    }
+
+    // the update step depends on the time
+    final ASTNESTMLCompilationUnit timeDependentRoot = parseAndBuildSymboltable(TIME_DEPENDENT_MODEL);
+    assertFalse(NestCodeGenerator.isQuiescenceSupported(timeDependentRoot.getNeurons().get(0)));
+    quiescentGenerator.analyseAndGenerate(timeDependentRoot, CODE_GEN_OUTPUT);
+    final Path timeDependentImplementation = Paths.get(
+        CODE_GEN_OUTPUT.toString(),
+        timeDependentRoot.getNeurons().get(0).getName() + ".cpp");
+    assertFalse(new String(Files.readAllBytes(timeDependentImplementation)).contains("is_at_rest_"));
+  }
+
+  @Test
+  public void testBenchmark() {
+    final NestCodeGenerator benchmarkGenerator = new NestCodeGenerator.Builder()
+        .withBenchmark(true)
+        .build();
+    final ASTNESTMLCompilationUnit root = parseAndBuildSymboltable(PSC_EXP_MODEL);
+    benchmarkGenerator.analyseAndGenerate(root, CODE_GEN_OUTPUT);
+    benchmarkGenerator.generateBenchmarkHarness(Lists.newArrayList(root), MODULE_NAME, CODE_GEN_OUTPUT);
+
+    final String neuronName = root.getNeurons().get(0).getName();
+    final Path benchmarkFolder = Paths.get(CODE_GEN_OUTPUT.toString(), "benchmark");
+    assertTrue(Files.exists(Paths.get(benchmarkFolder.toString(), neuronName + "_benchmark.cpp")));
+    assertTrue(Files.exists(Paths.get(benchmarkFolder.toString(), "CMakeLists.txt")));
+    assertTrue(Files.exists(Paths.get(benchmarkFolder.toString(), "stubs", "nest_standalone.h")));
+    assertTrue(Files.exists(Paths.get(benchmarkFolder.toString(), "stubs", "ring_buffer.h")));
+  }
+
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c)  RWTH Aachen. All rights reserved.
+ *
+ * http://www.se-rwth.de/
+ */
+package org.nest.codegeneration.sympy;
+
+import org.junit.Test;
+import org.nest.base.ModelbasedTest;
+import org.nest.nestml._ast.ASTNESTMLCompilationUnit;
+import org.nest.nestml._ast.ASTNeuron;
+import org.nest.nestml._symboltable.symbols.VariableSymbol;
+import org.nest.nestml.prettyprinter.NESTMLPrettyPrinter;
+
+import java.util.Optional;
+
+import static org.junit.Assert.assertTrue;
+import static org.nest.utils.AstUtils.deepCloneNeuronAndBuildSymbolTable;
+
+/**
+ * Checks that invariant subexpressions are moved into internals and repeated subexpressions into ODE functions.
+ */
+public class EquationsOptimizerTest extends ModelbasedTest {
+  private static final String MODEL_FILE_PATH = "models/hh_psc_alpha.nestml";
+
+  @Test
+  public void testOptimization() {
+    final ASTNESTMLCompilationUnit root = parseAndBuildSymboltable(MODEL_FILE_PATH);
+    // the second neuron defines the synapses through ODEs, so that the neuron is integrated with GSL
+    final ASTNeuron optimizedNeuron = deepCloneNeuronAndBuildSymbolTable(
+        new EquationsOptimizer().optimize(root.getNeurons().get(1)),
+        OUTPUT_FOLDER);
+
+    // e.g. (-2/tau_syn_in)
+    final Optional<VariableSymbol> invariant = VariableSymbol.resolveIfExists(
+        "__inv__0",
+        optimizedNeuron.getSpannedScope().get());
+    assertTrue(invariant.isPresent());
+    assertTrue(invariant.get().getBlockType().equals(VariableSymbol.BlockType.INTERNALS));
+
+    // e.g. V_m/mV+65.
+    final Optional<VariableSymbol> commonSubexpression = VariableSymbol.resolveIfExists(
+        "__cse__0",
+        optimizedNeuron.getSpannedScope().get());
+    assertTrue(commonSubexpression.isPresent());
+    assertTrue(commonSubexpression.get().isFunction());
+    assertTrue(commonSubexpression.get().isInEquation());
+
+    final String equations = NESTMLPrettyPrinter.Builder.build().print(optimizedNeuron.getBody().getOdeBlock().get());
+    assertTrue(equations.contains("__inv__0"));
+  }
+
+}
@@ -36,6 +36,7 @@ public class SolverInputTest extends ModelbasedTest {
   private static final String COND_MODEL_FILE_PATH = "models/iaf_cond_alpha.nestml";
   private static final String PSC_MODEL_FILE_PATH = "models/iaf_psc_alpha.nestml";
   private static final String DELTA_MODEL_FILE_PATH = "models/iaf_psc_delta.nestml";
+  private static final String AEIF_MODEL_FILE_PATH = "models/aeif_cond_alpha.nestml";
 
   @Test
   public void test_cond_model() {
@@ -85,4 +86,26 @@ public class SolverInputTest extends ModelbasedTest {
 
   }
 
-}
\ No newline at end of file
+  @Test
+  public void test_ode_system_input() {
+    ASTNESTMLCompilationUnit root = parseAndBuildSymboltable(AEIF_MODEL_FILE_PATH);
+
+    // the implicit variant defines the alpha shapes through ODEs of the second order
+    final ASTOdeDeclaration odeBlock = root.getNeurons().get(1).getBody().getOdeBlock().get();
+    assertFalse(new SolverInput(odeBlock).toJSON().contains("odes"));
+
+    final SolverInput solverInput = SolverInput.forOdeSystem(odeBlock);
+    assertEquals(odeBlock.getODEs().size(), solverInput.odes.size());
+    assertTrue(solverInput.odes.stream().noneMatch(ode -> ode.contains("'")));
+    assertTrue(solverInput.odes.stream().anyMatch(ode -> ode.startsWith("g_ex__d = ")));
+    System.out.println(solverInput.toJSON());
+  }
+
+  @Test
+  public void test_derivative_names() {
+    assertEquals("g_ex__d__d + V_m", SolverInput.encodeDerivatives("g_ex'' + V_m"));
+    assertEquals("g_ex'' + V_m", SolverInput.decodeDerivatives("g_ex__d__d + V_m"));
+    assertEquals("g_ex__dt", SolverInput.decodeDerivatives("g_ex__dt"));
+  }
+
+}
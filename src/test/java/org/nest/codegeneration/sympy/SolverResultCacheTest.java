@@ -0,0 +1,78 @@
+/*
+ * SolverResultCacheTest.java
+ *
+ * This file is part of NEST.
+ *
+ * Copyright (C) 2004 The NEST Initiative
+ *
+ * NEST is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * NEST is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NEST.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.nest.codegeneration.sympy;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import org.nest.base.ModelbasedTest;
+import org.nest.utils.FilesHelper;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that solver results are stored, found and evicted correctly.
+ */
+public class SolverResultCacheTest extends ModelbasedTest {
+  private static final Path CACHE_FOLDER = Paths.get(OUTPUT_FOLDER.toString(), "sympy_cache");
+
+  @Test
+  public void testStoreAndLookup() {
+    FilesHelper.deleteFilesInFolder(CACHE_FOLDER);
+    final SolverResultCache testant = new SolverResultCache(CACHE_FOLDER);
+    final SolverInput solverInput = new SolverInput(Lists.newArrayList());
+
+    assertFalse(testant.lookup(solverInput).isPresent());
+
+    testant.store(solverInput, SolverOutput.fromJSON(SolverJsonData.IAF_PSC_ALPHA));
+    final Optional<SolverOutput> cached = testant.lookup(solverInput);
+    assertTrue(cached.isPresent());
+    assertEquals("exact", cached.get().solver);
+  }
+
+  @Test
+  public void testFailedResultsAreNotStored() {
+    FilesHelper.deleteFilesInFolder(CACHE_FOLDER);
+    final SolverResultCache testant = new SolverResultCache(CACHE_FOLDER);
+    final SolverInput solverInput = new SolverInput(Lists.newArrayList());
+
+    testant.store(solverInput, SolverOutput.getErrorResult());
+    assertFalse(testant.lookup(solverInput).isPresent());
+  }
+
+  @Test
+  public void testEviction() {
+    FilesHelper.deleteFilesInFolder(CACHE_FOLDER);
+    // too small for any entry
+    final SolverResultCache testant = new SolverResultCache(CACHE_FOLDER, 1);
+    final SolverInput solverInput = new SolverInput(Lists.newArrayList());
+
+    testant.store(solverInput, SolverOutput.fromJSON(SolverJsonData.IAF_PSC_ALPHA));
+    assertFalse(testant.lookup(solverInput).isPresent());
+  }
+
+}
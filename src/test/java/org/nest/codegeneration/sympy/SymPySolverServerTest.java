@@ -0,0 +1,85 @@
+/*
+ * SymPySolverServerTest.java
+ *
+ * This file is part of NEST.
+ *
+ * Copyright (C) 2004 The NEST Initiative
+ *
+ * NEST is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * NEST is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NEST.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nest.codegeneration.sympy;
+
+import com.google.common.collect.Maps;
+import org.junit.Test;
+import org.nest.base.ModelbasedTest;
+import org.nest.nestml._ast.ASTNESTMLCompilationUnit;
+import org.nest.nestml._symboltable.NESTMLScopeCreator;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Evaluates several requests on the same pooled SymPy worker.
+ */
+public class SymPySolverServerTest extends ModelbasedTest {
+  private static final String IAF_PSC_ALPHA = "models/iaf_psc_alpha.nestml";
+  private static final String IAF_COND_ALPHA = "models/iaf_cond_alpha.nestml";
+
+  @Test
+  public void testSequentialRequests() throws IOException {
+    final Optional<SymPySolverServer> server = SymPySolverServer.get();
+    assertTrue(server.isPresent());
+
+    final Optional<SolverOutput> alpha = server.get().solve(createSolverInput(IAF_PSC_ALPHA));
+    assertTrue(alpha.isPresent());
+    assertEquals("success", alpha.get().status);
+    assertEquals("exact", alpha.get().solver);
+
+    final Optional<SolverOutput> condAlpha = server.get().solve(createSolverInput(IAF_COND_ALPHA));
+    assertTrue(condAlpha.isPresent());
+    assertEquals("success", condAlpha.get().status);
+    assertEquals("numeric", condAlpha.get().solver);
+  }
+
+  @Test
+  public void testBatchRequest() throws IOException {
+    final Optional<SymPySolverServer> server = SymPySolverServer.get();
+    assertTrue(server.isPresent());
+
+    final Map<String, SolverInput> batch = Maps.newTreeMap();
+    batch.put("iaf_psc_alpha", createSolverInput(IAF_PSC_ALPHA));
+    batch.put("iaf_cond_alpha", createSolverInput(IAF_COND_ALPHA));
+
+    final Optional<Map<String, SolverOutput>> results = server.get().solveBatch(batch);
+    assertTrue(results.isPresent());
+    assertEquals(2, results.get().size());
+    assertEquals("exact", results.get().get("iaf_psc_alpha").solver);
+    assertEquals("numeric", results.get().get("iaf_cond_alpha").solver);
+  }
+
+  private SolverInput createSolverInput(final String pathToModel) throws IOException {
+    final Optional<ASTNESTMLCompilationUnit> root = parser.parse(pathToModel);
+    assertTrue(root.isPresent());
+
+    final NESTMLScopeCreator nestmlScopeCreator = new NESTMLScopeCreator();
+    nestmlScopeCreator.runSymbolTableCreator(root.get());
+
+    return new SolverInput(root.get().getNeurons().get(0).getBody().getOdeBlock().get());
+  }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c)  RWTH Aachen. All rights reserved.
+ *
+ * http://www.se-rwth.de/
+ */
+package org.nest.frontend;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import org.nest.utils.FilesHelper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that the manifest detects changed inputs and artifacts.
+ */
+public class BuildManifestTest {
+  private static final Path TARGET_FOLDER = Paths.get("target/build_manifest");
+
+  @Test
+  public void testUpToDateCheck() throws IOException {
+    FilesHelper.createFolders(TARGET_FOLDER);
+    final Path header = Paths.get(TARGET_FOLDER.toString(), "iaf_neuron.h");
+    Files.write(header, "// generated".getBytes());
+
+    final BuildManifest manifest = new BuildManifest();
+    manifest.recordNeuron(
+        "iaf_neuron",
+        "input_hash",
+        Lists.newArrayList("iaf_neuron.h"),
+        Lists.newArrayList("iaf_neuron_population.h"), // not generated
+        TARGET_FOLDER);
+    manifest.recordModule("test_module", "benchmark=false", Lists.newArrayList("iaf_neuron.h"), TARGET_FOLDER);
+    manifest.store(TARGET_FOLDER);
+
+    final BuildManifest storedManifest = BuildManifest.load(TARGET_FOLDER);
+    assertTrue(storedManifest.isUpToDate("iaf_neuron", "input_hash", TARGET_FOLDER));
+    assertTrue(storedManifest.isModuleUpToDate(
+        "test_module",
+        "benchmark=false",
+        Lists.newArrayList("iaf_neuron"),
+        TARGET_FOLDER));
+
+    assertFalse(storedManifest.isUpToDate("iaf_neuron", "changed_input_hash", TARGET_FOLDER));
+    assertFalse(storedManifest.isUpToDate("iaf_cond_alpha", "input_hash", TARGET_FOLDER));
+    assertFalse(storedManifest.isModuleUpToDate(
+        "other_module",
+        "benchmark=false",
+        Lists.newArrayList("iaf_neuron"),
+        TARGET_FOLDER));
+    assertFalse(storedManifest.isModuleUpToDate(
+        "test_module",
+        "benchmark=false",
+        Lists.newArrayList("iaf_neuron", "iaf_cond_alpha"),
+        TARGET_FOLDER));
+    // e.g. the benchmark harness is generated only with the option
+    assertFalse(storedManifest.isModuleUpToDate(
+        "test_module",
+        "benchmark=true",
+        Lists.newArrayList("iaf_neuron"),
+        TARGET_FOLDER));
+
+    // a manually changed artifact must be regenerated
+    Files.write(header, "// changed".getBytes());
+    assertFalse(storedManifest.isUpToDate("iaf_neuron", "input_hash", TARGET_FOLDER));
+  }
+
+  @Test
+  public void testMissingArtifacts() throws IOException {
+    FilesHelper.createFolders(TARGET_FOLDER);
+    final Path header = Paths.get(TARGET_FOLDER.toString(), "iaf_cond_alpha.h");
+    Files.deleteIfExists(header);
+
+    // a generation which didn't write the artifact must not be up to date
+    final BuildManifest manifest = new BuildManifest();
+    manifest.recordNeuron(
+        "iaf_cond_alpha",
+        "input_hash",
+        Lists.newArrayList("iaf_cond_alpha.h"),
+        Lists.newArrayList(),
+        TARGET_FOLDER);
+    manifest.recordModule("test_module", "", Lists.newArrayList("iaf_cond_alpha.h"), TARGET_FOLDER);
+    assertFalse(manifest.isUpToDate("iaf_cond_alpha", "input_hash", TARGET_FOLDER));
+    assertFalse(manifest.isModuleUpToDate("test_module", "", Lists.newArrayList("iaf_cond_alpha"), TARGET_FOLDER));
+
+    // a deleted artifact must be regenerated
+    Files.write(header, "// generated".getBytes());
+    manifest.recordNeuron(
+        "iaf_cond_alpha",
+        "input_hash",
+        Lists.newArrayList("iaf_cond_alpha.h"),
+        Lists.newArrayList(),
+        TARGET_FOLDER);
+    assertTrue(manifest.isUpToDate("iaf_cond_alpha", "input_hash", TARGET_FOLDER));
+    Files.delete(header);
+    assertFalse(manifest.isUpToDate("iaf_cond_alpha", "input_hash", TARGET_FOLDER));
+  }
+
+}
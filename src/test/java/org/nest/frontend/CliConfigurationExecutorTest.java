@@ -5,16 +5,33 @@
  */
 package org.nest.frontend;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.junit.Assert;
 import org.junit.Test;
 import org.nest.base.ModelbasedTest;
 import org.nest.codegeneration.NestCodeGenerator;
 import org.nest.nestml._symboltable.NESTMLScopeCreator;
+import org.nest.reporting.Reporter;
+import org.nest.utils.FilesHelper;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 import static org.nest.utils.FilesHelper.collectNESTMLModelFilenames;
 
 /**
@@ -25,6 +42,11 @@ import static org.nest.utils.FilesHelper.collectNESTMLModelFilenames;
 public class CliConfigurationExecutorTest extends ModelbasedTest {
   private static final Path TEST_INPUT_PATH = Paths.get("src/test/resources/command_line_base/");
   private static final Path TARGET_FOLDER = Paths.get("target/build");
+  private static final List<String> SOLVABLE_MODELS = Lists.newArrayList(
+      "iaf_psc_alpha.nestml",
+      "iaf_psc_exp.nestml",
+      "iaf_psc_delta.nestml",
+      "iaf_cond_alpha.nestml");
   private final CliConfiguration testConfig;
   private final CliConfigurationExecutor executor = new CliConfigurationExecutor();
   private final NESTMLScopeCreator scopeCreator = new NESTMLScopeCreator();
@@ -42,6 +64,168 @@ public class CliConfigurationExecutorTest extends ModelbasedTest {
     executor.execute(generator, testConfig);
   }
 
+  @Test
+  public void testParallelExecution() throws IOException {
+    final Path sequentialFolder = Paths.get("target", "build_sequential");
+    final Path parallelFolder = Paths.get("target", "build_parallel");
+    final NestCodeGenerator generator = new NestCodeGenerator(false);
+    // leftovers of previous runs must not be compared
+    cleanFolder(sequentialFolder);
+    cleanFolder(parallelFolder);
+
+    final Reporter.Context sequentialRun = executor.execute(
+        generator,
+        createConfig(TEST_INPUT_PATH, sequentialFolder, 1));
+    final Reporter.Context parallelRun = executor.execute(
+        generator,
+        createConfig(TEST_INPUT_PATH, parallelFolder, 2));
+
+    // workers add reports in an arbitrary order
+    Assert.assertEquals(collectReports(sequentialRun), collectReports(parallelRun));
+    final Map<Path, String> sequentialCode = collectGeneratedCode(sequentialFolder);
+    Assert.assertFalse(sequentialCode.isEmpty());
+    Assert.assertEquals(sequentialCode, collectGeneratedCode(parallelFolder));
+  }
+
+  /**
+   * Neurons with shapes are solved exactly through SymPy. Their transformation runs concurrently on all workers.
+   */
+  @Test
+  public void testParallelGenerationOfSolvableModels() throws IOException {
+    final Path modelFolder = Paths.get("target", "parallel_models");
+    final Path sequentialFolder = Paths.get("target", "build_solvable_sequential");
+    final Path parallelFolder = Paths.get("target", "build_solvable_parallel");
+    cleanFolder(modelFolder);
+    cleanFolder(sequentialFolder);
+    cleanFolder(parallelFolder);
+    for (final String model:SOLVABLE_MODELS) {
+      Files.copy(Paths.get("models", model), Paths.get(modelFolder.toString(), model));
+    }
+
+    final NestCodeGenerator generator = new NestCodeGenerator(false);
+    final Reporter.Context sequentialRun = executor.execute(generator, createConfig(modelFolder, sequentialFolder, 1));
+    final Reporter.Context parallelRun = executor.execute(generator, createConfig(modelFolder, parallelFolder, 4));
+
+    Assert.assertEquals(collectReports(sequentialRun), collectReports(parallelRun));
+    final Map<Path, String> sequentialCode = collectGeneratedCode(sequentialFolder);
+    Assert.assertTrue(sequentialCode.keySet().stream().anyMatch(file -> file.endsWith("iaf_psc_alpha_neuron.h")));
+    Assert.assertEquals(sequentialCode, collectGeneratedCode(parallelFolder));
+  }
+
+  private static CliConfiguration createConfig(final Path modelPath, final Path targetFolder, final int jobs) {
+    return new CliConfiguration.Builder()
+        .withModelPath(modelPath)
+        .withTargetPath(targetFolder.toString())
+        .withModuleName("parallel")
+        .withCodegeneration(true)
+        .withJobs(jobs)
+        .build();
+  }
+
+  private static void cleanFolder(final Path folder) {
+    FilesHelper.createFolders(folder);
+    FilesHelper.deleteFilesInFolder(folder);
+  }
+
+  private static List<String> collectReports(final Reporter.Context run) throws IOException {
+    final String json = Reporter.get().runInContext(run, Reporter.get()::printFindingsAsJsonString);
+    final List<?> reports = new ObjectMapper().readValue(json, List.class);
+    return reports.stream().map(Object::toString).sorted().collect(toList());
+  }
+
+  private static Map<Path, String> collectGeneratedCode(final Path targetFolder) throws IOException {
+    final Map<Path, String> result = Maps.newTreeMap();
+    try (final Stream<Path> files = Files.walk(targetFolder)) {
+      for (final Path file:files.filter(file -> file.toString().endsWith(".h") || file.toString().endsWith(".cpp"))
+          .collect(toList())) {
+        result.put(targetFolder.relativize(file), new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+      }
+
+    }
+
+    return result;
+  }
+
+  @Test
+  public void testIncrementalExecution() throws IOException {
+    final Path modelFolder = Paths.get("target", "incremental_models");
+    final Path targetFolder = Paths.get("target", "incremental_build");
+    FilesHelper.createFolders(targetFolder);
+    FilesHelper.deleteFilesInFolder(targetFolder);
+    copyFolder(TEST_INPUT_PATH, modelFolder);
+
+    final CliConfiguration incrementalConfig = new CliConfiguration.Builder()
+        .withModelPath(modelFolder)
+        .withTargetPath(targetFolder.toString())
+        .withCodegeneration(true)
+        .withIncremental(true)
+        .build();
+
+    final NestCodeGenerator generator = new NestCodeGenerator(false);
+    Assert.assertEquals(
+        Sets.newHashSet("iaf_psc_alpha_neuron", "iaf_cond_alpha_implicit", "iaf_cond_alpha_implicit2"),
+        collectGeneratedNeurons(executor.execute(generator, incrementalConfig)));
+    Assert.assertTrue(Files.exists(Paths.get(targetFolder.toString(), BuildManifest.MANIFEST_FILE_NAME)));
+
+    // the second run finds the manifest of the first one and skips unchanged models
+    Assert.assertTrue(collectGeneratedNeurons(executor.execute(generator, incrementalConfig)).isEmpty());
+
+    // a touched model is regenerated
+    final Path touchedModel = Paths.get(modelFolder.toString(), "cli_example.nestml");
+    Files.write(touchedModel, "\n".getBytes(), StandardOpenOption.APPEND);
+    Assert.assertEquals(
+        Sets.newHashSet("iaf_psc_alpha_neuron"),
+        collectGeneratedNeurons(executor.execute(generator, incrementalConfig)));
+
+    // a deleted artifact is regenerated with all neurons of its model
+    final Path deletedArtifact = Paths.get(targetFolder.toString(), "iaf_cond_alpha_implicit.cpp");
+    Files.delete(deletedArtifact);
+    Assert.assertEquals(
+        Sets.newHashSet("iaf_cond_alpha_implicit", "iaf_cond_alpha_implicit2"),
+        collectGeneratedNeurons(executor.execute(generator, incrementalConfig)));
+    Assert.assertTrue(Files.exists(deletedArtifact));
+
+    // the benchmark harness is a part of the module, which is regenerated once the option is enabled
+    final CliConfiguration benchmarkConfig = new CliConfiguration.Builder()
+        .withModelPath(modelFolder)
+        .withTargetPath(targetFolder.toString())
+        .withCodegeneration(true)
+        .withIncremental(true)
+        .withBenchmark(true)
+        .build();
+    final NestCodeGenerator benchmarkGenerator = new NestCodeGenerator.Builder()
+        .withBenchmark(true)
+        .build();
+    executor.execute(benchmarkGenerator, benchmarkConfig);
+    Assert.assertTrue(Files.exists(Paths.get(targetFolder.toString(), "benchmark", "CMakeLists.txt")));
+  }
+
+  /**
+   * @return Names of the neurons whose code was generated in the run. They are taken from the recorded metrics.
+   */
+  private static Set<String> collectGeneratedNeurons(final Reporter.Context run) throws IOException {
+    final String json = Reporter.get().runInContext(run, Reporter.get()::printMetricsAsJsonString);
+    final List<Map<String, Object>> metrics = new ObjectMapper().readValue(
+        json,
+        new TypeReference<List<Map<String, Object>>>() {});
+    return metrics.stream()
+        .filter(metric -> "codegeneration".equals(metric.get("name")))
+        .map(metric -> metric.get("artifactName").toString())
+        .collect(toSet());
+  }
+
+  private static void copyFolder(final Path source, final Path target) throws IOException {
+    try (final Stream<Path> files = Files.walk(source)) {
+      for (final Path file:files.filter(Files::isRegularFile).collect(toList())) {
+        final Path copy = target.resolve(source.relativize(file).toString());
+        FilesHelper.createFolders(copy.getParent());
+        Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING);
+      }
+
+    }
+
+  }
+
   @Test
   public void testArtifactCollection() {
     final List<Path> collectedFiles = collectNESTMLModelFilenames(TEST_INPUT_PATH);
@@ -5,12 +5,17 @@
  */
 package org.nest.frontend;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Test;
+import org.nest.codegeneration.Precision;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 import java.util.Optional;
 
+import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.*;
 
 /**
@@ -33,10 +38,12 @@ public class NestmlFrontendTest {
         "--dry-run",
         "--json_log", Paths.get(targetPath.toString(), "model_log.log").toString(),
         "--module_name", "integration",
+        "--jobs", "4",
         testInputModelsPath.toString(),
     });
 
     assertTrue(testantLong.isPresent());
+    assertEquals(4, testantLong.get().getJobs());
     assertTrue(testantLong.get().isTracing());
     assertFalse(testantLong.get().isCodegeneration());
     assertEquals(testInputModelsPath, testantLong.get().getInputPath());
@@ -52,6 +59,7 @@ public class NestmlFrontendTest {
         testInputModelsPath.toString(),
     });
     assertTrue(testantShort.isPresent());
+    assertEquals(1, testantShort.get().getJobs());
     assertTrue(testantShort.get().isTracing());
     assertFalse(testantShort.get().isCodegeneration());
     assertEquals(testInputModelsPath, testantShort.get().getInputPath());
@@ -76,6 +84,114 @@ public class NestmlFrontendTest {
   }
 
 
+  @Test
+  public void testInvalidJobs() {
+    final Optional<CliConfiguration> testant = nestmlFrontend.createCLIConfiguration(new String[] {
+        "--jobs", "0",
+        "testInputModelsPath"});
+    assertFalse(testant.isPresent());
+  }
+
+  @Test
+  public void testCompileRequest() {
+    assertFalse(nestmlFrontend.compile(new String[] {}).isPresent());
+
+    final Optional<String> failedReport = nestmlFrontend.compile(new String[] {
+        "src/test/resources/org/nest/nestml/_cocos/invalid/memberVariableDefinedMultipleTimes.nestml",
+        "--target", Paths.get("target", "daemon").toString(),
+        "--dry-run"});
+    assertTrue(failedReport.isPresent());
+    assertTrue(failedReport.get().contains("\"ERROR\""));
+
+    // errors of the previous request must not be reported again
+    final Optional<String> report = nestmlFrontend.compile(new String[] {
+        "src/test/resources/command_line_base",
+        "--target", Paths.get("target", "daemon").toString(),
+        "--dry-run"});
+    assertTrue(report.isPresent());
+    assertFalse(report.get().contains("\"ERROR\""));
+  }
+
+  @Test
+  public void testDaemonWithFurtherArguments() {
+    // returns immediately instead of starting the daemon
+    nestmlFrontend.start(new String[] {
+        "--daemon", "7070",
+        "models/"});
+  }
+
+  @Test
+  public void testGslStepper() {
+    final Optional<CliConfiguration> testant = nestmlFrontend.createCLIConfiguration(new String[] {
+        "--gsl_stepper", "hh_psc_alpha=bsimp",
+        "testInputModelsPath"});
+    assertTrue(testant.isPresent());
+    assertEquals("bsimp", testant.get().getIntegratorConfiguration().getStepper("hh_psc_alpha"));
+
+    final Optional<CliConfiguration> fixedStepTestant = nestmlFrontend.createCLIConfiguration(new String[] {
+        "--gsl_stepper", "fixed_rk4",
+        "testInputModelsPath"});
+    assertTrue(fixedStepTestant.isPresent());
+    assertEquals("rk4", fixedStepTestant.get().getIntegratorConfiguration().getFixedStepMethod("iaf_cond_alpha").get());
+
+    final Optional<CliConfiguration> invalidTestant = nestmlFrontend.createCLIConfiguration(new String[] {
+        "--gsl_stepper", "unknown_stepper",
+        "testInputModelsPath"});
+    assertFalse(invalidTestant.isPresent());
+  }
+
+  @Test
+  public void testPrecision() {
+    final Optional<CliConfiguration> testant = nestmlFrontend.createCLIConfiguration(new String[] {
+        "--precision", "mixed",
+        "testInputModelsPath"});
+    assertTrue(testant.isPresent());
+    assertEquals(Precision.MIXED, testant.get().getPrecision());
+
+    final Optional<CliConfiguration> invalidTestant = nestmlFrontend.createCLIConfiguration(new String[] {
+        "--precision", "half",
+        "testInputModelsPath"});
+    assertFalse(invalidTestant.isPresent());
+  }
+
+  @Test
+  public void testQuiescence() {
+    final Optional<CliConfiguration> testant = nestmlFrontend.createCLIConfiguration(new String[] {
+        "--quiescence",
+        "testInputModelsPath"});
+    assertTrue(testant.isPresent());
+    assertTrue(testant.get().isQuiescence());
+    assertEquals(Paths.get("testInputModelsPath"), testant.get().getInputPath());
+
+    final Optional<CliConfiguration> defaultTestant = nestmlFrontend.createCLIConfiguration(new String[] {
+        "testInputModelsPath"});
+    assertTrue(defaultTestant.isPresent());
+    assertFalse(defaultTestant.get().isQuiescence());
+  }
+
+  @Test
+  public void testReducedPowers() {
+    final Optional<CliConfiguration> testant = nestmlFrontend.createCLIConfiguration(new String[] {
+        "--reduce_powers",
+        "testInputModelsPath"});
+    assertTrue(testant.isPresent());
+    assertTrue(testant.get().isReducePowers());
+
+    final Optional<CliConfiguration> defaultTestant = nestmlFrontend.createCLIConfiguration(new String[] {
+        "testInputModelsPath"});
+    assertTrue(defaultTestant.isPresent());
+    assertFalse(defaultTestant.get().isReducePowers());
+  }
+
+  @Test
+  public void testBenchmark() {
+    final Optional<CliConfiguration> testant = nestmlFrontend.createCLIConfiguration(new String[] {
+        "--benchmark",
+        "testInputModelsPath"});
+    assertTrue(testant.isPresent());
+    assertTrue(testant.get().isBenchmark());
+  }
+
   @Test
   public void testHelp() {
     nestmlFrontend.start(new String[] {});
@@ -93,6 +209,32 @@ public class NestmlFrontendTest {
     new NestmlFrontend().start(args);
   }
 
+  @Test
+  public void testParallelDryRun() throws IOException {
+    // most model files contain several neurons, e.g. an explicit and an implicit variant
+    final List<String> sequentialReports = collectDryRunReports("models/", 1);
+    final List<String> parallelReports = collectDryRunReports("models/", 4);
+
+    assertFalse(sequentialReports.isEmpty());
+    // every finding of every neuron is reported exactly once, regardless of the worker which checks the neuron
+    assertEquals(sequentialReports, parallelReports);
+  }
+
+  /**
+   * @return The reports of a dry run in a stable order, since workers add reports in an arbitrary order.
+   */
+  private List<String> collectDryRunReports(final String modelPath, final int jobs) throws IOException {
+    final Optional<String> report = nestmlFrontend.compile(new String[] {
+        modelPath,
+        "--target", outputPath.toString(),
+        "--jobs", String.valueOf(jobs),
+        "--dry-run"});
+    assertTrue(report.isPresent());
+
+    final List<?> reports = new ObjectMapper().readValue(report.get(), List.class);
+    return reports.stream().map(Object::toString).sorted().collect(toList());
+  }
+
   @Test
   public void testJsonOutput() {
     final String[] args = new String[] {
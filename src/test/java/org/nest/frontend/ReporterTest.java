@@ -21,9 +21,18 @@
 
 package org.nest.frontend;
 
+import de.se_rwth.commons.logging.Log;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.nest.reporting.Reporter;
+import org.nest.reporting.TaskLocalLog;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author plotnikov
@@ -54,4 +63,62 @@ public class ReporterTest {
     reporter.printReports(System.out, System.out);
   }
 
+  @Test
+  public void testMetrics() {
+    final Reporter reporter = Reporter.get();
+    final Reporter.Timer timer = reporter.startTimer("iaf_neuron", "test_phase");
+    timer.stop();
+    reporter.addCounter("iaf_neuron", "test_counter", "nodes", 42);
+
+    final String metrics = reporter.printMetricsAsJsonString();
+    assertTrue(metrics.contains("test_phase"));
+    assertTrue(metrics.contains("test_counter"));
+  }
+
+  @Test
+  public void testContextIsolation() throws Exception {
+    final Reporter reporter = Reporter.get();
+    final Reporter.Context runContext = new Reporter.Context();
+
+    final ExecutorService worker = Executors.newSingleThreadExecutor();
+    worker.submit(() -> reporter.runInContext(runContext, () -> {
+      reporter.addNeuronReport("run.nestml", "run_neuron", Reporter.Level.ERROR, "NESTML_RUN", 0, 1, "Run message");
+    })).get();
+    worker.shutdown();
+
+    assertFalse(reporter.printFindingsAsJsonString().contains("run_neuron"));
+    assertTrue(reporter.runInContext(runContext, reporter::printFindingsAsJsonString).contains("run_neuron"));
+  }
+
+  @Test
+  public void testTaskLocalFindings() {
+    TaskLocalLog.install();
+    Log.getFindings().clear();
+    Log.warn("Finding of the calling thread");
+
+    final TaskLocalLog.TaskResult<Integer> taskResult = TaskLocalLog.collectFindings(() -> {
+      Log.warn("Finding of the task");
+      return Log.getFindings().size();
+    });
+
+    assertEquals(1, (int) taskResult.getResult());
+    assertEquals(1, taskResult.getFindings().size());
+    assertEquals(1, Log.getFindings().size());
+  }
+
+  @Test
+  public void testReinstallAfterLogInit() throws Exception {
+    TaskLocalLog.install();
+    Log.init(); // replaces the task local log
+    Log.enableFailQuick(false);
+    TaskLocalLog.install();
+    Log.getFindings().clear();
+
+    final ExecutorService worker = Executors.newSingleThreadExecutor();
+    worker.submit(() -> Log.warn("Finding of another thread")).get();
+    worker.shutdown();
+
+    assertTrue(Log.getFindings().isEmpty());
+  }
+
 }
\ No newline at end of file
@@ -19,6 +19,7 @@ import org.nest.nestml._symboltable.predefined.PredefinedTypes;
 import org.nest.nestml._symboltable.symbols.MethodSymbol;
 import org.nest.nestml._symboltable.symbols.NeuronSymbol;
 import org.nest.nestml._symboltable.symbols.TypeSymbol;
+import org.nest.nestml._symboltable.symbols.VariableResolutionMemo;
 import org.nest.nestml._symboltable.symbols.VariableSymbol;
 
 import java.io.IOException;
@@ -269,4 +270,21 @@ public class NESTMLSymbolTableCreatorTest extends ModelbasedTest {
     assertTrue(spikeBuffers.get(0).isConductanceBased());
   }
 
+  @Test
+  public void testVariableResolutionMemo() throws IOException {
+    final ASTNESTMLCompilationUnit root = parseNestmlModel(MODEL_FILE_NAME);
+    scopeCreator.runSymbolTableCreator(root);
+    final Scope neuronScope = root.getNeurons().get(0).getSpannedScope().get();
+
+    final Optional<VariableSymbol> C_m = VariableResolutionMemo.run(() -> {
+      final Optional<VariableSymbol> first = VariableSymbol.resolveIfExists("C_m", neuronScope);
+      assertSame(first, VariableSymbol.resolveIfExists("C_m", neuronScope));
+      assertFalse(VariableSymbol.resolveIfExists("undefined_variable", neuronScope).isPresent());
+      return first;
+    });
+
+    assertTrue(C_m.isPresent());
+    assertSame(C_m.get(), VariableSymbol.resolve("C_m", neuronScope));
+  }
+
 }
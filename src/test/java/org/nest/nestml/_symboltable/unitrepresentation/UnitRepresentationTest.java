@@ -0,0 +1,88 @@
+/*
+ * Copyright (c)  RWTH Aachen. All rights reserved.
+ *
+ * http://www.se-rwth.de/
+ */
+package org.nest.nestml._symboltable.unitrepresentation;
+
+import org.junit.Test;
+import org.nest.nestml._symboltable.predefined.PredefinedTypes;
+import org.nest.nestml._symboltable.symbols.TypeSymbol;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the interning of units and the caches of the unit arithmetic.
+ */
+public class UnitRepresentationTest {
+
+  @Test
+  public void testInterning() {
+    final UnitRepresentation mV = UnitRepresentation.lookupName("mV").get();
+    assertSame(mV, UnitRepresentation.getBuilder().other(mV).build());
+    assertSame(mV, UnitRepresentation.fromSerialization(mV.serialize()));
+    assertEquals("mV", mV.prettyPrint());
+
+    final UnitRepresentation ms = UnitRepresentation.lookupName("ms").get();
+    final UnitRepresentation quotient = mV.divideBy(ms);
+    assertSame(quotient, mV.divideBy(ms));
+    assertSame(mV, quotient.multiplyBy(ms));
+    assertSame(ms, ms.invert().pow(-1));
+    assertTrue(mV.divideBy(mV).isZero());
+  }
+
+  @Test
+  public void testPackedKey() {
+    final UnitRepresentation allNegative = UnitRepresentation.getBuilder()
+        .K(-1).s(-1).m(-1).g(-1).cd(-1).mol(-1).A(-1).magnitude(-1).ignoreMagnitude(true)
+        .build();
+    assertTrue(allNegative.isInterned());
+    assertTrue(allNegative.getKey() >= 0);
+    assertSame(allNegative, UnitRepresentation.fromSerialization(allNegative.serialize()));
+
+    // exponents which don't fit into the key are still supported
+    final UnitRepresentation large = UnitRepresentation.getBuilder().s(100).build();
+    assertFalse(large.isInterned());
+    assertEquals(large.serialize(), UnitRepresentation.fromSerialization(large.serialize()).serialize());
+  }
+
+  @Test
+  public void testTypeOfUnit() {
+    final UnitRepresentation pA = UnitRepresentation.lookupName("pA").get();
+    assertSame(PredefinedTypes.getType("pA"), PredefinedTypes.getTypeOfUnit(pA));
+    assertEquals(pA.serialize(), PredefinedTypes.getTypeOfUnit(pA).getName());
+  }
+
+  @Test
+  public void testConcurrentTypeRegistration() throws Exception {
+    final UnitRepresentation derivedUnit = UnitRepresentation.lookupName("mV").get()
+        .multiplyBy(UnitRepresentation.lookupName("kat").get())
+        .pow(3);
+    final Callable<TypeSymbol> registration = () -> PredefinedTypes.getTypeOfUnit(derivedUnit);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<TypeSymbol>> types = executor.invokeAll(
+          IntStream.range(0, 16).mapToObj(i -> registration).collect(Collectors.toList()));
+      for (final Future<TypeSymbol> type:types) {
+        assertSame(PredefinedTypes.getType(derivedUnit.serialize()), type.get());
+      }
+    }
+    finally {
+      executor.shutdown();
+    }
+
+  }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * LegacyExpressionPrinterTest.java
+ *
+ * This file is part of NEST.
+ *
+ * Copyright (C) 2004 The NEST Initiative
+ *
+ * NEST is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * NEST is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with NEST.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.nest.nestml.prettyprinter;
+
+import org.junit.Test;
+import org.nest.nestml._ast.ASTExpr;
+import org.nest.nestml._parser.NESTMLParser;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that powers with constant exponents are printed without pow calls.
+ */
+public class LegacyExpressionPrinterTest {
+  private final NESTMLParser parser = new NESTMLParser();
+  private final LegacyExpressionPrinter reducingPrinter = new LegacyExpressionPrinter(
+      new IdempotentReferenceConverter(),
+      true);
+
+  @Test
+  public void testIntegerExponents() throws IOException {
+    assertEquals("__ipow< 3 >(m)*h", reducingPrinter.print(parse("m**3*h")));
+    assertEquals("__ipow< 4 >(n)", reducingPrinter.print(parse("pow(n, 4)")));
+    assertEquals("(1.0 / __ipow< 2 >(x))", reducingPrinter.print(parse("x**(-2)")));
+  }
+
+  @Test
+  public void testRootExponents() throws IOException {
+    assertEquals("std::sqrt(x)", reducingPrinter.print(parse("x**0.5")));
+    assertEquals("std::cbrt(x)", reducingPrinter.print(parse("x**(1.0/3.0)")));
+    // integer division as in C++: the exponent is 0
+    assertFalse(reducingPrinter.print(parse("x**(1/3)")).contains("cbrt"));
+    assertEquals("std::sqrt(x)", reducingPrinter.print(parse("x**(1/2.0)")));
+    assertFalse(reducingPrinter.print(parse("x**((1 + 2)/6)")).contains("sqrt"));
+  }
+
+  @Test
+  public void testNonConstantExponents() throws IOException {
+    assertFalse(reducingPrinter.print(parse("x**y")).contains("__ipow"));
+    assertFalse(reducingPrinter.print(parse("x**2.5")).contains("__ipow"));
+    assertFalse(new LegacyExpressionPrinter(new IdempotentReferenceConverter()).print(parse("x**2")).contains("__ipow"));
+  }
+
+  private ASTExpr parse(final String expression) throws IOException {
+    final Optional<ASTExpr> result = parser.parseExpr(new StringReader(expression));
+    assertTrue(result.isPresent());
+    return result.get();
+  }
+
+}
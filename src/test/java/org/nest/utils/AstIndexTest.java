@@ -0,0 +1,83 @@
+/*
+ * Copyright (c)  RWTH Aachen. All rights reserved.
+ *
+ * http://www.se-rwth.de/
+ */
+package org.nest.utils;
+
+import de.monticore.ast.ASTNode;
+import org.junit.Test;
+import org.nest.base.ModelbasedTest;
+import org.nest.nestml._ast.ASTBody;
+import org.nest.nestml._ast.ASTDeclaration;
+import org.nest.nestml._ast.ASTNESTMLCompilationUnit;
+import org.nest.nestml._ast.ASTNeuron;
+import org.nest.nestml._ast.ASTVariable;
+import org.nest.nestml._parser.NESTMLParser;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class AstIndexTest extends ModelbasedTest {
+  private static final String PSC_MODEL_WITH_ODE = "models/ht_neuron.nestml";
+
+  @Test
+  public void testClassQueries() {
+    final ASTNESTMLCompilationUnit root = parseAndBuildSymboltable(PSC_MODEL_WITH_ODE);
+    final ASTNeuron astNeuron = root.getNeurons().get(0);
+    final AstIndex index = AstIndex.of(astNeuron);
+
+    assertEquals(AstUtils.getAll(astNeuron, ASTVariable.class), index.getAll(ASTVariable.class));
+    final ASTBody astBody = astNeuron.getBody();
+    assertEquals(AstUtils.getAll(astBody, ASTDeclaration.class), index.getAll(astBody, ASTDeclaration.class));
+    assertEquals(AstUtils.getAny(astBody, ASTVariable.class), index.getAny(astBody, ASTVariable.class));
+  }
+
+  @Test
+  public void testParents() {
+    final ASTNESTMLCompilationUnit root = parseAndBuildSymboltable(PSC_MODEL_WITH_ODE);
+    final ASTNeuron astNeuron = root.getNeurons().get(0);
+    final AstIndex index = AstIndex.of(astNeuron);
+
+    assertFalse(index.getParent(astNeuron).isPresent());
+    for (final ASTNode node:AstUtils.getSuccessors(astNeuron.getBody())) {
+      final Optional<ASTNode> parent = index.getParent(node);
+      assertTrue(parent.isPresent());
+      assertTrue(parent.get().get_Children().contains(node));
+      assertTrue(index.isSuccessor(parent.get(), node));
+    }
+
+  }
+
+  @Test
+  public void testLocalIndex() {
+    final ASTNESTMLCompilationUnit root = parseAndBuildSymboltable(PSC_MODEL_WITH_ODE);
+    final ASTNeuron astNeuron = root.getNeurons().get(0);
+    final AstIndex localIndex = AstIndex.create(astNeuron);
+
+    assertEquals(AstUtils.getAll(astNeuron, ASTVariable.class), localIndex.getAll(ASTVariable.class));
+    // the local index is not registered
+    assertNotSame(localIndex, AstIndex.of(astNeuron));
+  }
+
+  @Test
+  public void testParentAfterTransformation() throws IOException {
+    final ASTNESTMLCompilationUnit root = parseAndBuildSymboltable(PSC_MODEL_WITH_ODE);
+    final ASTNeuron astNeuron = root.getNeurons().get(0);
+    final ASTBody astBody = astNeuron.getBody();
+    final ASTDeclaration declaration = new NESTMLParser()
+        .parseDeclaration(new StringReader("tmp real = 1.0"))
+        .get();
+    assertFalse(AstIndex.of(astNeuron).contains(declaration));
+
+    astBody.addToInternalBlock(declaration);
+    final Optional<ASTNode> parent = AstUtils.getParent(declaration, astNeuron);
+    assertTrue(parent.isPresent());
+    assertTrue(parent.get().get_Children().contains(declaration));
+    assertTrue(AstIndex.of(astNeuron).contains(declaration));
+  }
+
+}
@@ -9,6 +9,7 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.nest.base.ModelbasedTest;
 import org.nest.nestml._ast.ASTNESTMLCompilationUnit;
+import org.nest.nestml._ast.ASTNeuron;
 import org.nest.nestml._symboltable.symbols.VariableSymbol;
 
 import java.util.List;
@@ -29,4 +30,22 @@ public class AstUtilsTest extends ModelbasedTest {
     final Optional<VariableSymbol> testant = aliasesIn.stream().filter(alias -> alias.getName().equals("I_syn_ampa")).findAny();
     Assert.assertTrue(testant.isPresent());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testDeepCloneNeuronAndBuildSymbolTable() {
+    final ASTNESTMLCompilationUnit astCompilationUnit = parseAndBuildSymboltable(PSC_MODEL_WITH_ODE);
+    final ASTNeuron original = astCompilationUnit.getNeurons().get(0);
+
+    final ASTNeuron testant = AstUtils.deepCloneNeuronAndBuildSymbolTable(original, OUTPUT_FOLDER);
+    Assert.assertNotSame(original, testant);
+    Assert.assertEquals(original.getName(), testant.getName());
+    Assert.assertTrue(testant.getSymbol().isPresent());
+    Assert.assertEquals(
+        original.getBody().getStateDeclarations().size(),
+        testant.getBody().getStateDeclarations().size());
+    Assert.assertEquals(
+        original.getBody().getStateDeclarations().get(0).getComments(),
+        testant.getBody().getStateDeclarations().get(0).getComments());
+  }
+
+}